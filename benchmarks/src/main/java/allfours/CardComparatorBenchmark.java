@@ -0,0 +1,46 @@
+package allfours;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CardComparatorBenchmark {
+    private static final int PAIRS = 1024;
+
+    private Card[] left;
+    private Card[] right;
+    private int next;
+
+    @Setup
+    public void setup() {
+        SplittableRandom rng = new SplittableRandom(Fixtures.SEED);
+        left = new Card[PAIRS];
+        right = new Card[PAIRS];
+        for (int i = 0; i < PAIRS; i++) {
+            left[i] = Card.of(rng.nextInt(Card.NUM_CARDS));
+            right[i] = Card.of(rng.nextInt(Card.NUM_CARDS));
+        }
+    }
+
+    @Benchmark
+    public int compare() {
+        int i = next++ & (PAIRS - 1);
+        return CardComparator.compare(left[i], right[i]);
+    }
+}
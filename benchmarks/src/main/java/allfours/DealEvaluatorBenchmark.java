@@ -0,0 +1,60 @@
+package allfours;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Nanoseconds per deal over a batch of 4096
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Thread)
+public class DealEvaluatorBenchmark {
+    private static final int DEALS = 4096;
+
+    private final DealBatch batch = new DealBatch(DEALS);
+    private DealEvaluator vector;
+
+    @Setup
+    public void setup() {
+        batch.fill(Fixtures.SEED, 0);
+        vector = DealEvaluator.vector();
+        if (vector == null) {
+            throw new IllegalStateException("jdk.incubator.vector is not loaded");
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DEALS)
+    public DealBatch scalar() {
+        DealEvaluator.scalar().evaluate(batch);
+        return batch;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DEALS)
+    public DealBatch vector() {
+        vector.evaluate(batch);
+        return batch;
+    }
+
+    // Generating the deals, for scale
+    @Benchmark
+    @OperationsPerInvocation(DEALS)
+    public DealBatch fill() {
+        batch.fill(Fixtures.SEED, 0);
+        return batch;
+    }
+}
@@ -0,0 +1,57 @@
+package allfours;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DeckBenchmark {
+    private Deck deck;
+    private List<Player> players;
+
+    @Setup
+    public void setup() {
+        deck = new Deck(new SplittableRandom(Fixtures.SEED));
+        players = Fixtures.scriptedPlayers();
+    }
+
+    @Benchmark
+    public Deck construct() {
+        return new Deck();
+    }
+
+    @Benchmark
+    public Deck shuffle() {
+        deck.reset();
+        deck.shuffle();
+        return deck;
+    }
+
+    // Deals a full hand (six each) and the kick from the reused deck
+    @Benchmark
+    public Card deal() {
+        deck.reset();
+        deck.deal(players, 6);
+        Card kicked = deck.kick();
+        for (Player player : players) {
+            player.clearHand();
+        }
+        return kicked;
+    }
+}
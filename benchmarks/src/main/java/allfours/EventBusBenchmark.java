@@ -0,0 +1,51 @@
+package allfours;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EventBusBenchmark {
+    private final EventBus bus = new EventBus(1024);
+    private final EventBus.Cursor cursor = bus.cursor();
+    private final EventBus.Handler sink = event -> {
+    };
+    private Player player;
+    private Card card;
+
+    @Setup
+    public void setup() {
+        List<Player> players = Fixtures.scriptedPlayers();
+        player = players.get(0);
+        card = Card.of(0);
+    }
+
+    // What the game thread pays per event, with nobody reading
+    @Benchmark
+    public long publish() {
+        bus.cardPlayed(player, card);
+        return bus.getPublished();
+    }
+
+    // Publish, then read it back through a cursor on the same thread
+    @Benchmark
+    public int publishAndPoll() {
+        bus.cardPlayed(player, card);
+        return cursor.poll(sink, 1);
+    }
+}
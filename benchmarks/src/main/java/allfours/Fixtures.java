@@ -0,0 +1,66 @@
+package allfours;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/*
+ * Shared setup for the benchmarks: a fixed deal, and players that follow a
+ * script (always the lowest legal card, never beg) so every run plays the
+ * same cards.
+ */
+
+final class Fixtures {
+    static final long SEED = 42;
+
+    private Fixtures() {
+    }
+
+    static final DecisionProvider SCRIPTED = new DecisionProvider() {
+        @Override
+        public Card chooseCard(Player player, String leadSuit, String trumpSuit, List<Card> playedCards) {
+            return CardSet.first(player.legalMoves(leadSuit, trumpSuit, playedCards));
+        }
+
+        @Override
+        public boolean wantsToBeg(Player player, Card kickedCard) {
+            return false;
+        }
+
+        @Override
+        public boolean givesChalk(Player dealer, Card kickedCard) {
+            return true;
+        }
+    };
+
+    static List<Player> scriptedPlayers() {
+        List<Player> players = new ArrayList<>();
+        for (int i = 1; i <= 4; i++) {
+            players.add(new Player("Player " + i, SCRIPTED));
+        }
+        return players;
+    }
+
+    // The same shuffled 24-card deal every time, six cards per seat
+    static Card[][] fixedDeal() {
+        Deck deck = new Deck();
+        deck.shuffle(new SplittableRandom(SEED));
+        List<Player> players = scriptedPlayers();
+        deck.deal(players, 6);
+        Card[][] hands = new Card[4][];
+        for (int i = 0; i < 4; i++) {
+            hands[i] = players.get(i).getHand().toArray(new Card[0]);
+        }
+        return hands;
+    }
+
+    static void dealHands(List<Player> players, Card[][] hands) {
+        for (int i = 0; i < hands.length; i++) {
+            Player player = players.get(i);
+            player.clearHand();
+            for (Card card : hands[i]) {
+                player.addCard(card);
+            }
+        }
+    }
+}
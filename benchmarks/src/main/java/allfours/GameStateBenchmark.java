@@ -0,0 +1,54 @@
+package allfours;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameStateBenchmark {
+    private GameState state;
+    private long start;
+
+    @Setup
+    public void setup() {
+        long[] hands = new long[4];
+        Card[][] deal = Fixtures.fixedDeal();
+        for (int seat = 0; seat < 4; seat++) {
+            for (Card card : deal[seat]) {
+                hands[seat] |= CardSet.bit(card);
+            }
+        }
+        state = new GameState();
+        state.reset(hands, new SplittableRandom(Fixtures.SEED).nextInt(Card.NUM_SUITS), 3, 0);
+        start = state.getHash();
+    }
+
+    // All six tricks made card by card (lowest legal card), then taken back: 24 makes and 24 unmakes
+    @Benchmark
+    public long playAndTakeBack() {
+        long hashes = 0;
+        while (!state.isOver()) {
+            state.makeMove(Long.numberOfTrailingZeros(state.legalMoves()));
+            hashes ^= state.getHash();
+        }
+        while (state.getPly() > 0) {
+            state.unmakeMove();
+        }
+        return hashes ^ state.getHash() ^ start;
+    }
+}
@@ -0,0 +1,78 @@
+package allfours;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HandScanBenchmark {
+    private static final int SEGMENTS = 16;
+    private static final int SEGMENT_HANDS = 1 << 16;
+
+    private Path directory;
+
+    // Random hands with every field in range; half the segments never run the pack
+    @Setup
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("hands");
+        SplittableRandom random = new SplittableRandom(Fixtures.SEED);
+        long[] hands = new long[SEGMENT_HANDS];
+        try (HandArchive archive = new HandArchive(directory, SEGMENT_HANDS)) {
+            for (int s = 0; s < SEGMENTS; s++) {
+                for (int i = 0; i < SEGMENT_HANDS; i++) {
+                    long hand = random.nextInt(4)
+                            | (long) random.nextInt(Card.NUM_RANKS) << HandRecord.KICK_RANK
+                            | (long) (s % 2 == 0 ? 0 : random.nextInt(3)) << HandRecord.RUNS
+                            | (long) (random.nextInt(2) == 0 ? HandRecord.NO_JACK : random.nextInt(4)) << HandRecord.JACK_SEAT
+                            | (long) random.nextInt(2) << HandRecord.JACK_HUNG
+                            | (long) random.nextInt(1 << 10) << HandRecord.CHALK
+                            | (long) random.nextInt(2) << HandRecord.MATCH_WINNER;
+                    hands[i] = hand;
+                }
+                archive.append(hands, SEGMENT_HANDS);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        for (Path file : HandArchive.segments(directory)) {
+            Files.delete(file);
+        }
+        Files.delete(directory);
+    }
+
+    // Every segment read
+    @Benchmark
+    @OperationsPerInvocation(SEGMENTS * SEGMENT_HANDS)
+    public HandQueries.KickChalkByRank kickChalk() throws IOException {
+        return HandArchive.scan(directory, new HandQueries.KickChalkByRank());
+    }
+
+    // Half the segments skipped on their summary
+    @Benchmark
+    @OperationsPerInvocation(SEGMENTS * SEGMENT_HANDS)
+    public HandQueries.RunPackOutcome runPackOutcome() throws IOException {
+        return HandArchive.scan(directory, new HandQueries.RunPackOutcome());
+    }
+}
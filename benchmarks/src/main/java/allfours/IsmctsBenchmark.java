@@ -0,0 +1,69 @@
+package allfours;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IsmctsBenchmark {
+    private static final int ITERATIONS = 1000;
+
+    private List<Player> players;
+    private IsmctsDecisionProvider bot;
+    private IsmctsDecisionProvider cachedBot;
+    private Card kickedCard;
+
+    // Seat 0 is on top for the first trick of the fixed deal; the bot has seen the deal and the kick
+    @Setup
+    public void setup() {
+        players = Fixtures.scriptedPlayers();
+        Fixtures.dealHands(players, Fixtures.fixedDeal());
+        kickedCard = Card.of("King", "Hearts");
+        bot = new IsmctsDecisionProvider(new SplittableRandom(Fixtures.SEED), 0, 1, ITERATIONS, Runnable::run);
+        bot.roundStarted(players.get(1));
+        bot.cardKicked(kickedCard, false);
+        bot.handsDealt(players);
+        bot.trickStarted(1, players.get(0));
+
+        // The same bot answering from a warm DecisionCache
+        cachedBot = new IsmctsDecisionProvider(new SplittableRandom(Fixtures.SEED), 0, 1, ITERATIONS, Runnable::run);
+        cachedBot.setCache(new DecisionCache(1 << 10));
+        cachedBot.roundStarted(players.get(1));
+        cachedBot.cardKicked(kickedCard, false);
+        cachedBot.handsDealt(players);
+        cachedBot.wantsToBeg(players.get(0), kickedCard);
+    }
+
+    // One opening lead from 1000 determinizations on a single thread: divide by 1000 for playouts/sec
+    @Benchmark
+    public Card chooseLead() {
+        return bot.chooseCard(players.get(0), null, "Hearts", Collections.emptyList());
+    }
+
+    @Benchmark
+    public boolean wantsToBeg() {
+        return bot.wantsToBeg(players.get(0), kickedCard);
+    }
+
+    @Benchmark
+    public boolean wantsToBegCached() {
+        return cachedBot.wantsToBeg(players.get(0), kickedCard);
+    }
+}
@@ -0,0 +1,53 @@
+package allfours;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class KickOddsBenchmark {
+    private long pack;
+    private long unseen;
+    private int packSize;
+    private int trump;
+
+    // The fixed deal at the first beg: 27 cards in the pack
+    @Setup
+    public void setup() {
+        List<Player> players = Fixtures.scriptedPlayers();
+        Deck deck = new Deck();
+        deck.shuffle(new SplittableRandom(Fixtures.SEED));
+        deck.deal(players, 6);
+        Card kicked = deck.kick();
+        pack = deck.getRemaining();
+        unseen = CardSet.ALL & ~players.get(3).getHandMask() & ~CardSet.bit(kicked);
+        packSize = deck.cardsRemaining();
+        trump = kicked.getSuitIndex();
+    }
+
+    @Benchmark
+    public KickOdds fromPack() {
+        return KickOdds.of(pack, packSize, trump, 2);
+    }
+
+    @Benchmark
+    public KickOdds fromSeat() {
+        return KickOdds.of(unseen, packSize, trump, 2);
+    }
+}
@@ -0,0 +1,36 @@
+package allfours;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MatchBenchmark {
+    private MatchSimulator simulator;
+    private long matchIndex;
+
+    @Setup
+    public void setup() {
+        simulator = new MatchSimulator(Fixtures.SEED);
+    }
+
+    // One complete headless match between random bots, a different seeded match each call
+    @Benchmark
+    public GameController headlessMatch() {
+        return simulator.playMatch(matchIndex++, GameListener.SILENT);
+    }
+}
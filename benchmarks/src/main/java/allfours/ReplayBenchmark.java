@@ -0,0 +1,48 @@
+package allfours;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ReplayBenchmark {
+    private MatchSimulator simulator;
+    private MatchRecorder recorder;
+    private ByteBuffer record;
+
+    @Setup
+    public void setup() {
+        simulator = new MatchSimulator(Fixtures.SEED);
+        recorder = new MatchRecorder();
+        simulator.playMatch(0, recorder);
+        record = ByteBuffer.wrap(recorder.getRecord());
+    }
+
+    // Plays a random-bot match while recording it, against playMatch in MatchBenchmark
+    @Benchmark
+    public MatchRecorder recordMatch() {
+        simulator.playMatch(0, recorder);
+        return recorder;
+    }
+
+    // Rebuilds and verifies the whole recorded match
+    @Benchmark
+    public GameController replayMatch() {
+        return MatchReplayer.replay(record);
+    }
+}
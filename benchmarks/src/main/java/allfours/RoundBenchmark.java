@@ -0,0 +1,74 @@
+package allfours;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RoundBenchmark {
+    private Round round;
+    private Round playedRound;
+    private Team teamA;
+    private Team teamB;
+
+    @Setup
+    public void setup() {
+        // Dealt through the round's deck, as playRound() does, so its index of dealt cards is filled
+        List<Player> players = Fixtures.scriptedPlayers();
+        Deck deck = new Deck();
+        deck.shuffle(new SplittableRandom(Fixtures.SEED));
+        deck.deal(players, 6);
+        Team scriptedA = new Team("Team A", players.get(0), players.get(2));
+        Team scriptedB = new Team("Team B", players.get(1), players.get(3));
+        round = new Round(players, players.get(3), scriptedA, scriptedB, GameListener.SILENT, deck);
+        round.setTrump(players.get(0).getHand().get(0));
+
+        // A reused round between random bots, for steady-state playRound()
+        SplittableRandom rng = new SplittableRandom(Fixtures.SEED);
+        List<Player> bots = new ArrayList<>();
+        for (int i = 1; i <= 4; i++) {
+            bots.add(new Player("Bot " + i, new RandomDecisionProvider(rng.split())));
+        }
+        teamA = new Team("Team A", bots.get(0), bots.get(2));
+        teamB = new Team("Team B", bots.get(1), bots.get(3));
+        playedRound = new Round(bots, bots.get(3), teamA, teamB, GameListener.SILENT, new Deck(rng.split()));
+    }
+
+    @Benchmark
+    public Card findHighTrump() {
+        return round.findHighTrump();
+    }
+
+    @Benchmark
+    public Card findLowTrump() {
+        return round.findLowTrump();
+    }
+
+    // One complete hand with the same Round, Trick and Deck objects; should not allocate
+    @Benchmark
+    public Round playRound() {
+        if (teamA.getMatchScore() >= 10 || teamB.getMatchScore() >= 10) {
+            teamA.resetMatchScore();
+            teamB.resetMatchScore();
+        }
+        playedRound.playRound();
+        return playedRound;
+    }
+}
@@ -0,0 +1,60 @@
+package allfours;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SnapshotBenchmark {
+    private static final DecisionProvider[] SEATS = {
+            Fixtures.SCRIPTED, Fixtures.SCRIPTED, Fixtures.SCRIPTED, Fixtures.SCRIPTED };
+
+    private final byte[] buffer = new byte[MatchSnapshot.MAX_BYTES];
+    private byte[] snapshot;
+    private GameController game;
+
+    // A scripted match stopped just after its tenth card
+    @Setup
+    public void setup() {
+        GameListener checkpoint = new GameListener() {
+            private int cards;
+
+            @Override
+            public void cardPlayed(Player player, Card card) {
+                if (++cards == 10) {
+                    snapshot = MatchSnapshot.capture(game);
+                }
+            }
+        };
+        game = new GameController(checkpoint, new SplittableRandom(Fixtures.SEED));
+        game.setupGame(SEATS, 0);
+        game.playMatch();
+        game = MatchSnapshot.restore(snapshot, 0, SEATS, GameListener.SILENT, new SplittableRandom(Fixtures.SEED));
+    }
+
+    @Benchmark
+    public byte[] capture() {
+        MatchSnapshot.capture(game, buffer, 0);
+        return buffer;
+    }
+
+    @Benchmark
+    public GameController restore() {
+        return MatchSnapshot.restore(snapshot, 0, SEATS, GameListener.SILENT, new SplittableRandom(Fixtures.SEED));
+    }
+}
@@ -0,0 +1,64 @@
+package allfours;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TrickBenchmark {
+    private List<Player> players;
+    private Card[][] hands;
+    private Trick playedTrick;
+    private Trick trick;
+    private Card[] cards;
+    private int next;
+
+    @Setup
+    public void setup() {
+        players = Fixtures.scriptedPlayers();
+        hands = Fixtures.fixedDeal();
+        Fixtures.dealHands(players, hands);
+        playedTrick = new Trick(players, "Hearts", players.get(0), GameListener.SILENT);
+        playedTrick.play();
+        trick = new Trick(players, GameListener.SILENT);
+
+        cards = new Card[Card.NUM_CARDS];
+        for (int i = 0; i < Card.NUM_CARDS; i++) {
+            cards[(i * 17) % Card.NUM_CARDS] = Card.of(i); // Scrambled so pairs vary in suit
+        }
+    }
+
+    @Benchmark
+    public boolean isBetterCard() {
+        int i = next++;
+        return playedTrick.isBetterCard(cards[i % Card.NUM_CARDS], cards[(i + 1) % Card.NUM_CARDS], i & 3);
+    }
+
+    @Benchmark
+    public int calculateTrickPoints() {
+        return playedTrick.calculateTrickPoints();
+    }
+
+    // Re-deals the fixed hands and plays one full trick with scripted players
+    @Benchmark
+    public Player play() {
+        Fixtures.dealHands(players, hands);
+        trick.reset("Hearts", 0);
+        return trick.play();
+    }
+}
@@ -0,0 +1,141 @@
+package allfours;
+
+/*
+ * Attributes:
+ * - Card's suit: Hearts, Diamonds, Clubs, Spades
+ * - Card's rank: 2, 3, 4, 5, 6, 7, 8, 9, 10, Jack, Queen, King, Ace
+ * - Card's ordinal: 0..51, suit index * 13 + rank index
+ *
+ * Methods:
+ * - Constructor: Card(String rank, String suit)
+ * - of(String rank, String suit) / of(int ordinal): Returns the shared instance of a card
+ * - getSuit(): Returns the card's suit
+ * - getRank(): Returns the card's rank
+ * - getSuitIndex() / getRankIndex() / getOrdinal(): Precomputed indices used by comparisons
+ * - getGamePoints(): Returns the game points the card is worth in a trick
+ * - toString(): Returns a string representation of the card
+ * - equals(Object obj): Compares two cards for equality
+ * - hashCode(): Returns the hash code for the card
+ */
+
+public class Card {
+    public static final String[] SUITS = {"Hearts", "Diamonds", "Clubs", "Spades"};
+    public static final String[] RANKS = {"2", "3", "4", "5", "6", "7", "8", "9", "10",
+                                          "Jack", "Queen", "King", "Ace"};
+
+    public static final int NUM_SUITS = 4;
+    public static final int NUM_RANKS = 13;
+    public static final int NUM_CARDS = NUM_SUITS * NUM_RANKS;
+
+    // Rank indices the rules refer to directly
+    public static final int SIX = 4;
+    public static final int TEN = 8;
+    public static final int JACK = 9;
+    public static final int QUEEN = 10;
+    public static final int KING = 11;
+    public static final int ACE = 12;
+
+    // The 52 shared instances, indexed by ordinal
+    private static final Card[] DECK = new Card[NUM_CARDS];
+
+    static {
+        for (int i = 0; i < NUM_CARDS; i++) {
+            DECK[i] = new Card(i);
+        }
+    }
+
+    private final String suit;
+    private final String rank;
+    private final int suitIndex;
+    private final int rankIndex;
+    private final int ordinal;
+
+    public Card(String rank, String suit) {
+        this(ordinalOf(rank, suit));
+    }
+
+    private Card(int ordinal) {
+        this.ordinal = ordinal;
+        this.suitIndex = ordinal / NUM_RANKS;
+        this.rankIndex = ordinal % NUM_RANKS;
+        this.suit = SUITS[suitIndex];
+        this.rank = RANKS[rankIndex];
+    }
+
+    // Returns the shared instance for the given rank and suit
+    public static Card of(String rank, String suit) {
+        return DECK[ordinalOf(rank, suit)];
+    }
+
+    // Returns the shared instance for the given ordinal (0..51)
+    public static Card of(int ordinal) {
+        return DECK[ordinal];
+    }
+
+    public static Card of(int rankIndex, int suitIndex) {
+        return DECK[suitIndex * NUM_RANKS + rankIndex];
+    }
+
+    // Returns the index of a suit name, or -1 for null (no suit led yet)
+    public static int suitIndexOf(String suit) {
+        if (suit == null) return -1;
+        for (int i = 0; i < NUM_SUITS; i++) {
+            if (SUITS[i].equals(suit)) return i;
+        }
+        throw new IllegalArgumentException("Unknown suit: " + suit);
+    }
+
+    public static int rankIndexOf(String rank) {
+        for (int i = 0; i < NUM_RANKS; i++) {
+            if (RANKS[i].equals(rank)) return i;
+        }
+        throw new IllegalArgumentException("Unknown rank: " + rank);
+    }
+
+    private static int ordinalOf(String rank, String suit) {
+        if (suit == null) throw new IllegalArgumentException("Unknown suit: null");
+        return suitIndexOf(suit) * NUM_RANKS + rankIndexOf(rank);
+    }
+
+    public String getSuit() {
+        return suit;
+    }
+
+    public String getRank() {
+        return rank;
+    }
+
+    public int getSuitIndex() {
+        return suitIndex;
+    }
+
+    public int getRankIndex() {
+        return rankIndex;
+    }
+
+    public int getOrdinal() {
+        return ordinal;
+    }
+
+    public int getGamePoints() {
+        return Rules.gamePoints(ordinal);
+    }
+
+    @Override
+    public String toString() {
+        return rank + " of " + suit;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        Card card = (Card) obj;
+        return ordinal == card.ordinal;
+    }
+
+    @Override
+    public int hashCode() {
+        return ordinal;
+    }
+}
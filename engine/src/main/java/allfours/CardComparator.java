@@ -0,0 +1,8 @@
+package allfours;
+
+public class CardComparator {
+    // Compare two cards by rank
+    public static int compare(Card c1, Card c2) {
+        return Integer.compare(c1.getRankIndex(), c2.getRankIndex());
+    }
+}
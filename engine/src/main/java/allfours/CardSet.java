@@ -0,0 +1,99 @@
+package allfours;
+
+import java.util.List;
+
+/*
+ * Static helpers for sets of cards packed into a 52-bit long.
+ * Bit i is set when the card with ordinal i is in the set, so each suit
+ * occupies 13 contiguous bits ordered from 2 (low bit) to Ace (high bit).
+ *
+ * Methods:
+ * - bit(Card card): Returns the single-card mask for a card
+ * - suit(int suitIndex): Returns the mask of all 13 cards in a suit
+ * - of(List<Card> cards): Packs a list of cards into a mask
+ * - below(Card card): Returns the cards of the same suit ranked below the card
+ * - size(long set): Returns the number of cards in the set
+ * - first(long set): Returns the lowest card in a non-empty set
+ * - select(long set, int n): Returns the ordinal of the n-th lowest card in the set
+ */
+
+public final class CardSet {
+    public static final long EMPTY = 0L;
+    public static final long ALL = (1L << Card.NUM_CARDS) - 1;
+
+    private static final long SUIT_BITS = (1L << Card.NUM_RANKS) - 1;
+
+    private CardSet() {
+    }
+
+    public static long bit(Card card) {
+        return 1L << card.getOrdinal();
+    }
+
+    public static long suit(int suitIndex) {
+        return SUIT_BITS << (suitIndex * Card.NUM_RANKS);
+    }
+
+    public static long of(List<Card> cards) {
+        long set = EMPTY;
+        for (int i = 0, n = cards.size(); i < n; i++) {
+            set |= 1L << cards.get(i).getOrdinal();
+        }
+        return set;
+    }
+
+    public static long below(Card card) {
+        return ((1L << card.getOrdinal()) - 1) & suit(card.getSuitIndex());
+    }
+
+    public static boolean contains(long set, Card card) {
+        return (set & (1L << card.getOrdinal())) != 0;
+    }
+
+    public static int size(long set) {
+        return Long.bitCount(set);
+    }
+
+    public static Card first(long set) {
+        return Card.of(Long.numberOfTrailingZeros(set));
+    }
+
+    // Ordinal of the n-th lowest card (n from 0), narrowing by halves with bit counts
+    public static int select(long set, int n) {
+        int base = 0;
+        int count = Long.bitCount(set & 0xFFFFFFFFL);
+        if (n >= count) {
+            n -= count;
+            set >>>= 32;
+            base = 32;
+        }
+        count = Long.bitCount(set & 0xFFFFL);
+        if (n >= count) {
+            n -= count;
+            set >>>= 16;
+            base += 16;
+        }
+        count = Long.bitCount(set & 0xFFL);
+        if (n >= count) {
+            n -= count;
+            set >>>= 8;
+            base += 8;
+        }
+        for (; n > 0; n--) {
+            set &= set - 1;
+        }
+        return base + Long.numberOfTrailingZeros(set);
+    }
+
+    // Returns the highest card of a suit in the set, or null if the set has none
+    public static Card highest(long set, int suitIndex) {
+        long cards = set & suit(suitIndex);
+        return cards == 0 ? null : Card.of(63 - Long.numberOfLeadingZeros(cards));
+    }
+
+    // Returns the lowest card of a suit in the set, or null if the set has none
+    public static Card lowest(long set, int suitIndex) {
+        long cards = set & suit(suitIndex);
+        return cards == 0 ? null : Card.of(Long.numberOfTrailingZeros(cards));
+    }
+}
@@ -0,0 +1,89 @@
+package allfours;
+
+import java.util.List;
+import java.util.Scanner;
+
+/*
+ * DecisionProvider for the command-line game: prompts on System.out and
+ * reads answers from System.in, retrying until the choice is legal.
+ *
+ * All prompts share one Scanner, since separate Scanners on System.in
+ * would each buffer (and lose) part of the input.
+ */
+
+public class ConsoleDecisionProvider implements DecisionProvider {
+    public static final ConsoleDecisionProvider INSTANCE = new ConsoleDecisionProvider();
+
+    private static final Scanner scanner = new Scanner(System.in);
+
+    @Override
+    public Card chooseCard(Player player, String leadSuit, String trumpSuit, List<Card> playedCards) {
+        List<Card> hand = player.getHand();
+        long legal = player.legalMoves(leadSuit, trumpSuit, playedCards);
+        long leadCards = leadSuit == null ? CardSet.EMPTY
+                : player.getHandMask() & CardSet.suit(Card.suitIndexOf(leadSuit));
+
+        while (true) {
+            System.out.println("\n" + player.getName() + ", your hand:");
+            int index = 1;
+            for (Card card : hand) {
+                System.out.println(index + ". " + card);
+                index++;
+            }
+
+            System.out.print("Select a card to play (1-" + hand.size() + "): ");
+            int choice = readInt();
+
+            if (choice < 1 || choice > hand.size()) {
+                System.out.println("Invalid choice. Try again.");
+                if (Metrics.ENABLED) {
+                    Metrics.illegalChoice();
+                }
+                continue;
+            }
+
+            Card selected = hand.get(choice - 1);
+
+            // ⭐ Rule enforcement
+            if (!CardSet.contains(legal, selected)) {
+                // Off-suit, non-trump card while holding the lead suit
+                if (leadCards != 0 && !selected.getSuit().equals(trumpSuit)) {
+                    System.out.println("You must follow suit if you have it. Try again.");
+                } else {
+                    System.out.println("You cannot undertrump if you have other suits. Try again.");
+                }
+                if (Metrics.ENABLED) {
+                    Metrics.illegalChoice();
+                }
+                continue;
+            }
+
+            return selected;
+        }
+    }
+
+    @Override
+    public boolean wantsToBeg(Player player, Card kickedCard) {
+        System.out.println(player.getName() + ", do you want to beg? (yes/no)");
+        return readYes();
+    }
+
+    @Override
+    public boolean givesChalk(Player dealer, Card kickedCard) {
+        System.out.println(dealer.getName() + ", do you want to give 1 chalk? (yes/no)");
+        return readYes();
+    }
+
+    private static boolean readYes() {
+        return scanner.nextLine().trim().toLowerCase().equals("yes");
+    }
+
+    // Reads a whole line so a later yes/no prompt does not see a leftover newline
+    private static int readInt() {
+        try {
+            return Integer.parseInt(scanner.nextLine().trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package allfours;
+
+/*
+ * EventBus subscriber that prints the match as ConsoleGameListener does,
+ * but on its own thread: printing never holds up the game. If it falls a
+ * whole ring behind, it says how many events it skipped.
+ */
+
+public class ConsoleEventRenderer implements EventBus.Handler {
+    @Override
+    public void onEvent(EventBus.Event event) {
+        Player player = event.getPlayer();
+        Team team = event.getTeam();
+        Card card = event.getCard();
+        switch (event.getType()) {
+            case MATCH_STARTED:
+                System.out.println("Match setup complete. " + player.getName() + " is the first dealer.");
+                break;
+            case ROUND_STARTED:
+                System.out.println(player.getName() + " is dealing...");
+                break;
+            case DEALER_ROTATED:
+                System.out.println("Dealer passes to: " + player.getName());
+                break;
+            case KICK:
+                System.out.println((event.getFlag() ? "New kicked card: " : "Kicked card: ") + card);
+                System.out.println((event.getFlag() ? "New trump suit: " : "Trump suit for this round: ")
+                        + card.getSuit());
+                break;
+            case BEG:
+                System.out.println(player.getName() + (event.getFlag() ? " begs." : " stands."));
+                break;
+            case PACK_RUN:
+                System.out.println(player.getName() + " chooses to run the pack.");
+                break;
+            case TRICK_STARTED:
+                System.out.println("\nStarting Trick " + event.getValue());
+                break;
+            case CARD_PLAYED:
+                System.out.println(player.getName() + " played " + card);
+                break;
+            case TRICK_WON:
+                System.out.println(player.getName() + " wins the trick and earns " + event.getValue()
+                        + " game points.");
+                break;
+            case CHALK_AWARDED:
+                printChalk(event, team, card);
+                break;
+            case ROUND_FINISHED:
+                System.out.println("\nMatch scores after round:");
+                System.out.println(team.getName() + ": " + event.getValue() + " chalk");
+                System.out.println(event.getTeam2().getName() + ": " + event.getValue2() + " chalk");
+                break;
+            case MATCH_FINISHED:
+                System.out.println("\n🏆 MATCH OVER 🏆");
+                System.out.println(team.getName() + " wins the match!");
+                break;
+        }
+    }
+
+    private static void printChalk(EventBus.Event event, Team team, Card card) {
+        switch (event.getChalk()) {
+            case KICK:
+                System.out.println(team.getName() + " earned " + event.getValue() + " chalk(s) from the kick.");
+                break;
+            case BEG:
+                System.out.println(team.getName() + " awarded 1 chalk for begging.");
+                break;
+            case HIGH:
+                System.out.println(team.getName() + " wins High (1 chalk) with " + card);
+                break;
+            case LOW:
+                System.out.println(team.getName() + " wins Low (1 chalk) with " + card);
+                break;
+            case JACK:
+                System.out.println(team.getName() + (event.getFlag() ? " hangs Jack (3 chalks)"
+                        : " runs away with Jack (1 chalk)"));
+                break;
+            case GAME:
+                System.out.println(team.getName() + " wins Game (2 chalks)"
+                        + (event.getFlag() ? " by tiebreaker" : ""));
+                break;
+        }
+    }
+
+    @Override
+    public void lost(long count) {
+        System.out.println("(" + count + " events skipped)");
+    }
+}
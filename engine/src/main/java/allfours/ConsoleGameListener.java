@@ -0,0 +1,131 @@
+package allfours;
+
+import java.util.List;
+
+/*
+ * GameListener that prints the match to System.out, as the CLI always has.
+ */
+
+public class ConsoleGameListener implements GameListener {
+    public static final ConsoleGameListener INSTANCE = new ConsoleGameListener();
+
+    @Override
+    public void matchStarted(Player firstDealer) {
+        System.out.println("Match setup complete. " + firstDealer.getName() + " is the first dealer.");
+    }
+
+    @Override
+    public void roundStarted(Player dealer) {
+        System.out.println(dealer.getName() + " is dealing...");
+    }
+
+    @Override
+    public void roundFinished(Team teamA, Team teamB) {
+        System.out.println("\nMatch scores after round:");
+        System.out.println(teamA.getName() + ": " + teamA.getMatchScore() + " chalk");
+        System.out.println(teamB.getName() + ": " + teamB.getMatchScore() + " chalk");
+    }
+
+    @Override
+    public void dealerRotated(Player dealer) {
+        System.out.println("Dealer passes to: " + dealer.getName());
+    }
+
+    @Override
+    public void matchFinished(Team winner) {
+        System.out.println("\n🏆 MATCH OVER 🏆");
+        System.out.println(winner.getName() + " wins the match!");
+    }
+
+    @Override
+    public void handsDealt(List<Player> players) {
+        for (Player player : players) {
+            player.showHand();
+            System.out.println();
+        }
+    }
+
+    @Override
+    public void cardKicked(Card kickedCard, boolean runningPack) {
+        if (runningPack) {
+            System.out.println("New kicked card: " + kickedCard);
+            System.out.println("New trump suit: " + kickedCard.getSuit());
+        } else {
+            System.out.println("Kicked card: " + kickedCard);
+            System.out.println("Trump suit for this round: " + kickedCard.getSuit());
+        }
+    }
+
+    @Override
+    public void kickChalk(Team dealerTeam, int chalk) {
+        System.out.println(dealerTeam.getName() + " earned " + chalk + " chalk(s) from the kick.");
+    }
+
+    @Override
+    public void chalkGiven(Team beggingTeam) {
+        System.out.println(beggingTeam.getName() + " awarded 1 chalk for begging.");
+    }
+
+    @Override
+    public void packRun(Player dealer) {
+        System.out.println(dealer.getName() + " chooses to run the pack.");
+    }
+
+    @Override
+    public void sameTrumpKicked() {
+        System.out.println("Same trump suit as before. Running pack again...");
+    }
+
+    @Override
+    public void packExhausted() {
+        System.out.println("Not enough cards to run pack. Round will be restarted.");
+    }
+
+    @Override
+    public void trickStarted(int trickNumber, Player leader) {
+        System.out.println("\nStarting Trick " + trickNumber);
+    }
+
+    @Override
+    public void cardPlayed(Player player, Card card) {
+        System.out.println(player.getName() + " played " + card);
+    }
+
+    @Override
+    public void trickWon(Player winner, int points) {
+        System.out.println(winner.getName() + " wins the trick and earns " + points + " game points.");
+    }
+
+    @Override
+    public void jackPlayed(Player jackPlayer, boolean hung) {
+        if (hung) {
+            System.out.println(jackPlayer.getName() + " has gotten his Jack hung!");
+        } else {
+            System.out.println(jackPlayer.getName() + "  has run with his Jack!");
+        }
+    }
+
+    @Override
+    public void highAwarded(Team team, Card highTrump) {
+        System.out.println(team.getName() + " wins High (1 chalk) with " + highTrump);
+    }
+
+    @Override
+    public void lowAwarded(Team team, Card lowTrump) {
+        System.out.println(team.getName() + " wins Low (1 chalk) with " + lowTrump);
+    }
+
+    @Override
+    public void jackAwarded(Team team, boolean hung) {
+        if (hung) {
+            System.out.println(team.getName() + " hangs Jack (3 chalks)");
+        } else {
+            System.out.println(team.getName() + " runs away with Jack (1 chalk)");
+        }
+    }
+
+    @Override
+    public void gameAwarded(Team team, boolean tiebreak) {
+        System.out.println(team.getName() + " wins Game (2 chalks)" + (tiebreak ? " by tiebreaker" : ""));
+    }
+}
@@ -0,0 +1,180 @@
+package allfours;
+
+import java.util.List;
+
+/*
+ * A batch of fresh deals (four hands of six and the kicked card), laid out
+ * as a struct of arrays for DealEvaluator: one array of hands per seat and
+ * one of kicked cards, all as CardSets, so an evaluator can load the same
+ * seat of many deals at once.
+ *
+ * The evaluator packs everything it finds about deal i into one long,
+ * read back with the static accessors:
+ * - kickChalk: chalk the dealer's team earns for the kick (Rules.kickChalk)
+ * - highSeat, lowSeat: seat holding the highest and lowest trump dealt, as
+ *   Round.findHighTrump and findLowTrump find them, or NONE if no trump was dealt
+ * - jackSeat: seat holding the Jack of trumps, or NONE
+ * - points(seat): game points in the seat's hand, as Trick.calculateTrickPoints counts them
+ *
+ * Seats are indices into the dealt player list, as in Deck.getSeat.
+ *
+ * Usage: DealBatch <deals> [seed]  (screens first deals of counter-based matches)
+ */
+
+public final class DealBatch {
+    public static final int NONE = 4;
+
+    static final int HIGH_SHIFT = 2;
+    static final int LOW_SHIFT = 5;
+    static final int JACK_SHIFT = 8;
+    static final int POINTS_SHIFT = 11; // Six bits a seat
+    static final int HAND_SIZE = 6;
+
+    final long[][] hands;
+    final long[] kicks;
+    final long[] results;
+    final long[] trumps;  // Scratch for VectorDealEvaluator: trump suit, highest and lowest trump so far
+    final long[] highest;
+    final long[] lowest;
+    private final byte[] order = new byte[Card.NUM_CARDS];
+    private int size;
+
+    public DealBatch(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        hands = new long[4][capacity];
+        kicks = new long[capacity];
+        results = new long[capacity];
+        trumps = new long[capacity];
+        highest = new long[capacity];
+        lowest = new long[capacity];
+    }
+
+    public int getCapacity() {
+        return kicks.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    // Adds the deal the players hold, with the card kicked after it
+    public void add(List<Player> players, Card kicked) {
+        if (players.size() != 4) {
+            throw new IllegalArgumentException("A deal has four hands: " + players.size());
+        }
+        int i = next();
+        for (int seat = 0; seat < 4; seat++) {
+            hands[seat][i] = players.get(seat).getHandMask();
+        }
+        kicks[i] = CardSet.bit(kicked);
+    }
+
+    // Adds the deal a pack in this order makes: six cards to each seat in turn, as Deck deals, then the kick
+    public void add(byte[] order) {
+        int i = next();
+        int card = 0;
+        for (int seat = 0; seat < 4; seat++) {
+            long hand = 0;
+            for (int n = 0; n < HAND_SIZE; n++) {
+                hand |= 1L << order[card++];
+            }
+            hands[seat][i] = hand;
+        }
+        kicks[i] = 1L << order[card];
+    }
+
+    /*
+     * Fills the batch with the first deals of matches first, first + 1, ... under the
+     * master seed: the deals a counter-based Deck(seed, match) makes first
+     */
+    public void fill(long seed, long first) {
+        clear();
+        for (int i = 0; i < kicks.length; i++) {
+            DealGenerator.permutation(seed, first + i, 0, 0, order);
+            add(order);
+        }
+    }
+
+    private int next() {
+        if (size == kicks.length) {
+            throw new IllegalStateException("Batch is full: " + size);
+        }
+        return size++;
+    }
+
+    public long getResult(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Deal " + i + " of " + size);
+        }
+        return results[i];
+    }
+
+    public static int kickChalk(long result) {
+        return (int) result & 3;
+    }
+
+    public static int highSeat(long result) {
+        return (int) (result >>> HIGH_SHIFT) & 7;
+    }
+
+    public static int lowSeat(long result) {
+        return (int) (result >>> LOW_SHIFT) & 7;
+    }
+
+    public static int jackSeat(long result) {
+        return (int) (result >>> JACK_SHIFT) & 7;
+    }
+
+    public static int points(long result, int seat) {
+        return (int) (result >>> (POINTS_SHIFT + 6 * seat)) & 63;
+    }
+
+    public static void main(String[] args) {
+        long deals = args.length > 0 ? Long.parseLong(args[0]) : 10_000_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : System.nanoTime();
+        DealEvaluator evaluator = DealEvaluator.create();
+        DealBatch batch = new DealBatch(4096);
+        long[] kickChalk = new long[4];
+        long jackDealt = 0;
+        long highLowSplit = 0; // High and Low held by different teams
+        long points = 0;
+        long evaluating = 0;
+        long start = System.nanoTime();
+        for (long first = 0; first < deals; first += batch.getCapacity()) {
+            batch.fill(seed, first);
+            int n = (int) Math.min(batch.size(), deals - first);
+            long t = System.nanoTime();
+            evaluator.evaluate(batch);
+            evaluating += System.nanoTime() - t;
+            for (int i = 0; i < n; i++) {
+                long result = batch.results[i];
+                kickChalk[kickChalk(result)]++;
+                if (jackSeat(result) != NONE) {
+                    jackDealt++;
+                }
+                if (highSeat(result) != NONE && ((highSeat(result) ^ lowSeat(result)) & 1) != 0) {
+                    highLowSplit++;
+                }
+                for (int seat = 0; seat < 4; seat++) {
+                    points += points(result, seat);
+                }
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println(evaluator.getClass().getSimpleName() + ", seed " + seed + ", " + deals + " deals, "
+                + String.format("%.0f deals/sec (%.0f evaluating)", deals / seconds, deals / (evaluating / 1e9)));
+        System.out.println(String.format("Kick chalk 0/1/2/3: %.2f%% %.2f%% %.2f%% %.2f%%",
+                100.0 * kickChalk[0] / deals, 100.0 * kickChalk[1] / deals, 100.0 * kickChalk[2] / deals,
+                100.0 * kickChalk[3] / deals));
+        System.out.println(String.format("Jack of trumps dealt: %.2f%%, High and Low split between teams: %.2f%%",
+                100.0 * jackDealt / deals, 100.0 * highLowSplit / deals));
+        System.out.println(String.format("Game points per hand: %.3f", points / (4.0 * deals)));
+    }
+}
@@ -0,0 +1,102 @@
+package allfours;
+
+import java.nio.ByteBuffer;
+
+/*
+ * Packs a sequence of cards drawn from a known set of available cards as a
+ * permutation index, e.g. a 6-card deal to each seat plus the kick (25
+ * cards out of 52) in 17 bytes.
+ *
+ * Each card becomes its Lehmer digit, its position among the cards still
+ * available, so the i-th digit has radix (available - i). Digits are
+ * combined into mixed-radix numbers as long as the product of radices fits
+ * in a long, and each group is written with just enough bits for its
+ * range. The decoder derives the same grouping from the available count.
+ *
+ * Methods:
+ * - encodedBytes(int available, int n): Bytes used for n cards out of available
+ * - encode(int[] cards, int n, long available, byte[] out, int offset): Writes the index, returns bytes written
+ * - decode(ByteBuffer in, int n, long available, int[] cards): Reads an index back into card ordinals
+ */
+
+public final class DealCodec {
+    private DealCodec() {
+    }
+
+    public static int encodedBytes(int available, int n) {
+        int bits = 0;
+        for (int i = 0; i < n; ) {
+            long product = 1;
+            for (; i < n && product <= Long.MAX_VALUE / (available - i); i++) {
+                product *= available - i;
+            }
+            bits += bitsFor(product);
+        }
+        return (bits + 7) >>> 3;
+    }
+
+    /*
+     * @param cards The card ordinals in deal order
+     * @param n How many of cards to encode
+     * @param available The cards they were drawn from, as a CardSet mask
+     * @param out Destination; the bytes written must start zeroed
+     * @return The number of bytes written
+     */
+    public static int encode(int[] cards, int n, long available, byte[] out, int offset) {
+        int count = Long.bitCount(available);
+        int bit = offset << 3;
+        for (int i = 0; i < n; ) {
+            long product = 1;
+            long value = 0;
+            for (; i < n && product <= Long.MAX_VALUE / (count - i); i++) {
+                long cardBit = 1L << cards[i];
+                if ((available & cardBit) == 0) {
+                    throw new IllegalArgumentException("Card " + Card.of(cards[i]) + " is not available");
+                }
+                product *= count - i;
+                value = value * (count - i) + Long.bitCount(available & (cardBit - 1));
+                available &= ~cardBit;
+            }
+            int bits = bitsFor(product);
+            for (int b = bits - 1; b >= 0; b--, bit++) {
+                if (((value >>> b) & 1) != 0) {
+                    out[bit >>> 3] |= (byte) (0x80 >>> (bit & 7));
+                }
+            }
+        }
+        return ((bit + 7) >>> 3) - offset;
+    }
+
+    // Reads n cards from the buffer's position, leaving it just after the index
+    public static void decode(ByteBuffer in, int n, long available, int[] cards) {
+        int count = Long.bitCount(available);
+        int start = in.position();
+        int bit = 0;
+        int[] digits = new int[n];
+        for (int i = 0; i < n; ) {
+            int first = i;
+            long product = 1;
+            for (; i < n && product <= Long.MAX_VALUE / (count - i); i++) {
+                product *= count - i;
+            }
+            long value = 0;
+            for (int b = bitsFor(product); b > 0; b--, bit++) {
+                value = (value << 1) | ((in.get(start + (bit >>> 3)) >>> (7 - (bit & 7))) & 1);
+            }
+            for (int j = i - 1; j >= first; j--) {
+                digits[j] = (int) (value % (count - j));
+                value /= count - j;
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            int card = CardSet.select(available, digits[i]);
+            cards[i] = card;
+            available &= ~(1L << card);
+        }
+        in.position(start + ((bit + 7) >>> 3));
+    }
+
+    private static int bitsFor(long product) {
+        return 64 - Long.numberOfLeadingZeros(product - 1);
+    }
+}
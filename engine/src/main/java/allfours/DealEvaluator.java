@@ -0,0 +1,37 @@
+package allfours;
+
+/*
+ * Scores a DealBatch: kick chalk, the seats holding High, Low and the Jack
+ * of trumps, and the game points in each hand (see DealBatch).
+ *
+ * create() picks the SIMD evaluator (VectorDealEvaluator, on the incubating
+ * Vector API) when the JVM was started with --add-modules
+ * jdk.incubator.vector, and the scalar one otherwise, or when
+ * -Dallfours.vector=false. Both give the same results.
+ */
+
+public interface DealEvaluator {
+    void evaluate(DealBatch batch);
+
+    static DealEvaluator create() {
+        DealEvaluator vector = Boolean.parseBoolean(System.getProperty("allfours.vector", "true")) ? vector() : null;
+        return vector != null ? vector : scalar();
+    }
+
+    static DealEvaluator scalar() {
+        return ScalarDealEvaluator.INSTANCE;
+    }
+
+    // The SIMD evaluator, or null where the Vector API module is not loaded
+    static DealEvaluator vector() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return null;
+        }
+        try {
+            // Loaded by name so that nothing links against the module unless it is present
+            return (DealEvaluator) Class.forName("allfours.VectorDealEvaluator").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+}
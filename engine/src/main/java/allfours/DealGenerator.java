@@ -0,0 +1,49 @@
+package allfours;
+
+/*
+ * Counter-based deals: the order of the pack for any hand of any match,
+ * computed directly from (master seed, match index, hand index, redeal
+ * index) with no generator state carried from one deal to the next.
+ *
+ * The four indices are hashed into a key, and swap i of a Fisher–Yates
+ * shuffle takes its random number from a SplitMix64 finalizer over
+ * (key, i). Any deal can be produced on its own, in any order, on any
+ * machine, and comes out the same.
+ *
+ * hand counts the hands of a match that were played out; redeal counts
+ * the hands thrown in (the pack ran out) since the last one, so a
+ * thrown-in hand and its replacement get different deals.
+ */
+
+public final class DealGenerator {
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+
+    private DealGenerator() {
+    }
+
+    // Fills order with the 52 card ordinals in the order they come off the pack
+    public static void permutation(long seed, long match, int hand, int redeal, byte[] order) {
+        long key = mix(mix(mix(seed + GOLDEN * (match + 1)) + GOLDEN * (hand + 1)) + GOLDEN * (redeal + 1));
+        for (int i = 0; i < Card.NUM_CARDS; i++) {
+            order[i] = (byte) i;
+        }
+        for (int i = Card.NUM_CARDS - 1; i > 0; i--) {
+            // High bits of a 64-bit hash times (i + 1): bias below 2^-58
+            int j = (int) Math.multiplyHigh(mix(key + GOLDEN * i) >>> 1, (long) (i + 1) << 1);
+            byte tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+    }
+
+    // The first dealer's seat for a match
+    public static int firstDealer(long seed, long match) {
+        return (int) (mix(mix(seed + GOLDEN * (match + 1)) ^ GOLDEN) >>> 62);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
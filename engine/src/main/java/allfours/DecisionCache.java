@@ -0,0 +1,263 @@
+package allfours;
+
+import java.util.Arrays;
+
+/*
+ * Bounded, thread-safe cache of bot decisions, keyed by two longs (a
+ * canonical situation, see SuitIsomorphism) and holding a small int.
+ *
+ * The table is set-associative: a key hashes to one set of WAYS slots,
+ * and a full set gives up its least recently used slot. Sets are grouped
+ * into stripes, each with its own lock, so threads on different stripes
+ * never contend.
+ *
+ * Admission is TinyLFU: every lookup counts its key in a count-min sketch
+ * of 4-bit counters (one per stripe, halved every 10 lookups per slot so
+ * old popularity fades), and a new key only displaces a victim it has
+ * been looked up more often than. Situations seen once do not flush the
+ * ones bots keep meeting.
+ *
+ * Decisions are not checked against the situation beyond the key: share
+ * a cache only between bots that would decide alike.
+ */
+
+public final class DecisionCache {
+    public static final int MISS = -1;
+
+    private static final int WAYS = 8;
+    private static final int MAX_STRIPES = 64;
+    private static final int SKETCH_ROWS = 4;
+    private static final long[] SKETCH_SEEDS = {
+            0x97CB3127D8A6E5F1L, 0xB492B66FBE98F273L, 0x9AE16A3B2F90404FL, 0xCBF29CE484222325L };
+    private static final long ONE_MASK = 0x7777777777777777L; // Clears the high bit of every 4-bit counter
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    private final int capacity;
+
+    // capacity is rounded up to a power of two, at least WAYS
+    public DecisionCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        int slots = Math.max(WAYS, Integer.highestOneBit(capacity - 1) << 1);
+        int stripeCount = Math.min(MAX_STRIPES, slots / WAYS);
+        this.capacity = slots;
+        this.stripes = new Stripe[stripeCount];
+        this.stripeMask = stripeCount - 1;
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(slots / stripeCount);
+        }
+    }
+
+    // The value cached for the key, or MISS
+    public int get(long keyA, long keyB) {
+        long hash = hash(keyA, keyB);
+        Stripe stripe = stripes[(int) hash & stripeMask];
+        synchronized (stripe) {
+            return stripe.get(keyA, keyB, hash);
+        }
+    }
+
+    // Caches a value (non-negative), if the key is popular enough to displace the set's oldest entry
+    public void put(long keyA, long keyB, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Cached values are non-negative: " + value);
+        }
+        long hash = hash(keyA, keyB);
+        Stripe stripe = stripes[(int) hash & stripeMask];
+        synchronized (stripe) {
+            stripe.put(keyA, keyB, value, hash);
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getHits() {
+        long total = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                total += stripe.hits;
+            }
+        }
+        return total;
+    }
+
+    public long getMisses() {
+        long total = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                total += stripe.misses;
+            }
+        }
+        return total;
+    }
+
+    // Entries displaced by a more frequent key
+    public long getEvictions() {
+        long total = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                total += stripe.evictions;
+            }
+        }
+        return total;
+    }
+
+    // Keys turned away because the set's oldest entry was looked up more often
+    public long getRejections() {
+        long total = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                total += stripe.rejections;
+            }
+        }
+        return total;
+    }
+
+    public int size() {
+        int total = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                total += stripe.size;
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        long hits = getHits();
+        long lookups = hits + getMisses();
+        return String.format("%d/%d entries, %d lookups, %.2f%% hits, %d evictions, %d rejections",
+                size(), capacity, lookups, lookups == 0 ? 0.0 : 100.0 * hits / lookups,
+                getEvictions(), getRejections());
+    }
+
+    private static long hash(long keyA, long keyB) {
+        long h = keyA * 0x9E3779B97F4A7C15L + keyB;
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+
+    // One lock's worth of sets and its frequency sketch; guarded by its own monitor
+    private static final class Stripe {
+        private final long[] keysA;
+        private final long[] keysB;
+        private final int[] values;
+        private final long[] lastUsed;
+        private final int setMask;
+
+        private final long[] sketch;  // SKETCH_ROWS rows of 4-bit counters, 16 to a long
+        private final int counterMask;
+        private final int sampleSize;
+        private int samples;
+
+        private long tick;
+        private int size;
+        private long hits;
+        private long misses;
+        private long evictions;
+        private long rejections;
+
+        Stripe(int slots) {
+            keysA = new long[slots];
+            keysB = new long[slots];
+            values = new int[slots];
+            Arrays.fill(values, MISS);
+            lastUsed = new long[slots];
+            setMask = slots / WAYS - 1;
+            int counters = Math.max(64, slots);
+            sketch = new long[SKETCH_ROWS * counters / 16];
+            counterMask = counters - 1;
+            sampleSize = 10 * slots;
+        }
+
+        int get(long keyA, long keyB, long hash) {
+            count(hash);
+            int base = base(hash);
+            for (int i = base; i < base + WAYS; i++) {
+                if (values[i] != MISS && keysA[i] == keyA && keysB[i] == keyB) {
+                    lastUsed[i] = ++tick;
+                    hits++;
+                    return values[i];
+                }
+            }
+            misses++;
+            return MISS;
+        }
+
+        void put(long keyA, long keyB, int value, long hash) {
+            int base = base(hash);
+            int victim = base;
+            for (int i = base; i < base + WAYS; i++) {
+                if (values[i] == MISS) {
+                    size++;
+                    store(i, keyA, keyB, value);
+                    return;
+                }
+                if (keysA[i] == keyA && keysB[i] == keyB) {
+                    store(i, keyA, keyB, value);
+                    return;
+                }
+                if (lastUsed[i] < lastUsed[victim]) {
+                    victim = i;
+                }
+            }
+            if (frequency(hash) > frequency(hash(keysA[victim], keysB[victim]))) {
+                evictions++;
+                store(victim, keyA, keyB, value);
+            } else {
+                rejections++;
+            }
+        }
+
+        private void store(int slot, long keyA, long keyB, int value) {
+            keysA[slot] = keyA;
+            keysB[slot] = keyB;
+            values[slot] = value;
+            lastUsed[slot] = ++tick;
+        }
+
+        private int base(long hash) {
+            return (int) (hash >>> 32 & setMask) * WAYS;
+        }
+
+        // Count-min sketch
+
+        private void count(long hash) {
+            for (int row = 0; row < SKETCH_ROWS; row++) {
+                int counter = counter(hash, row);
+                int index = row * (counterMask + 1) / 16 + counter / 16;
+                int shift = (counter & 15) * 4;
+                if ((sketch[index] >>> shift & 0xF) != 0xF) {
+                    sketch[index] += 1L << shift;
+                }
+            }
+            if (++samples >= sampleSize) {
+                for (int i = 0; i < sketch.length; i++) {
+                    sketch[i] = sketch[i] >>> 1 & ONE_MASK;
+                }
+                samples /= 2;
+            }
+        }
+
+        private int frequency(long hash) {
+            int min = 0xF;
+            for (int row = 0; row < SKETCH_ROWS; row++) {
+                int counter = counter(hash, row);
+                int index = row * (counterMask + 1) / 16 + counter / 16;
+                min = Math.min(min, (int) (sketch[index] >>> ((counter & 15) * 4) & 0xF));
+            }
+            return min;
+        }
+
+        private int counter(long hash, int row) {
+            long h = (hash ^ SKETCH_SEEDS[row]) * 0x9E3779B97F4A7C15L;
+            return (int) (h >>> 40) & counterMask;
+        }
+    }
+}
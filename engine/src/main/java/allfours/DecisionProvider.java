@@ -0,0 +1,40 @@
+package allfours;
+
+import java.util.List;
+
+/*
+ * Source of a seat's decisions: which card to play, whether to beg, and
+ * (as dealer) whether to give a chalk or run the pack.
+ *
+ * The engine never reads input itself. ConsoleDecisionProvider prompts on
+ * stdin for the CLI; bots and servers supply their own implementations.
+ *
+ * Methods:
+ * - chooseCard(...): Returns a card from the player's hand that is legal to play
+ * - wantsToBeg(...): true to beg, false to stand
+ * - givesChalk(...): true to give the begging team 1 chalk, false to run the pack
+ */
+
+public interface DecisionProvider {
+
+    /*
+     * @param player The player to act; player.legalMoves(...) gives the legal cards
+     * @param leadSuit The suit called in the trick, or null if the player is leading
+     * @param trumpSuit The trump suit for the round
+     * @param playedCards The cards already played in the trick
+     * @return A legal card from the player's hand
+     */
+    Card chooseCard(Player player, String leadSuit, String trumpSuit, List<Card> playedCards);
+
+    /*
+     * @param player The player to the right of the dealer
+     * @param kickedCard The card kicked for trump
+     */
+    boolean wantsToBeg(Player player, Card kickedCard);
+
+    /*
+     * @param dealer The dealer answering the beg
+     * @param kickedCard The card kicked for trump
+     */
+    boolean givesChalk(Player dealer, Card kickedCard);
+}
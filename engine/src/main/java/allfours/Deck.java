@@ -0,0 +1,161 @@
+package allfours;
+
+import java.util.*;
+import java.util.random.RandomGenerator;
+
+/*
+ * The 52 cards as card ordinals in a byte array, with a cursor marking the
+ * top of the pack. Dealing and kicking just advance the cursor, and reset()
+ * puts every card back, so one Deck serves every hand of a match.
+ *
+ * The deck also indexes what it deals: a CardSet of every card dealt since
+ * the last reset (kicked cards excluded), and the seat each went to. Masking
+ * the CardSet with a suit gives that suit's dealt cards, so the highest and
+ * lowest trump out and their holders are found without looking at a hand.
+ *
+ * A counter deck (Deck(seed, match)) takes every pack order from
+ * DealGenerator instead of a generator: the first shuffle of a match is
+ * hand 0, and each later one the next hand, or the next redeal of the same
+ * hand if the pack ran out during the last.
+ */
+
+public class Deck {
+    private final byte[] cards = new byte[Card.NUM_CARDS];
+    private final byte[] seats = new byte[Card.NUM_CARDS]; // Seat each dealt card went to
+    private long dealt;
+    private int cursor;
+    private RandomGenerator rng;
+
+    // Counter deals: DealGenerator indices of the next shuffle
+    private boolean counter;
+    private long seed;
+    private long match;
+    private int hand = -1;
+    private int redeal;
+    private boolean ranOut;
+
+    public Deck() {
+        this(new SplittableRandom());
+    }
+
+    // The generator is used by shuffle(); a seeded one makes every deal replayable
+    public Deck(RandomGenerator rng) {
+        this.rng = rng;
+        for (int i = 0; i < Card.NUM_CARDS; i++) {
+            cards[i] = (byte) i;
+        }
+    }
+
+    // Deals every pack of a match from DealGenerator
+    public Deck(long seed, long match) {
+        this.counter = true;
+        this.seed = seed;
+        this.match = match;
+        for (int i = 0; i < Card.NUM_CARDS; i++) {
+            cards[i] = (byte) i;
+        }
+    }
+
+    // Gathers every card back into the pack, in its last order, ready for shuffling
+    public void reset() {
+        cursor = 0;
+        dealt = CardSet.EMPTY;
+    }
+
+    // Shuffles the cards left in the deck; a counter deck deals the next hand's pack in full
+    public void shuffle() {
+        if (!counter) {
+            shuffle(rng);
+            return;
+        }
+        if (cursor != 0) {
+            throw new IllegalStateException("A counter deck shuffles only a full pack");
+        }
+        if (ranOut) {
+            redeal++;
+        } else {
+            hand++;
+            redeal = 0;
+        }
+        ranOut = false;
+        DealGenerator.permutation(seed, match, hand, redeal, cards);
+    }
+
+    // Shuffles the cards left in the deck in place (Fisher–Yates) with the given generator
+    public void shuffle(RandomGenerator rng) {
+        for (int i = Card.NUM_CARDS - 1; i > cursor; i--) {
+            int j = cursor + rng.nextInt(i - cursor + 1);
+            byte tmp = cards[i];
+            cards[i] = cards[j];
+            cards[j] = tmp;
+        }
+    }
+
+    // Stacks the pack: every card back in, to come out in the given order of ordinals (replays)
+    void stack(byte[] order) {
+        System.arraycopy(order, 0, cards, 0, Card.NUM_CARDS);
+        cursor = 0;
+        dealt = CardSet.EMPTY;
+    }
+
+    // Deals n cards to each player, returns false if pack has run out
+    public boolean deal(List<Player> players, int n) {
+        if (!Metrics.ENABLED) {
+            return dealCards(players, n);
+        }
+        Metrics.DealEvent event = new Metrics.DealEvent();
+        event.begin();
+        long start = System.nanoTime();
+        boolean dealt = dealCards(players, n);
+        Metrics.dealt(event, start, n, dealt);
+        return dealt;
+    }
+
+    private boolean dealCards(List<Player> players, int n) {
+        if (n * players.size() > cardsRemaining()) {
+            ranOut = true;
+            return false;
+        }
+
+        for (int p = 0, size = players.size(); p < size; p++) {
+            Player player = players.get(p);
+            for (int i = 0; i < n; i++) {
+                int card = cards[cursor++];
+                seats[card] = (byte) p;
+                dealt |= 1L << card;
+                player.addCard(Card.of(card));
+            }
+        }
+        return true;
+    }
+
+    // Every card dealt to a player since the last reset, as a CardSet
+    public long getDealt() {
+        return dealt;
+    }
+
+    // The cards still in the pack, as a CardSet
+    public long getRemaining() {
+        long remaining = CardSet.EMPTY;
+        for (int i = cursor; i < Card.NUM_CARDS; i++) {
+            remaining |= 1L << cards[i];
+        }
+        return remaining;
+    }
+
+    // The seat (position in the dealt list) a card was dealt to since the last reset, or -1
+    public int getSeat(Card card) {
+        return CardSet.contains(dealt, card) ? seats[card.getOrdinal()] : -1;
+    }
+
+    //Kicks the top card from the deck
+    public Card kick() {
+        if (cursor == Card.NUM_CARDS) return null;
+        return Card.of(cards[cursor++]);
+    }
+
+    // Returns the number of cards remaining in the deck
+    public int cardsRemaining() {
+        return Card.NUM_CARDS - cursor;
+    }
+}
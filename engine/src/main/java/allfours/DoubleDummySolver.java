@@ -0,0 +1,656 @@
+package allfours;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/*
+ * Perfect-information solver for the trick phase of a round.
+ *
+ * Given the four hands after dealing/begging, the trump suit and the dealer,
+ * it finds the outcome of best play by both partnerships: the game points
+ * each team takes, whether the Jack of trump runs or hangs, and the chalk
+ * (High, Low, Jack and Game) each team scores. Play follows the same
+ * follow-suit and no-undertrump rules as Player.chooseCardToPlay.
+ *
+ * Seats are indices into the player list; partners sit opposite, so a
+ * seat's team is seat & 1 (0 = Team A, 1 = Team B).
+ *
+ * The search is alpha-beta over single cards, driven by null-window
+ * searches that bisect the value. Each team maximises its chalk from Jack
+ * and Game (High and Low are fixed by the deal) and then, among the lines
+ * that score it, its game points: the value is the chalk margin times
+ * CHALK_SCALE plus the game-point margin. The bisection settles the chalk
+ * first, with windows that no game-point margin can cross, then the game
+ * points within it. Moves are ordered (trumps and honours led first,
+ * winners that capture points, points to a winning partner) and cards that
+ * are equivalent in play are searched once. Between tricks, Game and the Jack
+ * are bounded from the points left and the trumps sure to take tricks,
+ * which often settles a position without searching it. Every position is
+ * cached in a transposition table that survives between solves: between
+ * tricks it is keyed on the relative ranks of the cards still held, so
+ * positions that differ only in which low cards are gone share an entry;
+ * mid-trick on GameState's Zobrist hash. Entries hold bounds on the value
+ * still to come (less the game-point margin so far), so once Game is
+ * decided, positions that reached it by different margins share one. Once
+ * the Jack's chalk is settled (played, sure to run or never dealt), a
+ * larger margin can only win Game, not lose it, so the rest of the hand is
+ * searched for the game-point margin alone, in entries shared whatever the
+ * score.
+ *
+ * A solver instance is not thread-safe; use one per thread.
+ */
+
+public class DoubleDummySolver {
+    private static final int INFINITY = Short.MAX_VALUE;
+
+    // Jack and Game chalk margins lie within +-5: a hung Jack (3) and Game (2)
+    private static final int MAX_CHALK = 5;
+
+    // A chalk outweighs any game-point margin (the pack holds 80 game points)
+    private static final int MAX_POINTS = 80;
+    private static final int CHALK_SCALE = 256;
+
+    private static final int JACK_RUNS = 1 << 16; // Flag from sureTrumps()
+
+    private static final int MAX_PLIES = GameState.MAX_PLIES;
+
+    // Transposition table entries: lower and upper bound on the value to come, 12 bits each (biased), then
+    // the best move
+    private static final int BOUND_BIAS = 1 << 11;
+    private static final int BOUND_MASK = (1 << 12) - 1;
+
+    // Scores are not in GameState's hash; the table keys mix them in
+    private static final long[] GAME_POINT_KEYS = new long[2 * MAX_POINTS + 1]; // Game-point margin -80..80
+    private static final long[] GAME_KEYS = new long[2];                        // Or Game decided, for A or B
+    private static final long[] JACK_KEYS = new long[7];                        // Jack chalk margin -3..3
+    private static final long POINTS_KEY;                                       // Or game points alone
+
+    // Trick-boundary keys: by suit, place among the suit's cards still held (lowest first), holder and honour
+    private static final int HONOURS = Card.ACE - Card.TEN + 2; // None (two to nine), Ten to Ace
+    private static final long[] RANK_KEYS = new long[Card.NUM_SUITS * Card.NUM_RANKS * 4 * HONOURS];
+    private static final long[] LEADER_KEYS = new long[4];
+    private static final long[] TRUMP_KEYS = new long[Card.NUM_SUITS];
+    private static final long[] DEALER_KEYS = new long[4];
+
+    static {
+        SplittableRandom rng = new SplittableRandom(0x5EEDA11F0026L);
+        fill(GAME_POINT_KEYS, rng);
+        fill(GAME_KEYS, rng);
+        fill(JACK_KEYS, rng);
+        fill(RANK_KEYS, rng);
+        fill(LEADER_KEYS, rng);
+        fill(TRUMP_KEYS, rng);
+        fill(DEALER_KEYS, rng);
+        POINTS_KEY = rng.nextLong();
+    }
+
+    private static void fill(long[] keys, SplittableRandom rng) {
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = rng.nextLong();
+        }
+    }
+
+    // Transposition table: full 64-bit keys, packed bound/move entries
+    private final long[] ttKeys;
+    private final int[] ttEntries;
+    private final int ttMask;
+
+    private final GameState state = new GameState();
+
+    private final int[][] moves = new int[MAX_PLIES][13];
+    private final int[][] moveScores = new int[MAX_PLIES][13];
+
+    private long nodes;
+    private int cutMove;
+
+    // 2^16 entries: larger tables hit no more often on a hand of this size and only miss the cache
+    public DoubleDummySolver() {
+        this(16);
+    }
+
+    // The transposition table holds 2^log2Entries positions
+    public DoubleDummySolver(int log2Entries) {
+        ttKeys = new long[1 << log2Entries];
+        ttEntries = new int[1 << log2Entries];
+        ttMask = (1 << log2Entries) - 1;
+    }
+
+    /*
+     * @param players The four players, holding their hands after begging
+     * @param trumpSuit The trump suit for the round
+     * @param dealer The dealer; the player to their right leads
+     */
+    public Result solve(List<Player> players, String trumpSuit, Player dealer) {
+        long[] seatHands = new long[4];
+        for (int seat = 0; seat < 4; seat++) {
+            seatHands[seat] = players.get(seat).getHandMask();
+        }
+        int dealerSeat = players.indexOf(dealer);
+        return solve(seatHands, Card.suitIndexOf(trumpSuit), (dealerSeat + 3) % 4, dealerSeat);
+    }
+
+    /*
+     * @param seatHands The card mask held by each seat; all hands the same size
+     * @param trumpSuit The trump suit index
+     * @param leaderSeat The seat on top for the first trick
+     * @param dealerSeat The dealer's seat, whose team loses a tied Game
+     */
+    public Result solve(long[] seatHands, int trumpSuit, int leaderSeat, int dealerSeat) {
+        state.reset(seatHands, trumpSuit, leaderSeat, dealerSeat);
+        nodes = 0;
+        int total = state.getPointsLeft();
+
+        // Narrow the chalk down with null-window searches; each only asks whether it is at least a
+        // guess, whatever the game points
+        int chalkAtLeast = -MAX_CHALK;
+        int chalkAtMost = MAX_CHALK;
+        while (chalkAtLeast < chalkAtMost) {
+            int guess = Math.floorDiv(chalkAtLeast + chalkAtMost + 1, 2);
+            int threshold = value(guess, -total);
+            int bound = search(threshold - 1, threshold);
+            if (bound >= threshold) {
+                chalkAtLeast = -Math.floorDiv(total - bound, CHALK_SCALE); // The chalk of a value >= bound
+            } else {
+                chalkAtMost = Math.floorDiv(bound + total, CHALK_SCALE);
+            }
+        }
+
+        // Then the game points that chalk comes with
+        int atLeast = value(chalkAtLeast, -total);
+        int atMost = value(chalkAtLeast, total);
+        while (atLeast < atMost) {
+            int guess = Math.floorDiv(atLeast + atMost + 1, 2);
+            int bound = search(guess - 1, guess);
+            if (bound >= guess) {
+                atLeast = bound;
+            } else {
+                atMost = bound;
+            }
+        }
+        int value = atLeast;
+
+        // Walk the principal variation to recover the game points and Jack outcome
+        Card[] line = new Card[state.getCardsLeft()];
+        int jackSeat = -1;
+        boolean jackResolved = false;
+        boolean jackHung = false;
+        int jackOfTrump = trumpSuit * Card.NUM_RANKS + Card.JACK;
+        while (!state.isOver()) {
+            int ply = state.getPly();
+            boolean maximising = (state.getToMove() & 1) == 0;
+            // The search that settles the position names the move that did; it may come from a table
+            // entry for an equivalent position, so check it, and fall back to trying each move
+            int chosen = maximising ? search(value - 1, value) >= value ? cutMove : -1
+                    : search(value, value + 1) <= value ? cutMove : -1;
+            if (chosen < 0 || (state.legalMoves() & (1L << chosen)) == 0 || !keeps(chosen, value, maximising)) {
+                int count = generateMoves(ply);
+                chosen = moves[ply][0];
+                for (int i = 0; i < count; i++) {
+                    if (keeps(moves[ply][i], value, maximising)) {
+                        chosen = moves[ply][i];
+                        break;
+                    }
+                }
+            }
+            line[ply] = Card.of(chosen);
+            if (chosen == jackOfTrump) {
+                jackSeat = state.getToMove();
+            }
+            state.makeMove(chosen);
+            if (jackSeat >= 0 && !jackResolved && state.getPosition() == 0) {
+                jackHung = (state.getWinningSeat() & 1) != (jackSeat & 1);
+                jackResolved = true;
+            }
+        }
+
+        int teamAPoints = (totalGamePoints(seatHands) + state.getGamePointMargin()) / 2;
+        int teamBPoints = totalGamePoints(seatHands) - teamAPoints;
+
+        long allHands = seatHands[0] | seatHands[1] | seatHands[2] | seatHands[3];
+        int[] chalk = new int[2];
+        Card high = CardSet.highest(allHands, trumpSuit);
+        Card low = CardSet.lowest(allHands, trumpSuit);
+        if (high != null) {
+            chalk[seatOf(seatHands, high.getOrdinal()) & 1]++;
+            chalk[seatOf(seatHands, low.getOrdinal()) & 1]++;
+        }
+        if (jackSeat >= 0) {
+            chalk[jackHung ? 1 - (jackSeat & 1) : jackSeat & 1] += jackHung ? 3 : 1;
+        }
+        if (teamAPoints != teamBPoints) {
+            chalk[teamAPoints > teamBPoints ? 0 : 1] += 2;
+        } else {
+            chalk[1 - (dealerSeat & 1)] += 2; // Tie → non-dealer team wins Game
+        }
+
+        while (state.getPly() > 0) {
+            state.unmakeMove();
+        }
+
+        return new Result(chalkAtLeast, teamAPoints, teamBPoints, jackSeat, jackHung, chalk, line, nodes);
+    }
+
+    // Search value of a chalk margin and a game-point margin, both for Team A
+    private static int value(int chalk, int margin) {
+        return chalk * CHALK_SCALE + margin;
+    }
+
+    // Whether a card holds the side to move to the value; no reply beats it, so reaching it is enough
+    private boolean keeps(int card, int value, boolean maximising) {
+        state.makeMove(card);
+        boolean keeps = maximising ? search(value - 1, value) >= value : search(value, value + 1) <= value;
+        state.unmakeMove();
+        return keeps;
+    }
+
+    // Value of the position for Team A (Team B minimises); cutMove is left naming the move that decided it
+    private int search(int alpha, int beta) {
+        return search(alpha, beta, false);
+    }
+
+    /*
+     * With pointsOnly set, the value searched is only the final game-point margin: once the Jack's chalk is
+     * settled, Game follows the margin, so the best margin is also the best value.
+     */
+    private int search(int alpha, int beta, boolean pointsOnly) {
+        if (!pointsOnly && !jackInPlay()) {
+            return searchPoints(state.getJackMargin(), alpha, beta);
+        }
+        nodes++;
+        cutMove = -1;
+        if (state.isOver()) {
+            return state.getGamePointMargin(); // Only reached searching points: the Jack is out of play
+        }
+        if (state.getCardsLeft() == 4 && state.getPosition() == 0) {
+            return lastTrick(pointsOnly);
+        }
+
+        int position = state.getPosition();
+        int margin = state.getGamePointMargin();
+        int jackMargin = state.getJackMargin();
+        int lower = -INFINITY;
+        int upper = INFINITY;
+        long scoreKey = pointsOnly ? POINTS_KEY : GAME_POINT_KEYS[margin + MAX_POINTS] ^ JACK_KEYS[jackMargin + 3];
+        if (position == 0) {
+            // Bound the result from what is already decided; often it settles the position outright.
+            // Only between tricks: mid-trick the bounds rarely change and cost more than they save
+            int remaining = state.getPointsLeft();
+            int sure = sureTrumps();
+            int marginLow = margin + 2 * (sure & 0xFF) - remaining;
+            int marginHigh = margin + remaining - 2 * ((sure >>> 8) & 0xFF);
+            if (pointsOnly) {
+                lower = marginLow;
+                upper = marginHigh;
+            } else if ((sure & JACK_RUNS) != 0) {
+                // The Jack is sure to run, which settles its chalk
+                return searchPoints(jackMargin + ((state.getJackHolder() & 1) == 0 ? 1 : -1), alpha, beta);
+            } else {
+                int gameLow = winsGame(marginLow) ? 2 : -2;
+                int gameHigh = winsGame(marginHigh) ? 2 : -2;
+                if (gameLow == gameHigh) {
+                    // Game is decided, so the margin so far only adds to the value; the table holds what is to come
+                    scoreKey = GAME_KEYS[gameLow > 0 ? 0 : 1] ^ JACK_KEYS[jackMargin + 3];
+                }
+                // The Jack is in a hand: its team gains 1 if it runs, the other team 3 if it hangs
+                int jackTeam = state.getJackHolder() & 1;
+                lower = value(jackMargin + (jackTeam == 0 ? -3 : -1) + gameLow, marginLow);
+                upper = value(jackMargin + (jackTeam == 0 ? 1 : 3) + gameHigh, marginHigh);
+            }
+            if (lower == upper || lower >= beta) return lower; // Cut off as soon as the bounds decide the window
+            if (upper <= alpha) return upper;
+        }
+        if (state.getCardsLeft() + position <= 4) {
+            return playOut(pointsOnly); // The last trick: one card left in each hand
+        }
+
+        int ttMove = -1;
+        long key = (position == 0 ? boundaryKey() : state.getHash()) ^ scoreKey;
+        int slot = (int) key & ttMask;
+        if (ttKeys[slot] == key && ttEntries[slot] != 0) {
+            int entry = ttEntries[slot];
+            lower = Math.max(lower, (entry & BOUND_MASK) - BOUND_BIAS + margin);
+            upper = Math.min(upper, ((entry >>> 12) & BOUND_MASK) - BOUND_BIAS + margin);
+            ttMove = (entry >>> 24) & 63;
+            cutMove = ttMove;
+            if (lower == upper || lower >= beta) return lower;
+            if (upper <= alpha) return upper;
+            cutMove = -1;
+        }
+        if (lower > alpha) alpha = lower;
+        if (upper < beta) beta = upper;
+        int originalAlpha = alpha;
+        int originalBeta = beta;
+
+        boolean maximising = (state.getToMove() & 1) == 0;
+        int ply = state.getPly();
+        int count = generateMoves(ply);
+        int[] list = moves[ply];
+        if (ttMove >= 0) {
+            for (int i = 1; i < count; i++) { // Try the cached best move first
+                if (list[i] == ttMove) {
+                    list[i] = list[0];
+                    list[0] = ttMove;
+                    break;
+                }
+            }
+        }
+
+        int best = maximising ? -INFINITY : INFINITY;
+        int bestMove = list[0];
+        for (int i = 0; i < count; i++) {
+            state.makeMove(list[i]);
+            int value = search(alpha, beta, pointsOnly);
+            state.unmakeMove();
+            if (maximising) {
+                if (value > best) {
+                    best = value;
+                    bestMove = list[i];
+                }
+                if (best > alpha) alpha = best;
+            } else {
+                if (value < best) {
+                    best = value;
+                    bestMove = list[i];
+                }
+                if (best < beta) beta = best;
+            }
+            if (alpha >= beta) break;
+        }
+
+        if (best <= originalAlpha) {
+            upper = best;
+        } else if (best >= originalBeta) {
+            lower = best;
+        } else {
+            lower = upper = best;
+        }
+        ttKeys[slot] = key;
+        // An unbounded side (mid-trick, nothing known) is stored as the widest bound the field holds
+        int lowerField = Math.max(lower - margin + BOUND_BIAS, 0);
+        int upperField = Math.min(upper - margin + BOUND_BIAS, BOUND_MASK);
+        ttEntries[slot] = lowerField | upperField << 12 | bestMove << 24;
+        cutMove = bestMove;
+        return best;
+    }
+
+    // Whether the Jack of trump is still to be played or on the table, its chalk not yet settled
+    private boolean jackInPlay() {
+        long jack = 1L << (state.getTrump() * Card.NUM_RANKS + Card.JACK);
+        long held = state.getHand(0) | state.getHand(1) | state.getHand(2) | state.getHand(3);
+        return ((state.getPosition() > 0 ? held | state.getTrickCards() : held) & jack) != 0;
+    }
+
+    // Value of the position with the Jack's chalk margin settled at jack: the best game-point margin and its Game
+    private int searchPoints(int jack, int alpha, int beta) {
+        int margin = search(leastMargin(jack, alpha + 1) - 1, leastMargin(jack, beta), true);
+        return value(jack + (winsGame(margin) ? 2 : -2), margin);
+    }
+
+    // The least game-point margin whose value, with the Jack's chalk margin at jack, is at least v
+    private int leastMargin(int jack, int v) {
+        int firstWin = winsGame(0) ? 0 : 1;
+        int losing = v - value(jack - 2, 0);
+        return losing < firstWin ? losing : Math.max(firstWin, v - value(jack + 2, 0));
+    }
+
+    /*
+     * Key of a position between tricks by relative rank: which seat holds each card still in play, in
+     * order within its suit, and its game points. Cards that drop out only close up the order, so lines
+     * that differ in which low cards went share an entry; play from here goes the same either way.
+     */
+    private long boundaryKey() {
+        long key = LEADER_KEYS[state.getToMove()] ^ TRUMP_KEYS[state.getTrump()] ^ DEALER_KEYS[state.getDealer()];
+        long hand0 = state.getHand(0);
+        long hand1 = state.getHand(1);
+        long hand2 = state.getHand(2);
+        long all = hand0 | hand1 | hand2 | state.getHand(3);
+        for (int suit = 0; suit < Card.NUM_SUITS; suit++) {
+            int base = suit * Card.NUM_RANKS;
+            int place = base;
+            for (long l = (all >>> base) & 0x1FFF; l != 0; l &= l - 1) {
+                int rank = Long.numberOfTrailingZeros(l);
+                long bit = 1L << (base + rank);
+                int seat = (hand0 & bit) != 0 ? 0 : (hand1 & bit) != 0 ? 1 : (hand2 & bit) != 0 ? 2 : 3;
+                int honour = rank < Card.TEN ? 0 : rank - Card.TEN + 1;
+                key ^= RANK_KEYS[(place++ * 4 + seat) * HONOURS + honour];
+            }
+        }
+        return key;
+    }
+
+    // Whether a final game-point margin wins Game for Team A; a tie goes to the non-dealers
+    private boolean winsGame(int finalMargin) {
+        return finalMargin > 0 || finalMargin == 0 && (state.getDealer() & 1) == 1;
+    }
+
+    /*
+     * Game points each team is sure of: a trump with no higher trump in play but its own team's
+     * takes its trick for that team, however the hands are played. Team A's in the low byte, Team
+     * B's in the next, and JACK_RUNS if the Jack of trump is one of them.
+     */
+    private int sureTrumps() {
+        int trump = state.getTrump();
+        int base = trump * Card.NUM_RANKS;
+        long all = state.getHand(0) | state.getHand(1) | state.getHand(2) | state.getHand(3);
+        long trumps = (all >>> base) & 0x1FFF;
+        int winCard = state.getWinningCard();
+        boolean trumpOnTable = state.getPosition() > 0 && winCard / Card.NUM_RANKS == trump;
+        if (trumpOnTable) {
+            trumps |= 1L << (winCard - base); // Only the trick's best trump matters; it plays for the winner
+        }
+        int team = -1;
+        int sure = 0;
+        while (trumps != 0) {
+            int rank = 63 - Long.numberOfLeadingZeros(trumps);
+            trumps &= ~(1L << rank);
+            int card = base + rank;
+            boolean held = (all & (1L << card)) != 0;
+            int holder = held ? (state.getHand(0) & 1L << card) != 0 ? 0 : (state.getHand(1) & 1L << card) != 0 ? 1
+                    : (state.getHand(2) & 1L << card) != 0 ? 0 : 1 : state.getWinningSeat() & 1;
+            if (team < 0) {
+                team = holder;
+            } else if (holder != team) {
+                break;
+            }
+            if (held) {
+                sure += Rules.gamePoints(card) << (team * 8);
+                if (rank == Card.JACK) {
+                    sure |= JACK_RUNS;
+                }
+            }
+        }
+        return sure;
+    }
+
+    // Value of a position before the last trick, each seat down to one card, scored without playing it
+    private int lastTrick(boolean pointsOnly) {
+        int trump = state.getTrump();
+        int seat = state.getToMove();
+        int winSeat = seat;
+        int winCard = Long.numberOfTrailingZeros(state.getHand(seat));
+        int leadSuit = winCard / Card.NUM_RANKS;
+        int points = Rules.gamePoints(winCard);
+        int jackSeat = winCard == trump * Card.NUM_RANKS + Card.JACK ? seat : -1;
+        for (int i = 1; i < 4; i++) {
+            seat = (seat + 3) % 4; // Play passes to the right
+            int card = Long.numberOfTrailingZeros(state.getHand(seat));
+            if ((Rules.beatenBy(card, leadSuit, trump) & (1L << winCard)) != 0) {
+                winSeat = seat;
+                winCard = card;
+            }
+            points += Rules.gamePoints(card);
+            if (card == trump * Card.NUM_RANKS + Card.JACK) {
+                jackSeat = seat;
+            }
+        }
+        int winnerTeam = winSeat & 1;
+        int margin = state.getGamePointMargin() + (winnerTeam == 0 ? points : -points);
+        int jack = state.getJackMargin();
+        if (jackSeat >= 0) {
+            int chalk = (jackSeat & 1) == winnerTeam ? 1 : 3; // Run with Jack, or hang it
+            jack += winnerTeam == 0 ? chalk : -chalk;
+        }
+        return pointsOnly ? margin : value(jack + (winsGame(margin) ? 2 : -2), margin);
+    }
+
+    // Plays the forced cards to the end and takes them back
+    private int playOut(boolean pointsOnly) {
+        int played = 0;
+        while (!state.isOver()) {
+            state.makeMove(Long.numberOfTrailingZeros(state.legalMoves()));
+            played++;
+        }
+        int value = pointsOnly ? state.getGamePointMargin() : value(state.getChalkMargin(), state.getGamePointMargin());
+        for (; played > 0; played--) {
+            state.unmakeMove();
+        }
+        return value;
+    }
+
+    // Fills moves[ply] with the legal cards, one per group of equivalent cards, best-first
+    private int generateMoves(int ply) {
+        long legal = state.legalMoves();
+        int[] list = moves[ply];
+        int[] scores = moveScores[ply];
+        int position = state.getPosition();
+        int trump = state.getTrump();
+        int leadSuit = state.getLeadSuit();
+        int winCard = state.getWinningCard();
+        long gone = state.getGone();
+        boolean partnerWinning = position > 0 && (state.getWinningSeat() & 1) == (state.getToMove() & 1);
+
+        long out = position > 0 ? gone | state.getTrickCards() : gone;
+        int count = 0;
+        int previous = -1;
+        boolean previousTakes = false;
+        for (long l = legal; l != 0; l &= l - 1) {
+            int card = Long.numberOfTrailingZeros(l);
+            boolean takes = position > 0 && (Rules.beatenBy(card, leadSuit, trump) & (1L << winCard)) != 0;
+            if (previous >= 0 && previous / Card.NUM_RANKS == card / Card.NUM_RANKS
+                    && Rules.gamePoints(previous) == Rules.gamePoints(card)
+                    && takes == previousTakes && (between(previous, card) & ~out) == 0) {
+                previous = card; // Same effect as the lower card already listed
+                continue;
+            }
+            previous = card;
+            previousTakes = takes;
+
+            int rank = card % Card.NUM_RANKS;
+            int points = Rules.gamePoints(card);
+            int score;
+            if (position == 0) {
+                score = (card / Card.NUM_RANKS == trump ? 32 : 0) + rank + points * 2; // Lead trumps and honours first
+            } else if (partnerWinning) {
+                score = points * 4 - rank; // Feed points to a partner who is winning
+            } else if (takes) {
+                score = 64 + points * 4 + rank; // Take the trick, capturing points of our own
+            } else {
+                score = -points * 4 - rank; // Otherwise throw low
+            }
+
+            int i = count++;
+            while (i > 0 && scores[i - 1] < score) {
+                list[i] = list[i - 1];
+                scores[i] = scores[i - 1];
+                i--;
+            }
+            list[i] = card;
+            scores[i] = score;
+        }
+        return count;
+    }
+
+    private static long between(int low, int high) {
+        return ((1L << high) - 1) & ~((1L << (low + 1)) - 1);
+    }
+
+    private static int totalGamePoints(long[] seatHands) {
+        int total = 0;
+        for (long hand : seatHands) {
+            for (long h = hand; h != 0; h &= h - 1) {
+                total += Rules.gamePoints(Long.numberOfTrailingZeros(h));
+            }
+        }
+        return total;
+    }
+
+    private static int seatOf(long[] seatHands, int card) {
+        for (int seat = 0; seat < 4; seat++) {
+            if ((seatHands[seat] & (1L << card)) != 0) return seat;
+        }
+        return -1;
+    }
+
+    /*
+     * Outcome of best play by both teams.
+     * Team index 0 is Team A (seats 0 and 2), 1 is Team B (seats 1 and 3).
+     */
+    public static final class Result {
+        private final int value;
+        private final int teamAGamePoints;
+        private final int teamBGamePoints;
+        private final int jackSeat;
+        private final boolean jackHung;
+        private final int[] chalk;
+        private final Card[] line;
+        private final long nodes;
+
+        Result(int value, int teamAGamePoints, int teamBGamePoints, int jackSeat, boolean jackHung,
+                int[] chalk, Card[] line, long nodes) {
+            this.value = value;
+            this.teamAGamePoints = teamAGamePoints;
+            this.teamBGamePoints = teamBGamePoints;
+            this.jackSeat = jackSeat;
+            this.jackHung = jackHung;
+            this.chalk = chalk;
+            this.line = line;
+            this.nodes = nodes;
+        }
+
+        // Search score for Team A: its Jack + Game chalk minus Team B's
+        public int getValue() {
+            return value;
+        }
+
+        // Game points the team takes with best play: the most it can, once neither team can score more chalk
+        public int getGamePoints(int team) {
+            return team == 0 ? teamAGamePoints : teamBGamePoints;
+        }
+
+        // Seat that holds the Jack of trump, or -1 if it was not dealt
+        public int getJackSeat() {
+            return jackSeat;
+        }
+
+        public boolean isJackHung() {
+            return jackHung;
+        }
+
+        // High, Low, Jack and Game chalk the team scores along getLine()
+        public int getChalk(int team) {
+            return chalk[team];
+        }
+
+        // The cards of one best line of play, in order
+        public Card[] getLine() {
+            return line.clone();
+        }
+
+        public Card getBestCard() {
+            return line.length == 0 ? null : line[0];
+        }
+
+        public long getNodes() {
+            return nodes;
+        }
+
+        @Override
+        public String toString() {
+            String jack = jackSeat < 0 ? "not dealt" : (jackHung ? "hung" : "runs") + " (seat " + jackSeat + ")";
+            return "Game points A " + teamAGamePoints + " / B " + teamBGamePoints
+                    + ", Jack " + jack
+                    + ", chalk A " + chalk[0] + " / B " + chalk[1]
+                    + ", best lead " + getBestCard();
+        }
+    }
+}
@@ -0,0 +1,424 @@
+package allfours;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ * Single-producer, multi-consumer ring of game events. Registered as a
+ * match's GameListener, it turns each callback into a typed event in a
+ * preallocated slot; observers (spectators, loggers, renderers) read the
+ * ring through their own cursors, on their own threads, at their own pace.
+ *
+ * Publishing never waits and never allocates: the game thread writes the
+ * next slot and advances the published sequence, whoever is reading. A
+ * consumer that falls a whole ring behind has been lapped; it skips ahead
+ * to the oldest event still in the ring and hears how many it lost
+ * (Handler.lost), so a slow observer costs the players nothing, however
+ * many are watching.
+ *
+ * Each slot is a seqlock: the producer marks it in progress, writes the
+ * fields and stamps it with its sequence. A reader copies the fields and
+ * keeps the copy only if the stamp was the sequence it wanted both before
+ * and after.
+ *
+ * Events carry the Player, Team and Card objects of the match; scores and
+ * points are copied in as ints, as they stood when the event was
+ * published.
+ */
+
+public final class EventBus implements GameListener {
+    public enum Type {
+        MATCH_STARTED,   // player: first dealer
+        ROUND_STARTED,   // player: dealer
+        DEALER_ROTATED,  // player: new dealer
+        KICK,            // card; flag: running the pack
+        BEG,             // player: beggar; flag: begged rather than stood
+        PACK_RUN,        // player: dealer
+        TRICK_STARTED,   // player: leader; value: trick number
+        CARD_PLAYED,     // player, card
+        TRICK_WON,       // player: winner; value: game points
+        CHALK_AWARDED,   // team, chalk (what for), value: chalk; card: High or Low; flag: hung Jack or tiebreak
+        ROUND_FINISHED,  // team, value: Team A and its chalk; team2, value2: Team B
+        MATCH_FINISHED   // team: winner
+    }
+
+    public enum Chalk { KICK, BEG, HIGH, LOW, JACK, GAME }
+
+    // One slot of the ring, or a consumer's copy of one
+    public static final class Event {
+        private volatile long stamp = -1; // Sequence held, or -(sequence + 1) while being written
+        private long sequence;
+        private Type type;
+        private Player player;
+        private Team team;
+        private Team team2;
+        private Card card;
+        private Chalk chalk;
+        private int value;
+        private int value2;
+        private boolean flag;
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        public Player getPlayer() {
+            return player;
+        }
+
+        public Team getTeam() {
+            return team;
+        }
+
+        public Team getTeam2() {
+            return team2;
+        }
+
+        public Card getCard() {
+            return card;
+        }
+
+        public Chalk getChalk() {
+            return chalk;
+        }
+
+        public int getValue() {
+            return value;
+        }
+
+        public int getValue2() {
+            return value2;
+        }
+
+        public boolean getFlag() {
+            return flag;
+        }
+
+        void copyFrom(Event slot) {
+            sequence = slot.sequence;
+            type = slot.type;
+            player = slot.player;
+            team = slot.team;
+            team2 = slot.team2;
+            card = slot.card;
+            chalk = slot.chalk;
+            value = slot.value;
+            value2 = slot.value2;
+            flag = slot.flag;
+        }
+
+        @Override
+        public String toString() {
+            return sequence + " " + type + (player != null ? " " + player.getName() : "")
+                    + (team != null ? " " + team.getName() : "") + (card != null ? " " + card : "")
+                    + (chalk != null ? " " + chalk : "") + " " + value + "/" + value2 + (flag ? " *" : "");
+        }
+    }
+
+    public interface Handler {
+        void onEvent(Event event);
+
+        // count events were overwritten before this consumer read them
+        default void lost(long count) {
+        }
+    }
+
+    private final Event[] ring;
+    private final int mask;
+    private volatile long published = -1;
+    private long next; // Producer only
+
+    // size is rounded up to a power of two
+    public EventBus(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Ring size must be positive: " + size);
+        }
+        ring = new Event[size == 1 ? 1 : Integer.highestOneBit(size - 1) << 1];
+        mask = ring.length - 1;
+        for (int i = 0; i < ring.length; i++) {
+            ring[i] = new Event();
+        }
+    }
+
+    public int getSize() {
+        return ring.length;
+    }
+
+    // Sequence of the latest event published, or -1
+    public long getPublished() {
+        return published;
+    }
+
+    // A consumer's position in the ring. Not thread-safe: one thread reads through a cursor.
+    public final class Cursor {
+        private final Event copy = new Event();
+        private long position;
+        private long lost;
+
+        // Starts at the next event to be published
+        Cursor() {
+            position = published + 1;
+        }
+
+        /*
+         * Hands the handler up to max events published since the last poll, oldest first
+         *
+         * @return The number of events handled
+         */
+        public int poll(Handler handler, int max) {
+            long available = published;
+            int handled = 0;
+            while (position <= available && handled < max) {
+                long oldest = Math.max(0, published - ring.length + 1);
+                if (position < oldest) {
+                    skip(handler, oldest);
+                    continue;
+                }
+                Event slot = ring[(int) position & mask];
+                if (slot.stamp != position) {
+                    skip(handler, Math.max(position + 1, published - ring.length + 1));
+                    continue;
+                }
+                copy.copyFrom(slot);
+                VarHandle.acquireFence(); // The copy's reads happen before the stamp is checked again
+                if (slot.stamp != position) {
+                    skip(handler, Math.max(position + 1, published - ring.length + 1));
+                    continue;
+                }
+                position++;
+                handled++;
+                handler.onEvent(copy);
+            }
+            return handled;
+        }
+
+        private void skip(Handler handler, long to) {
+            lost += to - position;
+            handler.lost(to - position);
+            position = to;
+        }
+
+        // Events overwritten before this cursor reached them
+        public long getLost() {
+            return lost;
+        }
+
+        // Events published but not yet polled
+        public long getLag() {
+            return published + 1 - position;
+        }
+    }
+
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    // A consumer on its own daemon thread, from the next event published until closed
+    public final class Subscription implements AutoCloseable {
+        private static final long MAX_PARK_NANOS = 1_000_000;
+
+        private final Cursor cursor = new Cursor();
+        private final Handler handler;
+        private final Thread thread;
+        private volatile boolean closed;
+
+        Subscription(String name, Handler handler) {
+            this.handler = handler;
+            this.thread = new Thread(this::run, name);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private void run() {
+            long park = 0;
+            while (!closed) {
+                if (cursor.poll(handler, 256) > 0) {
+                    park = 0;
+                } else if (park == 0) {
+                    park = 1_000;
+                    Thread.onSpinWait();
+                } else {
+                    // Back off while idle; the producer never wakes consumers
+                    LockSupport.parkNanos(park);
+                    park = Math.min(2 * park, MAX_PARK_NANOS);
+                }
+            }
+            while (cursor.poll(handler, Integer.MAX_VALUE) > 0) {
+                // Drain what was published before close()
+            }
+        }
+
+        public Cursor getCursor() {
+            return cursor;
+        }
+
+        // Stops after the events already published, and waits for the thread to finish them unless interrupted
+        @Override
+        public void close() {
+            closed = true;
+            LockSupport.unpark(thread);
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt(); // The thread still drains and exits on its own
+            }
+        }
+    }
+
+    public Subscription subscribe(String name, Handler handler) {
+        return new Subscription(name, handler);
+    }
+
+    // Publishing, on the game thread
+
+    private Event claim(Type type) {
+        long sequence = next;
+        Event slot = ring[(int) sequence & mask];
+        slot.stamp = -(sequence + 1);
+        VarHandle.storeStoreFence(); // Readers see the slot in progress before any field changes
+        slot.sequence = sequence;
+        slot.type = type;
+        slot.player = null;
+        slot.team = null;
+        slot.team2 = null;
+        slot.card = null;
+        slot.chalk = null;
+        slot.value = 0;
+        slot.value2 = 0;
+        slot.flag = false;
+        return slot;
+    }
+
+    private void publish(Event slot) {
+        long sequence = next++;
+        slot.stamp = sequence;
+        published = sequence;
+    }
+
+    private void publish(Type type, Player player) {
+        Event slot = claim(type);
+        slot.player = player;
+        publish(slot);
+    }
+
+    private void chalk(Chalk chalk, Team team, int value, Card card, boolean flag) {
+        Event slot = claim(Type.CHALK_AWARDED);
+        slot.chalk = chalk;
+        slot.team = team;
+        slot.value = value;
+        slot.card = card;
+        slot.flag = flag;
+        publish(slot);
+    }
+
+    @Override
+    public void matchStarted(Player firstDealer) {
+        publish(Type.MATCH_STARTED, firstDealer);
+    }
+
+    @Override
+    public void roundStarted(Player dealer) {
+        publish(Type.ROUND_STARTED, dealer);
+    }
+
+    @Override
+    public void dealerRotated(Player dealer) {
+        publish(Type.DEALER_ROTATED, dealer);
+    }
+
+    @Override
+    public void cardKicked(Card kickedCard, boolean runningPack) {
+        Event slot = claim(Type.KICK);
+        slot.card = kickedCard;
+        slot.flag = runningPack;
+        publish(slot);
+    }
+
+    @Override
+    public void begResponse(Player beggar, boolean begged) {
+        Event slot = claim(Type.BEG);
+        slot.player = beggar;
+        slot.flag = begged;
+        publish(slot);
+    }
+
+    @Override
+    public void packRun(Player dealer) {
+        publish(Type.PACK_RUN, dealer);
+    }
+
+    @Override
+    public void trickStarted(int trickNumber, Player leader) {
+        Event slot = claim(Type.TRICK_STARTED);
+        slot.player = leader;
+        slot.value = trickNumber;
+        publish(slot);
+    }
+
+    @Override
+    public void cardPlayed(Player player, Card card) {
+        Event slot = claim(Type.CARD_PLAYED);
+        slot.player = player;
+        slot.card = card;
+        publish(slot);
+    }
+
+    @Override
+    public void trickWon(Player winner, int points) {
+        Event slot = claim(Type.TRICK_WON);
+        slot.player = winner;
+        slot.value = points;
+        publish(slot);
+    }
+
+    @Override
+    public void kickChalk(Team dealerTeam, int chalk) {
+        chalk(Chalk.KICK, dealerTeam, chalk, null, false);
+    }
+
+    @Override
+    public void chalkGiven(Team beggingTeam) {
+        chalk(Chalk.BEG, beggingTeam, 1, null, false);
+    }
+
+    @Override
+    public void highAwarded(Team team, Card highTrump) {
+        chalk(Chalk.HIGH, team, 1, highTrump, false);
+    }
+
+    @Override
+    public void lowAwarded(Team team, Card lowTrump) {
+        chalk(Chalk.LOW, team, 1, lowTrump, false);
+    }
+
+    @Override
+    public void jackAwarded(Team team, boolean hung) {
+        chalk(Chalk.JACK, team, hung ? 3 : 1, null, hung);
+    }
+
+    @Override
+    public void gameAwarded(Team team, boolean tiebreak) {
+        chalk(Chalk.GAME, team, 2, null, tiebreak);
+    }
+
+    @Override
+    public void roundFinished(Team teamA, Team teamB) {
+        Event slot = claim(Type.ROUND_FINISHED);
+        slot.team = teamA;
+        slot.value = teamA.getMatchScore();
+        slot.team2 = teamB;
+        slot.value2 = teamB.getMatchScore();
+        publish(slot);
+    }
+
+    @Override
+    public void matchFinished(Team winner) {
+        Event slot = claim(Type.MATCH_FINISHED);
+        slot.team = winner;
+        publish(slot);
+    }
+}
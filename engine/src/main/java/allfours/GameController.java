@@ -0,0 +1,230 @@
+package allfours;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.random.RandomGenerator;
+
+
+/*
+ * Need to implement throwdown logic
+ * Cannot give 1 to team on 13
+ */
+
+public class GameController {
+    private List<Player> players;
+    private Team teamA;
+    private Team teamB;
+    private int dealerIndex;
+    private Round currentRound;    // ⭐ NEW: store active round
+    private GameListener listener;
+    private RandomGenerator rng;
+    private Deck deck;
+    private boolean resuming; // The current round was restored mid-hand and is finished by the next startRound()
+
+    // Getter methods
+    public List<Player> getPlayers() {
+        return players;
+    }
+
+    public Player getCurrentDealer() {
+        return players.get(dealerIndex);
+    }
+
+    public Team getTeamA() {
+        return teamA;
+    }
+
+    public Team getTeamB() {
+        return teamB;
+    }
+
+    public Round getCurrentRound() {   // ⭐ NEW: get current round
+        return currentRound;
+    }
+
+    // The listener given at construction, or after setupGame a MulticastGameListener also feeding listening seats
+    public GameListener getListener() {
+        return listener;
+    }
+
+    // The team that reached 14 chalk, or null while the match is in progress
+    public Team getWinner() {
+        if (teamA.getMatchScore() >= 14) return teamA;
+        if (teamB.getMatchScore() >= 14) return teamB;
+        return null;
+    }
+
+    public boolean isMatchOver() {
+        return teamA.getMatchScore() >= 14 || teamB.getMatchScore() >= 14;
+    }
+
+    // Constructor
+    public GameController() {
+        this(ConsoleGameListener.INSTANCE);
+    }
+
+    // Headless matches pass GameListener.SILENT (or their own listener) here
+    public GameController(GameListener listener) {
+        this(listener, new Random());
+    }
+
+    // The generator picks the first dealer and shuffles every deck, so a seeded match replays exactly
+    public GameController(GameListener listener, RandomGenerator rng) {
+        this(listener, rng, new Deck(rng));
+    }
+
+    // Replays pass a deck that comes out in a recorded order
+    public GameController(GameListener listener, RandomGenerator rng, Deck deck) {
+        players = new ArrayList<>();
+        this.listener = listener;
+        this.rng = rng;
+        this.deck = deck;
+    }
+
+    public void setupGame() {
+        setupGame(new DecisionProvider[] {
+                ConsoleDecisionProvider.INSTANCE, ConsoleDecisionProvider.INSTANCE,
+                ConsoleDecisionProvider.INSTANCE, ConsoleDecisionProvider.INSTANCE });
+    }
+
+    // One DecisionProvider per seat, in the order Player 1..Player 4
+    public void setupGame(DecisionProvider[] seats) {
+        setupGame(seats, rng.nextInt(4));
+    }
+
+    // As above, with the first dealer's seat (0..3) given rather than drawn
+    public void setupGame(DecisionProvider[] seats, int firstDealer) {
+        Player p1 = new Player("Player 1", seats[0]);
+        Player p2 = new Player("Player 2", seats[1]);
+        Player p3 = new Player("Player 3", seats[2]);
+        Player p4 = new Player("Player 4", seats[3]);
+
+        players.add(p1);
+        players.add(p2);
+        players.add(p3);
+        players.add(p4);
+
+        teamA = new Team("Team A", p1, p3);
+        teamB = new Team("Team B", p2, p4);
+
+        // Bots that follow the play hear every event alongside the match's own listener
+        List<GameListener> observers = new ArrayList<>();
+        observers.add(listener);
+        for (DecisionProvider seat : seats) {
+            if (seat instanceof GameListener && !observers.contains(seat)) {
+                observers.add((GameListener) seat);
+            }
+        }
+        if (observers.size() > 1) {
+            listener = new MulticastGameListener(observers);
+        }
+
+        dealerIndex = firstDealer;
+
+        listener.matchStarted(players.get(dealerIndex));
+    }
+
+    public void startRound() {
+        if (resuming) {
+            resuming = false;
+            listener.handResumed(this);
+            currentRound.resumeHand();
+            return;
+        }
+        Player dealer = players.get(dealerIndex);
+        if (currentRound == null) {
+            currentRound = new Round(players, dealer, teamA, teamB, listener, deck);   // ⭐ STORE the round
+        } else {
+            currentRound.reset(dealer); // The same Round object serves every hand of the match
+        }
+        currentRound.playRound();
+    }
+
+    int getDealerIndex() {
+        return dealerIndex;
+    }
+
+    // MatchSnapshot: a Round for the current dealer, to be set up mid-hand and finished by playMatch()
+    Round resumeRound() {
+        currentRound = new Round(players, players.get(dealerIndex), teamA, teamB, listener, deck);
+        resuming = true;
+        return currentRound;
+    }
+
+    public void rotateDealer() {
+        dealerIndex = (dealerIndex - 1 + players.size()) % players.size();
+        listener.dealerRotated(players.get(dealerIndex));
+    }
+
+    /*
+     * Plays rounds until a team reaches 14 chalk
+     *
+     * @return The team that won the match
+     */
+    public Team playMatch() {
+        while (!isMatchOver()) {
+            do {
+                startRound();    // play until round is successful
+            } while (currentRound.wasRoundAborted() && !isMatchOver());
+
+            listener.roundFinished(teamA, teamB);
+
+            if (!isMatchOver()) {
+                rotateDealer(); // Rotate dealer for next round
+            }
+        }
+
+        Team winner = getWinner();
+        listener.matchFinished(winner);
+        return winner;
+    }
+
+    // ✅ Safe main method
+    // Usage: GameController [--headless <matches> | --bots | --watch]
+    public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--headless")) {
+            int matches = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+            int teamAWins = 0;
+            for (int i = 0; i < matches; i++) {
+                GameController game = new GameController(GameListener.SILENT);
+                game.setupGame(new DecisionProvider[] {
+                        new RandomDecisionProvider(), new RandomDecisionProvider(),
+                        new RandomDecisionProvider(), new RandomDecisionProvider() });
+                if (game.playMatch() == game.getTeamA()) {
+                    teamAWins++;
+                }
+            }
+            System.out.println("Team A won " + teamAWins + " of " + matches + " headless matches.");
+            return;
+        }
+
+        if (args.length > 0 && args[0].equals("--watch")) {
+            // Four ISMCTS bots; the console follows on its own thread through an EventBus
+            EventBus bus = new EventBus(1024);
+            GameController game = new GameController(bus);
+            EventBus.Subscription console = bus.subscribe("console", new ConsoleEventRenderer());
+            try {
+                game.setupGame(new DecisionProvider[] {
+                        new IsmctsDecisionProvider(), new IsmctsDecisionProvider(),
+                        new IsmctsDecisionProvider(), new IsmctsDecisionProvider() });
+                game.playMatch();
+            } finally {
+                console.close(); // Lets the console finish the match's events
+            }
+            return;
+        }
+
+        GameController game = new GameController();
+        if (args.length > 0 && args[0].equals("--bots")) {
+            // Player 1 at the console against three ISMCTS bots
+            game.setupGame(new DecisionProvider[] {
+                    ConsoleDecisionProvider.INSTANCE, new IsmctsDecisionProvider(),
+                    new IsmctsDecisionProvider(), new IsmctsDecisionProvider() });
+        } else {
+            game.setupGame();
+        }
+        game.playMatch();
+    }
+
+}
@@ -0,0 +1,92 @@
+package allfours;
+
+import java.util.List;
+
+/*
+ * Receives everything that happens in a match. GameController, Round and
+ * Trick report through a listener instead of printing, so a match can run
+ * headless (SILENT) or drive the console (ConsoleGameListener), a logger,
+ * statistics and so on.
+ *
+ * All methods default to doing nothing; implementations override the
+ * events they care about.
+ */
+
+public interface GameListener {
+    GameListener SILENT = new GameListener() {
+    };
+
+    // Match lifecycle
+    default void matchStarted(Player firstDealer) {
+    }
+
+    default void roundStarted(Player dealer) {
+    }
+
+    default void roundFinished(Team teamA, Team teamB) {
+    }
+
+    default void dealerRotated(Player dealer) {
+    }
+
+    default void matchFinished(Team winner) {
+    }
+
+    // Dealing and begging
+    default void cardsDealt(List<Player> players, int cardsEach) {
+    }
+
+    // A match restored from a MatchSnapshot picks up mid-hand; the current Round and its Trick hold the play so far
+    default void handResumed(GameController game) {
+    }
+
+    default void handsDealt(List<Player> players) {
+    }
+
+    default void cardKicked(Card kickedCard, boolean runningPack) {
+    }
+
+    default void kickChalk(Team dealerTeam, int chalk) {
+    }
+
+    default void begResponse(Player beggar, boolean begged) {
+    }
+
+    default void chalkGiven(Team beggingTeam) {
+    }
+
+    default void packRun(Player dealer) {
+    }
+
+    default void sameTrumpKicked() {
+    }
+
+    default void packExhausted() {
+    }
+
+    // Tricks
+    default void trickStarted(int trickNumber, Player leader) {
+    }
+
+    default void cardPlayed(Player player, Card card) {
+    }
+
+    default void trickWon(Player winner, int points) {
+    }
+
+    default void jackPlayed(Player jackPlayer, boolean hung) {
+    }
+
+    // End-of-round chalk
+    default void highAwarded(Team team, Card highTrump) {
+    }
+
+    default void lowAwarded(Team team, Card lowTrump) {
+    }
+
+    default void jackAwarded(Team team, boolean hung) {
+    }
+
+    default void gameAwarded(Team team, boolean tiebreak) {
+    }
+}
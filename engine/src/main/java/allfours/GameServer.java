@@ -0,0 +1,495 @@
+package allfours;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+ * TCP front end for a TableHost, speaking WireProtocol.
+ *
+ * One selector thread accepts connections, reads client messages and writes
+ * server events; matches run on the host's table threads. Each connected
+ * client plays through a SeatInbox, and is also a listener on its table that
+ * encodes the match's events straight into the connection's output buffer.
+ * The table thread only asks the selector thread to flush at points where
+ * the client may need to act or wants to see a result (a prompt, a trick,
+ * a hand, the match), so a trick's worth of events goes out in one write.
+ *
+ * Connection buffers are direct and pooled, sized for the events of a few
+ * hands; a client that falls that far behind is disconnected. A disconnect
+ * aborts the client's table, and the other clients at it are sent
+ * END_ABORTED.
+ *
+ * Usage: GameServer [port] [decision timeout ms] [metrics port]
+ * (with -Dallfours.metrics=true, Metrics are served at :<metrics port>/metrics)
+ */
+
+public class GameServer implements Closeable {
+    public static final int DEFAULT_PORT = 8090;
+
+    private static final int BUFFER_BYTES = 4096;
+
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final TableHost host;
+    private final long decisionTimeoutMillis;
+    private final BufferPool buffers = new BufferPool(BUFFER_BYTES);
+    private final ConcurrentLinkedQueue<Connection> flushes = new ConcurrentLinkedQueue<>();
+
+    // Clients waiting for a table, by number of bot seats and kind of bot; selector thread only
+    private final List<List<Connection>> waiting = new ArrayList<>(8);
+
+    private volatile boolean running = true;
+
+    public GameServer(InetSocketAddress address, TableHost host, long decisionTimeoutMillis) throws IOException {
+        this.host = host;
+        this.decisionTimeoutMillis = decisionTimeoutMillis;
+        for (int i = 0; i < 4 * 2; i++) { // 0-3 bots of each kind
+            waiting.add(new ArrayList<>());
+        }
+        selector = Selector.open();
+        server = ServerSocketChannel.open();
+        server.bind(address, 1024);
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    // Serves clients on the calling thread until close()
+    public void run() throws IOException {
+        while (running) {
+            selector.select();
+            Connection flushed;
+            while ((flushed = flushes.poll()) != null) {
+                flushed.flushQueued.set(false);
+                flushed.write();
+            }
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                if (!key.isValid()) {
+                    continue;
+                }
+                if (key.isAcceptable()) {
+                    accept();
+                    continue;
+                }
+                Connection connection = (Connection) key.attachment();
+                if (key.isReadable()) {
+                    connection.read();
+                }
+                if (key.isValid() && key.isWritable()) {
+                    connection.write();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        selector.wakeup();
+        server.close();
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = server.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            Connection connection = new Connection(channel);
+            connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+        }
+    }
+
+    // Seats the clients at a new table, with bots in the remaining seats
+    private void startTable(List<Connection> clients, int bots, int botKind) {
+        GameListener[] listeners = clients.toArray(new GameListener[0]);
+        TableHost.Table table = host.createTable(new MulticastGameListener(listeners));
+        for (int seat = 0; seat < clients.size(); seat++) {
+            Connection client = clients.get(seat);
+            client.seat = seat;
+            client.table = table;
+            client.tableClients = listeners;
+            client.inbox = new SeatInbox(decisionTimeoutMillis, TimeUnit.MILLISECONDS);
+            client.inbox.setPromptHandler(client::prompted);
+            client.putSeated((int) table.getId());
+            client.flush();
+        }
+        for (int seat = 0; seat < clients.size(); seat++) {
+            table.join(seat, clients.get(seat).inbox);
+        }
+        for (int seat = clients.size(); seat < 4; seat++) {
+            table.join(seat, botKind == WireProtocol.BOT_ISMCTS
+                    ? new IsmctsDecisionProvider() : new RandomDecisionProvider());
+        }
+    }
+
+    // Direct buffers of one size, handed from closed connections to new ones
+    private static final class BufferPool {
+        private final ConcurrentLinkedQueue<ByteBuffer> free = new ConcurrentLinkedQueue<>();
+        private final int bytes;
+
+        BufferPool(int bytes) {
+            this.bytes = bytes;
+        }
+
+        ByteBuffer acquire() {
+            ByteBuffer buffer = free.poll();
+            return buffer != null ? buffer : ByteBuffer.allocateDirect(bytes);
+        }
+
+        void release(ByteBuffer buffer) {
+            buffer.clear();
+            free.offer(buffer);
+        }
+    }
+
+    /*
+     * One client. Reads, writes and closing happen on the selector thread;
+     * the GameListener methods and prompted() run on the table's thread and
+     * only append to the output buffer, under the connection's lock.
+     */
+    private final class Connection implements GameListener {
+        private final SocketChannel channel;
+        private final ByteBuffer in;
+        private final ByteBuffer out;
+        private final AtomicBoolean flushQueued = new AtomicBoolean();
+        private SelectionKey key;
+        private boolean closed;
+        private boolean overflowed;
+
+        // The client's table while its match runs; set on the selector thread before the match starts
+        private volatile TableHost.Table table;
+        private GameListener[] tableClients;
+        private int waitingIn = -1; // Index into waiting, while waiting for a table
+        private SeatInbox inbox;
+        private int seat;
+
+        // Table thread
+        private List<Player> players;
+        private Player dealer;
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+            in = buffers.acquire();
+            out = buffers.acquire();
+        }
+
+        // Room for one more message; otherwise the connection is marked to be dropped
+        private boolean room() {
+            if (closed || overflowed) {
+                return false;
+            }
+            if (out.remaining() < WireProtocol.MAX_MESSAGE) {
+                overflowed = true;
+                return false;
+            }
+            return true;
+        }
+
+        synchronized void put(int type, int a) {
+            if (room()) {
+                WireProtocol.put(out, type, a);
+            }
+        }
+
+        synchronized void put(int type, int a, int b) {
+            if (room()) {
+                WireProtocol.put(out, type, a, b);
+            }
+        }
+
+        synchronized void put(int type, int a, int b, int c) {
+            if (room()) {
+                WireProtocol.put(out, type, a, b, c);
+            }
+        }
+
+        synchronized void putSet(int type, int a, long set) {
+            if (room()) {
+                WireProtocol.putSet(out, type, a, set);
+            }
+        }
+
+        synchronized void putSeated(int table) {
+            if (room()) {
+                WireProtocol.putSeated(out, seat, table);
+            }
+        }
+
+        // Has the selector thread write out whatever has been appended
+        void flush() {
+            if (!flushQueued.getAndSet(true)) {
+                flushes.add(this);
+                selector.wakeup();
+            }
+        }
+
+        void read() {
+            int n;
+            try {
+                n = channel.read(in);
+            } catch (IOException e) {
+                n = -1;
+            }
+            if (n < 0) {
+                close();
+                return;
+            }
+            in.flip();
+            try {
+                int size;
+                while ((size = WireProtocol.peek(in)) > 0) {
+                    int start = in.position();
+                    receive(in.get(start) & 0xFF, in.get(start + 1) & 0xFF, size == 3 ? in.get(start + 2) & 0xFF : 0);
+                    in.position(start + size);
+                }
+            } catch (IllegalArgumentException e) {
+                close(); // Not speaking the protocol
+                return;
+            }
+            in.compact();
+        }
+
+        private void receive(int type, int a, int b) {
+            SeatInbox seatInbox = inbox;
+            boolean accepted;
+            switch (type) {
+                case WireProtocol.JOIN:
+                    accepted = join(a, b);
+                    break;
+                case WireProtocol.PLAY:
+                    accepted = seatInbox != null && a < Card.NUM_CARDS && seatInbox.play(Card.of(a));
+                    break;
+                case WireProtocol.BEG:
+                    accepted = seatInbox != null && seatInbox.getPrompt() == SeatInbox.Prompt.BEG
+                            && seatInbox.answer(a != 0);
+                    break;
+                case WireProtocol.GIVE:
+                    accepted = seatInbox != null && seatInbox.getPrompt() == SeatInbox.Prompt.GIVE
+                            && seatInbox.answer(a != 0);
+                    break;
+                default:
+                    accepted = false; // A server message sent to the server
+            }
+            if (!accepted) {
+                put(WireProtocol.REJECTED, type);
+                flush();
+            }
+        }
+
+        private boolean join(int bots, int botKind) {
+            TableHost.Table current = table;
+            if (bots > 3 || botKind > WireProtocol.BOT_ISMCTS || waitingIn >= 0
+                    || current != null && current.isPlaying()) {
+                return false;
+            }
+            waitingIn = bots * 2 + botKind;
+            List<Connection> queue = waiting.get(waitingIn);
+            queue.add(this);
+            if (queue.size() == 4 - bots) {
+                List<Connection> clients = new ArrayList<>(queue);
+                queue.clear();
+                for (Connection client : clients) {
+                    client.waitingIn = -1;
+                }
+                startTable(clients, bots, botKind);
+            }
+            return true;
+        }
+
+        void write() {
+            if (overflowed) {
+                close();
+                return;
+            }
+            boolean failed = false;
+            boolean pending;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                out.flip();
+                try {
+                    channel.write(out);
+                } catch (IOException e) {
+                    failed = true;
+                }
+                out.compact();
+                pending = out.position() > 0;
+            }
+            if (failed) {
+                close();
+                return;
+            }
+            key.interestOps(pending ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+        }
+
+        void close() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                buffers.release(in);
+                buffers.release(out);
+            }
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // Already gone
+            }
+            if (waitingIn >= 0) {
+                waiting.get(waitingIn).remove(this);
+            }
+            TableHost.Table current = table;
+            if (current != null && current.isPlaying()) {
+                current.abort();
+                for (GameListener other : tableClients) {
+                    if (other != this) {
+                        Connection client = (Connection) other;
+                        client.put(WireProtocol.END, WireProtocol.END_ABORTED);
+                        client.flush();
+                    }
+                }
+            }
+        }
+
+        // Seat index of a player at the table; the table thread learns the seating at each deal, or
+        // from the game when a parked match wakes mid-hand with new Player objects
+        private int seatOf(Player player) {
+            return players.indexOf(player);
+        }
+
+        private int teamOf(Team team) {
+            return seatOf(team.getPlayer1()) & 1;
+        }
+
+        void prompted(SeatInbox seatInbox) {
+            SeatInbox.Prompt prompt = seatInbox.getPrompt();
+            int kind = prompt == SeatInbox.Prompt.CARD ? WireProtocol.PROMPT_CARD
+                    : prompt == SeatInbox.Prompt.BEG ? WireProtocol.PROMPT_BEG : WireProtocol.PROMPT_GIVE;
+            putSet(WireProtocol.PROMPT, kind, seatInbox.getLegalCards());
+            flush();
+        }
+
+        @Override
+        public void matchStarted(Player firstDealer) {
+            players = null; // A woken match seats new Player objects; cardsDealt or handResumed names them
+            dealer = firstDealer;
+        }
+
+        @Override
+        public void roundStarted(Player dealer) {
+            this.dealer = dealer;
+        }
+
+        @Override
+        public void handResumed(GameController game) {
+            players = game.getPlayers();
+            dealer = game.getCurrentRound().getDealer();
+        }
+
+        @Override
+        public void cardsDealt(List<Player> players, int cardsEach) {
+            this.players = players;
+            putSet(WireProtocol.DEAL, seatOf(dealer), players.get(seat).getHandMask());
+        }
+
+        @Override
+        public void cardKicked(Card kickedCard, boolean runningPack) {
+            put(WireProtocol.KICK, kickedCard.getOrdinal(), runningPack ? 1 : 0);
+        }
+
+        @Override
+        public void kickChalk(Team dealerTeam, int chalk) {
+            put(WireProtocol.CHALK, WireProtocol.CHALK_KICK, teamOf(dealerTeam), chalk);
+        }
+
+        @Override
+        public void begResponse(Player beggar, boolean begged) {
+            put(WireProtocol.BEGGED, seatOf(beggar), begged ? 1 : 0);
+        }
+
+        @Override
+        public void chalkGiven(Team beggingTeam) {
+            put(WireProtocol.CHALK, WireProtocol.CHALK_GIVEN, teamOf(beggingTeam), 1);
+        }
+
+        @Override
+        public void cardPlayed(Player player, Card card) {
+            put(WireProtocol.PLAYED, seatOf(player), card.getOrdinal());
+        }
+
+        @Override
+        public void trickWon(Player winner, int points) {
+            put(WireProtocol.TRICK, seatOf(winner), points);
+            flush();
+        }
+
+        @Override
+        public void highAwarded(Team team, Card highTrump) {
+            put(WireProtocol.CHALK, WireProtocol.CHALK_HIGH, teamOf(team), 1);
+        }
+
+        @Override
+        public void lowAwarded(Team team, Card lowTrump) {
+            put(WireProtocol.CHALK, WireProtocol.CHALK_LOW, teamOf(team), 1);
+        }
+
+        @Override
+        public void jackAwarded(Team team, boolean hung) {
+            put(WireProtocol.CHALK, hung ? WireProtocol.CHALK_HANG_JACK : WireProtocol.CHALK_JACK,
+                    teamOf(team), hung ? 3 : 1);
+        }
+
+        @Override
+        public void gameAwarded(Team team, boolean tiebreak) {
+            put(WireProtocol.CHALK, WireProtocol.CHALK_GAME, teamOf(team), 2);
+        }
+
+        @Override
+        public void roundFinished(Team teamA, Team teamB) {
+            put(WireProtocol.SCORE, teamA.getMatchScore(), teamB.getMatchScore());
+            flush();
+        }
+
+        @Override
+        public void matchFinished(Team winner) {
+            table = null; // The client may join another table as soon as it reads END
+            put(WireProtocol.END, teamOf(winner));
+            flush();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        long timeoutMillis = args.length > 1 ? Long.parseLong(args[1]) : 30_000;
+        if (Metrics.ENABLED) {
+            Metrics.serve(args.length > 2 ? Integer.parseInt(args[2]) : port + 1);
+        }
+        try (TableHost host = new TableHost();
+                GameServer server = new GameServer(new InetSocketAddress(port), host, timeoutMillis)) {
+            System.out.println("Serving All Fours on port " + server.getPort());
+            server.run();
+        }
+    }
+}
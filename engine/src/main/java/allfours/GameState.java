@@ -0,0 +1,461 @@
+package allfours;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/*
+ * The trick phase of a round as one mutable, allocation-free position for
+ * search: the four hands, the trick on the table, who is to play, trump,
+ * the game points and Jack chalk taken so far. makeMove plays a card and
+ * unmakeMove takes it back, from an undo stack of one frame per card, so a
+ * search walks a tree of lines on a single object.
+ *
+ * Play follows Trick.play and Player.chooseCardToPlay: legalMoves() is
+ * Player.legalMoves (follow suit or trump, no undertrumping), play passes
+ * to the right, a card takes the trick if Rules.beatenBy says so, and the
+ * winner leads next. A completed trick's game points go to the winner's
+ * team; a Jack of trump in it runs (1 chalk to its team) or is hung (3 to
+ * the winners), as Round scores it.
+ *
+ * Scores are kept as margins, Team A minus Team B; seat & 1 is the team.
+ *
+ * getHash() is a Zobrist hash of the cards in each hand, the cards each
+ * seat has on the table, the seat to play, trump and dealer, kept up to
+ * date by every move: equal positions hash alike whatever the order of
+ * play that reached them. Scores are not in it; a search that needs them
+ * in its keys mixes them in itself (see DoubleDummySolver). Playouts that
+ * never look a position up can leave the hash off (new GameState(false)).
+ *
+ * Moves are not checked: play cards from legalMoves().
+ */
+
+public final class GameState {
+    public static final int MAX_PLIES = 4 * 12;
+
+    // Keys by seat * 52 + card
+    private static final long[] HAND_KEYS = new long[4 * Card.NUM_CARDS];
+    private static final long[] TABLE_KEYS = new long[4 * Card.NUM_CARDS];
+    private static final long[] TO_MOVE_KEYS = new long[4];
+    private static final long[] TRUMP_KEYS = new long[4];
+    private static final long[] DEALER_KEYS = new long[4];
+
+    // What a card going from hand to table, and play passing on to the right, change in the hash
+    private static final long[] PLAY_KEYS = new long[4 * Card.NUM_CARDS];
+    private static final long[] PASS_KEYS = new long[4];
+
+    static {
+        SplittableRandom rng = new SplittableRandom(0x5EEDA11F0025L);
+        fill(HAND_KEYS, rng);
+        fill(TABLE_KEYS, rng);
+        fill(TO_MOVE_KEYS, rng);
+        fill(TRUMP_KEYS, rng);
+        fill(DEALER_KEYS, rng);
+        for (int i = 0; i < PLAY_KEYS.length; i++) {
+            PLAY_KEYS[i] = HAND_KEYS[i] ^ TABLE_KEYS[i];
+        }
+        for (int seat = 0; seat < 4; seat++) {
+            PASS_KEYS[seat] = TO_MOVE_KEYS[seat] ^ TO_MOVE_KEYS[(seat + 3) % 4];
+        }
+    }
+
+    private static void fill(long[] keys, SplittableRandom rng) {
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = rng.nextLong();
+        }
+    }
+
+    private final boolean hashing; // Off, moves skip the keys and getHash() throws
+
+    // Position
+    private final long[] hands = new long[4];
+    private int trump;
+    private int dealer;
+    private int jackOfTrump;
+    private long hash;
+    private long gone;       // Cards from completed tricks
+    private int toMove;
+    private int ply;
+    private int cardsLeft;   // Cards still in hands
+    private int pointsLeft;  // Game points still in hands
+
+    // Trick in progress
+    private int position;    // Cards played to the current trick
+    private int leadSuit;
+    private int winSeat;
+    private int winCard;
+    private int trickPoints;
+    private long trickCards;
+    private int trickJackSeat;
+    private long tableHash;  // Keys of the cards on the table
+
+    // Running margins, Team A minus Team B
+    private int gamePointMargin;
+    private int jackMargin;
+
+    /*
+     * Undo stack, one frame per ply: the card, who played it and the trick
+     * before it packed into one long, plus the trick's cards and the hashes.
+     * Scores and gone cards only change when a trick completes, and are
+     * taken back from the completed trick itself.
+     */
+    private final long[] undoFrame = new long[MAX_PLIES];
+    private final long[] undoTrickCards = new long[MAX_PLIES];
+    private final long[] undoTableHash = new long[MAX_PLIES];
+    private final long[] undoHash = new long[MAX_PLIES];
+
+    public GameState() {
+        this(true);
+    }
+
+    public GameState(boolean hashing) {
+        this.hashing = hashing;
+    }
+
+    /*
+     * The round in play from a trick in progress (or about to be led): what every seat
+     * holds and has played, and the game points and Jack chalk taken so far
+     */
+    public static GameState of(Round round) {
+        Trick trick = round.getTrick();
+        if (round.getPhase() != Round.TRICKS || trick.isResolved()) {
+            throw new IllegalStateException("A game state is taken while a trick is being played");
+        }
+        List<Player> players = round.getPlayers();
+        List<Card> played = trick.getPlayedCards();
+        int leader = round.getLeaderSeat();
+        int[] order = Trick.PLAY_ORDER[leader];
+        long[] hands = new long[4];
+        for (int seat = 0; seat < 4; seat++) {
+            hands[seat] = players.get(seat).getHandMask();
+        }
+        for (int i = 0; i < played.size(); i++) {
+            hands[order[i]] |= CardSet.bit(played.get(i)); // Put back, to be played below
+        }
+
+        GameState state = new GameState();
+        state.reset(hands, round.getTrumpIndex(), leader, round.getDealerSeat());
+        Team teamA = round.getTeam(0); // Seats 0 and 2
+        Team teamB = round.getTeam(1);
+        int jack = 0;
+        if (round.getTeamRanJack() != null) {
+            jack = round.getTeamRanJack() == teamA ? 1 : -1;
+        } else if (round.getTeamHungJack() != null) {
+            jack = round.getTeamHungJack() == teamA ? 3 : -3;
+        }
+        state.setScores(teamA.getGameScore() - teamB.getGameScore(), jack);
+        for (int i = 0; i < played.size(); i++) {
+            state.makeMove(played.get(i).getOrdinal());
+        }
+        return state;
+    }
+
+    /*
+     * A fresh trick phase with no score yet
+     *
+     * @param seatHands The card mask held by each seat
+     * @param trumpSuit The trump suit index
+     * @param leaderSeat The seat on top for the first trick
+     * @param dealerSeat The dealer's seat, whose team loses a tied Game
+     */
+    public void reset(long[] seatHands, int trumpSuit, int leaderSeat, int dealerSeat) {
+        trump = trumpSuit;
+        dealer = dealerSeat;
+        jackOfTrump = trumpSuit * Card.NUM_RANKS + Card.JACK;
+        hash = TRUMP_KEYS[trumpSuit] ^ DEALER_KEYS[dealerSeat] ^ TO_MOVE_KEYS[leaderSeat];
+        cardsLeft = 0;
+        pointsLeft = 0;
+        for (int seat = 0; seat < 4; seat++) {
+            hands[seat] = 0;
+            setHand(seat, seatHands[seat]);
+        }
+        gone = 0;
+        toMove = leaderSeat;
+        ply = 0;
+        position = 0;
+        leadSuit = -1;
+        winSeat = -1;
+        winCard = -1;
+        trickPoints = 0;
+        trickCards = 0;
+        trickJackSeat = -1;
+        tableHash = 0;
+        gamePointMargin = 0;
+        jackMargin = 0;
+    }
+
+    // Game points and Jack chalk already taken, Team A minus Team B
+    public void setScores(int gamePointMargin, int jackMargin) {
+        this.gamePointMargin = gamePointMargin;
+        this.jackMargin = jackMargin;
+    }
+
+    // Replaces what a seat holds, e.g. with a guess at a hidden hand; moves made before it are not to be taken back
+    public void setHand(int seat, long hand) {
+        if (hashing) {
+            int keys = seat * Card.NUM_CARDS;
+            for (long h = hands[seat] ^ hand; h != 0; h &= h - 1) {
+                hash ^= HAND_KEYS[keys + Long.numberOfTrailingZeros(h)];
+            }
+        }
+        cardsLeft += Long.bitCount(hand) - Long.bitCount(hands[seat]);
+        for (long h = hands[seat] & ~hand; h != 0; h &= h - 1) {
+            pointsLeft -= Rules.gamePoints(Long.numberOfTrailingZeros(h));
+        }
+        for (long h = hand & ~hands[seat]; h != 0; h &= h - 1) {
+            pointsLeft += Rules.gamePoints(Long.numberOfTrailingZeros(h));
+        }
+        hands[seat] = hand;
+    }
+
+    // Becomes a copy of other, undo stack included
+    public void copyFrom(GameState other) {
+        System.arraycopy(other.hands, 0, hands, 0, 4);
+        trump = other.trump;
+        dealer = other.dealer;
+        jackOfTrump = other.jackOfTrump;
+        hash = other.hash;
+        gone = other.gone;
+        toMove = other.toMove;
+        ply = other.ply;
+        cardsLeft = other.cardsLeft;
+        pointsLeft = other.pointsLeft;
+        position = other.position;
+        leadSuit = other.leadSuit;
+        winSeat = other.winSeat;
+        winCard = other.winCard;
+        trickPoints = other.trickPoints;
+        trickCards = other.trickCards;
+        trickJackSeat = other.trickJackSeat;
+        gamePointMargin = other.gamePointMargin;
+        jackMargin = other.jackMargin;
+        tableHash = other.tableHash;
+        System.arraycopy(other.undoFrame, 0, undoFrame, 0, ply);
+        System.arraycopy(other.undoTrickCards, 0, undoTrickCards, 0, ply);
+        System.arraycopy(other.undoTableHash, 0, undoTableHash, 0, ply);
+        System.arraycopy(other.undoHash, 0, undoHash, 0, ply);
+    }
+
+    // The cards the seat to play may play
+    public long legalMoves() {
+        return Player.legalMoves(hands[toMove], leadSuit, trump, trickCards);
+    }
+
+    // Plays a card (an ordinal from legalMoves()) for the seat to play
+    public void makeMove(int card) {
+        int seat = toMove;
+        pushFrame(card, seat);
+
+        long bit = 1L << card;
+        hands[seat] &= ~bit;
+        cardsLeft--;
+        pointsLeft -= Rules.gamePoints(card);
+
+        if (position == 0) {
+            leadSuit = card / Card.NUM_RANKS;
+            winSeat = seat;
+            winCard = card;
+            trickPoints = 0;
+            trickCards = 0;
+            trickJackSeat = -1;
+            tableHash = 0;
+        } else if ((Rules.beatenBy(card, leadSuit, trump) & (1L << winCard)) != 0) {
+            winSeat = seat;
+            winCard = card;
+        }
+        trickPoints += Rules.gamePoints(card);
+        trickCards |= bit;
+        if (card == jackOfTrump) {
+            trickJackSeat = seat;
+        }
+
+        if (++position < 4) {
+            toMove = (seat + 3) % 4; // Play passes to the right
+            if (hashing) {
+                int key = seat * Card.NUM_CARDS + card;
+                tableHash ^= TABLE_KEYS[key];
+                hash ^= PLAY_KEYS[key] ^ PASS_KEYS[seat];
+            }
+        } else {
+            completeTrick(seat, card);
+        }
+    }
+
+    // Kept out of makeMove so the JIT can still inline it into a search loop
+    private void pushFrame(int card, int seat) {
+        undoFrame[ply] = card | (long) seat << 6 | (long) (leadSuit + 1) << 8 | (long) (winSeat + 1) << 11
+                | (long) (winCard + 1) << 14 | (long) trickPoints << 20 | (long) (trickJackSeat + 1) << 28
+                | (long) position << 31;
+        undoTrickCards[ply] = trickCards;
+        if (hashing) {
+            undoTableHash[ply] = tableHash;
+            undoHash[ply] = hash;
+        }
+        ply++;
+    }
+
+    // The fourth card is down: the trick comes off the table, is scored, and the winner leads
+    private void completeTrick(int seat, int card) {
+        int winnerTeam = winSeat & 1;
+        gamePointMargin += winnerTeam == 0 ? trickPoints : -trickPoints;
+        if (trickJackSeat >= 0) {
+            int chalk = (trickJackSeat & 1) == winnerTeam ? 1 : 3; // Run with Jack, or hang it
+            jackMargin += winnerTeam == 0 ? chalk : -chalk;
+        }
+        gone |= trickCards;
+        position = 0;
+        leadSuit = -1;
+        toMove = winSeat;
+        if (hashing) {
+            int key = seat * Card.NUM_CARDS + card;
+            long others = tableHash; // The other three leave the table; this card never lands
+            tableHash ^= TABLE_KEYS[key];
+            hash ^= HAND_KEYS[key] ^ others ^ TO_MOVE_KEYS[seat] ^ TO_MOVE_KEYS[toMove];
+        }
+    }
+
+    // Takes back the last card played
+    public void unmakeMove() {
+        if (ply == 0) {
+            throw new IllegalStateException("No move to take back");
+        }
+        if (position == 0) {
+            unscoreTrick();
+        }
+        ply--;
+        long frame = undoFrame[ply];
+        int card = (int) frame & 63;
+        int seat = (int) (frame >>> 6) & 3;
+        hands[seat] |= 1L << card;
+        cardsLeft++;
+        pointsLeft += Rules.gamePoints(card);
+        leadSuit = ((int) (frame >>> 8) & 7) - 1;
+        winSeat = ((int) (frame >>> 11) & 7) - 1;
+        winCard = ((int) (frame >>> 14) & 63) - 1;
+        trickPoints = (int) (frame >>> 20) & 255;
+        trickJackSeat = ((int) (frame >>> 28) & 7) - 1;
+        position = (int) (frame >>> 31) & 7;
+        trickCards = undoTrickCards[ply];
+        tableHash = undoTableHash[ply];
+        hash = undoHash[ply];
+        toMove = seat;
+    }
+
+    // The last card completed the trick still in the fields: take back its score
+    private void unscoreTrick() {
+        int winnerTeam = winSeat & 1;
+        gamePointMargin -= winnerTeam == 0 ? trickPoints : -trickPoints;
+        if (trickJackSeat >= 0) {
+            int chalk = (trickJackSeat & 1) == winnerTeam ? 1 : 3;
+            jackMargin -= winnerTeam == 0 ? chalk : -chalk;
+        }
+        gone &= ~trickCards;
+    }
+
+    public long getHash() {
+        if (!hashing) {
+            throw new IllegalStateException("This game state keeps no hash");
+        }
+        return hash;
+    }
+
+    public long getHand(int seat) {
+        return hands[seat];
+    }
+
+    public int getTrump() {
+        return trump;
+    }
+
+    public int getDealer() {
+        return dealer;
+    }
+
+    public int getToMove() {
+        return toMove;
+    }
+
+    // Cards played since reset
+    public int getPly() {
+        return ply;
+    }
+
+    public int getCardsLeft() {
+        return cardsLeft;
+    }
+
+    public boolean isOver() {
+        return cardsLeft == 0;
+    }
+
+    // Game points in the cards still held
+    public int getPointsLeft() {
+        return pointsLeft;
+    }
+
+    // Cards of completed tricks
+    public long getGone() {
+        return gone;
+    }
+
+    // Cards on the table in the current trick (0 to 3)
+    public int getPosition() {
+        return position;
+    }
+
+    // Suit index led to the current trick, or -1 between tricks
+    public int getLeadSuit() {
+        return leadSuit;
+    }
+
+    // Seat winning the current trick; between tricks, the seat that won the last one (or -1)
+    public int getWinningSeat() {
+        return winSeat;
+    }
+
+    public int getWinningCard() {
+        return winCard;
+    }
+
+    // Game points on the table in the current trick; between tricks, those of the last one
+    public int getTrickPoints() {
+        return trickPoints;
+    }
+
+    // Cards on the table in the current trick; between tricks, the last trick's
+    public long getTrickCards() {
+        return trickCards;
+    }
+
+    // Game points taken in completed tricks, Team A minus Team B
+    public int getGamePointMargin() {
+        return gamePointMargin;
+    }
+
+    // Jack chalk taken, Team A minus Team B: +-1 if the Jack ran, +-3 if it was hung
+    public int getJackMargin() {
+        return jackMargin;
+    }
+
+    // Seat holding the Jack of trump, or that has it on the table in the current trick; -1 once it is out
+    public int getJackHolder() {
+        if (position > 0 && trickJackSeat >= 0) {
+            return trickJackSeat;
+        }
+        long jack = 1L << jackOfTrump;
+        for (int seat = 0; seat < 4; seat++) {
+            if ((hands[seat] & jack) != 0) return seat;
+        }
+        return -1;
+    }
+
+    // Jack and Game chalk margin for Team A once the round is over; a tied Game goes to the non-dealers
+    public int getChalkMargin() {
+        int game;
+        if (gamePointMargin != 0) {
+            game = gamePointMargin > 0 ? 2 : -2;
+        } else {
+            game = (dealer & 1) == 0 ? -2 : 2; // Tie → non-dealer team wins Game
+        }
+        return jackMargin + game;
+    }
+}
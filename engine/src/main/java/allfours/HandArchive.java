@@ -0,0 +1,239 @@
+package allfours;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/*
+ * Archive of played hands: a directory of memory-mapped segment files
+ * (hands-000000.seg, ...), each holding up to a fixed number of HandRecords
+ * as little-endian longs after a 32-byte header.
+ *
+ * Header: magic, version, number of hands, then the OR and the AND of every
+ * hand in the segment. Those two masks summarise the segment: a query that
+ * needs, say, a run of the pack can skip a segment whose OR has no run bits
+ * without reading a single hand.
+ *
+ * scan() runs a HandQuery over every segment in parallel on a fork/join
+ * pool: one partial query per segment, merged as tasks join. Nothing is
+ * loaded beyond the mapped pages being read.
+ */
+
+public class HandArchive implements Closeable {
+    public static final int DEFAULT_SEGMENT_HANDS = 1 << 20;
+
+    static final int MAGIC = 0x41344841; // "A4HA"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 32;
+
+    // Header offsets
+    private static final int COUNT = 8;
+    private static final int ANY_BITS = 16;
+    private static final int ALL_BITS = 24;
+
+    private final Path directory;
+    private final int segmentHands;
+    private int segmentIndex;
+    private MappedByteBuffer segment;
+    private int count;
+    private long anyBits;
+    private long allBits;
+
+    public HandArchive(Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_HANDS);
+    }
+
+    public HandArchive(Path directory, int segmentHands) throws IOException {
+        if (segmentHands < 1) {
+            throw new IllegalArgumentException("A segment must hold at least one hand: " + segmentHands);
+        }
+        this.directory = directory;
+        this.segmentHands = segmentHands;
+        Files.createDirectories(directory);
+
+        List<Path> existing = segments(directory);
+        if (existing.isEmpty()) {
+            openSegment(0);
+        } else {
+            segmentIndex = existing.size() - 1;
+            segment = map(existing.get(segmentIndex), FileChannel.MapMode.READ_WRITE);
+            checkHeader(segment, existing.get(segmentIndex));
+            count = (int) segment.getLong(COUNT);
+            anyBits = segment.getLong(ANY_BITS);
+            allBits = segment.getLong(ALL_BITS);
+        }
+    }
+
+    // Appends hands[0, n); thread-safe
+    public synchronized void append(long[] hands, int n) {
+        for (int i = 0; i < n; i++) {
+            if (count == segmentHands || segment.capacity() < HEADER_BYTES + (count + 1) * 8L) {
+                try {
+                    openSegment(segmentIndex + 1);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            long hand = hands[i];
+            segment.putLong(HEADER_BYTES + count * 8, hand);
+            anyBits |= hand;
+            allBits &= hand;
+            count++;
+        }
+        // Summary after the hands, so a concurrent reader never sees a count ahead of the data
+        segment.putLong(ANY_BITS, anyBits);
+        segment.putLong(ALL_BITS, allBits);
+        segment.putLong(COUNT, count);
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    @Override
+    public synchronized void close() {
+        segment.force();
+    }
+
+    private void openSegment(int index) throws IOException {
+        if (segment != null) {
+            segment.force();
+        }
+        segmentIndex = index;
+        count = 0;
+        anyBits = 0;
+        allBits = -1L;
+        Path file = directory.resolve(String.format("hands-%06d.seg", index));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + segmentHands * 8L);
+        }
+        segment.order(ByteOrder.LITTLE_ENDIAN);
+        segment.putInt(0, MAGIC);
+        segment.putInt(4, VERSION);
+        segment.putLong(ALL_BITS, allBits);
+    }
+
+    // Segment files of an archive directory, in order
+    public static List<Path> segments(Path directory) throws IOException {
+        List<Path> files = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return files;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "hands-*.seg")) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        }
+        Collections.sort(files);
+        return files;
+    }
+
+    /*
+     * Runs a query over every hand in the archive
+     *
+     * @param query An empty query; each segment is scanned into its own newPartial() copy
+     * @return The query with every segment's partial merged in
+     */
+    public static <Q extends HandQuery<Q>> Q scan(Path directory, Q query, ForkJoinPool pool) throws IOException {
+        List<Path> files = segments(directory);
+        Q result = pool.invoke(new Scan<>(files, 0, files.size(), query));
+        query.merge(result);
+        return query;
+    }
+
+    public static <Q extends HandQuery<Q>> Q scan(Path directory, Q query) throws IOException {
+        return scan(directory, query, ForkJoinPool.commonPool());
+    }
+
+    // Scans one segment into the query, unless its summary rules every hand out
+    static <Q extends HandQuery<Q>> void scanSegment(Path file, Q query) throws IOException {
+        MappedByteBuffer segment = map(file, FileChannel.MapMode.READ_ONLY);
+        checkHeader(segment, file);
+        int count = (int) segment.getLong(COUNT);
+        if (count == 0 || !query.mayMatch(segment.getLong(ANY_BITS), segment.getLong(ALL_BITS))) {
+            query.segmentSkipped(count);
+            return;
+        }
+        LongBuffer hands = segment.position(HEADER_BYTES).slice().order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+        for (int i = 0; i < count; i++) {
+            long hand = hands.get(i);
+            if (query.test(hand)) {
+                query.add(hand);
+            }
+        }
+        query.segmentScanned(count);
+    }
+
+    private static MappedByteBuffer map(Path file, FileChannel.MapMode mode) throws IOException {
+        StandardOpenOption[] options = mode == FileChannel.MapMode.READ_ONLY
+                ? new StandardOpenOption[] {StandardOpenOption.READ}
+                : new StandardOpenOption[] {StandardOpenOption.READ, StandardOpenOption.WRITE};
+        try (FileChannel channel = FileChannel.open(file, options)) {
+            MappedByteBuffer buffer = channel.map(mode, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return buffer;
+        }
+    }
+
+    private static void checkHeader(MappedByteBuffer segment, Path file) throws IOException {
+        if (segment.limit() < HEADER_BYTES || segment.getInt(0) != MAGIC) {
+            throw new IOException("Not a hand archive segment: " + file);
+        }
+        if (segment.getInt(4) != VERSION) {
+            throw new IOException("Unsupported hand archive version " + segment.getInt(4) + ": " + file);
+        }
+    }
+
+    private static final class Scan<Q extends HandQuery<Q>> extends RecursiveTask<Q> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Path> files;
+        private final int from;
+        private final int to;
+        private final Q prototype;
+
+        Scan(List<Path> files, int from, int to, Q prototype) {
+            this.files = files;
+            this.from = from;
+            this.to = to;
+            this.prototype = prototype;
+        }
+
+        @Override
+        protected Q compute() {
+            if (to - from <= 1) {
+                Q partial = prototype.newPartial();
+                if (from < to) {
+                    try {
+                        scanSegment(files.get(from), partial);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                return partial;
+            }
+
+            int mid = (from + to) >>> 1;
+            Scan<Q> left = new Scan<>(files, from, mid, prototype);
+            left.fork();
+            Q right = new Scan<>(files, mid, to, prototype).compute();
+            Q result = left.join();
+            result.merge(right);
+            return result;
+        }
+    }
+}
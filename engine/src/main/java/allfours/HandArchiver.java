@@ -0,0 +1,172 @@
+package allfours;
+
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * GameListener that summarises every hand of a match as a HandRecord and,
+ * once the match is decided, appends them to a HandArchive. Hands are held
+ * back until then so each can carry the match's eventual winner.
+ *
+ * Replaying a MatchLog through MatchReplayer with an archiver attached
+ * converts recorded matches into an archive.
+ */
+
+public class HandArchiver implements GameListener {
+    private final HandArchive archive;
+    private long[] hands = new long[16];
+    private int handCount;
+
+    private List<Player> players;
+    private Player pendingDealer; // First hand: the seats are not known until the deal
+    private final int[] matchScore = new int[2];
+    private final int[] handChalk = new int[2];
+    private final int[] gamePoints = new int[2];
+    private long hand;
+    private boolean handOpen;
+
+    public HandArchiver(HandArchive archive) {
+        this.archive = archive;
+    }
+
+    @Override
+    public void matchStarted(Player firstDealer) {
+        players = null;
+        handCount = 0;
+        matchScore[0] = 0;
+        matchScore[1] = 0;
+        handOpen = false;
+    }
+
+    @Override
+    public void roundStarted(Player dealer) {
+        closeHand(); // A hand thrown in when the pack ran out gets no roundFinished
+        handOpen = true;
+        hand = (long) HandRecord.NO_JACK << HandRecord.JACK_SEAT
+                | (long) matchScore[0] << HandRecord.SCORE_BEFORE
+                | (long) matchScore[1] << (HandRecord.SCORE_BEFORE + 4);
+        handChalk[0] = 0;
+        handChalk[1] = 0;
+        gamePoints[0] = 0;
+        gamePoints[1] = 0;
+        if (players != null) {
+            hand |= players.indexOf(dealer);
+        } else {
+            pendingDealer = dealer;
+        }
+    }
+
+    @Override
+    public void cardsDealt(List<Player> players, int cardsEach) {
+        if (this.players == null) {
+            this.players = players;
+            hand |= players.indexOf(pendingDealer);
+        }
+    }
+
+    @Override
+    public void cardKicked(Card kickedCard, boolean runningPack) {
+        if (runningPack) {
+            hand += 1L << HandRecord.RUNS;
+        } else {
+            hand |= (long) kickedCard.getRankIndex() << HandRecord.KICK_RANK;
+        }
+        hand = hand & ~HandRecord.field(HandRecord.TRUMP, 2)
+                | (long) kickedCard.getSuitIndex() << HandRecord.TRUMP;
+    }
+
+    @Override
+    public void kickChalk(Team dealerTeam, int chalk) {
+        addChalk(dealerTeam, chalk);
+    }
+
+    @Override
+    public void begResponse(Player beggar, boolean begged) {
+        if (begged) {
+            hand |= 1L << HandRecord.BEGGED;
+        }
+    }
+
+    @Override
+    public void chalkGiven(Team beggingTeam) {
+        hand |= 1L << HandRecord.GAVE;
+        addChalk(beggingTeam, 1);
+    }
+
+    @Override
+    public void packExhausted() {
+        hand |= 1L << HandRecord.ABORTED;
+    }
+
+    @Override
+    public void trickWon(Player winner, int points) {
+        gamePoints[players.indexOf(winner) & 1] += points;
+    }
+
+    @Override
+    public void jackPlayed(Player jackPlayer, boolean hung) {
+        hand = hand & ~HandRecord.field(HandRecord.JACK_SEAT, 3)
+                | (long) players.indexOf(jackPlayer) << HandRecord.JACK_SEAT;
+        if (hung) {
+            hand |= 1L << HandRecord.JACK_HUNG;
+        }
+    }
+
+    @Override
+    public void highAwarded(Team team, Card highTrump) {
+        addChalk(team, 1);
+    }
+
+    @Override
+    public void lowAwarded(Team team, Card lowTrump) {
+        addChalk(team, 1);
+    }
+
+    @Override
+    public void jackAwarded(Team team, boolean hung) {
+        addChalk(team, hung ? 3 : 1);
+    }
+
+    @Override
+    public void gameAwarded(Team team, boolean tiebreak) {
+        addChalk(team, 2);
+    }
+
+    @Override
+    public void roundFinished(Team teamA, Team teamB) {
+        closeHand();
+    }
+
+    @Override
+    public void matchFinished(Team winner) {
+        closeHand();
+        int winnerTeam = players.indexOf(winner.getPlayer1()) & 1;
+        for (int i = 0; i < handCount; i++) {
+            hands[i] |= (long) winnerTeam << HandRecord.MATCH_WINNER;
+        }
+        if (handCount > 0) {
+            hands[handCount - 1] |= 1L << HandRecord.LAST_HAND;
+        }
+        archive.append(hands, handCount);
+        handCount = 0;
+    }
+
+    private void addChalk(Team team, int chalk) {
+        int index = players.indexOf(team.getPlayer1()) & 1;
+        handChalk[index] += chalk;
+        matchScore[index] += chalk;
+    }
+
+    private void closeHand() {
+        if (!handOpen) return;
+        handOpen = false;
+        hand |= (long) handChalk[0] << HandRecord.CHALK
+                | (long) handChalk[1] << (HandRecord.CHALK + 5)
+                | (long) gamePoints[0] << HandRecord.GAME_POINTS
+                | (long) gamePoints[1] << (HandRecord.GAME_POINTS + 7);
+        if (handCount == hands.length) {
+            hands = Arrays.copyOf(hands, handCount * 2);
+        }
+        hands[handCount++] = hand;
+    }
+}
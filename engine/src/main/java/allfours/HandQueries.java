@@ -0,0 +1,245 @@
+package allfours;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ForkJoinPool;
+
+/*
+ * Stock queries over a HandArchive, and the command line to build an archive
+ * from a MatchLog and run them.
+ *
+ * - RunPackOutcome: after a beg answered by running the pack, how often the
+ *   beggar's team outscores the dealer's in the hand, and wins the match
+ * - HangJackBySeat: how often the Jack of trump is hung, by the seat playing it
+ * - KickChalkByRank: mean chalk per hand for the dealer's team and the
+ *   other team, by the rank of the first kick
+ *
+ * Usage: HandQueries --convert <match log dir> <archive dir>
+ *        HandQueries <archive dir> [threads]
+ */
+
+public final class HandQueries {
+    private HandQueries() {
+    }
+
+    public static final class RunPackOutcome extends HandQuery<RunPackOutcome> {
+        private static final long RUN_BITS = HandRecord.field(HandRecord.RUNS, 2);
+        private static final long ABORTED_BIT = 1L << HandRecord.ABORTED;
+
+        private long hands;
+        private long handWins;
+        private long matchWins;
+
+        // Skip segments where the pack was never run, or every hand was thrown in
+        @Override
+        public boolean mayMatch(long anyBits, long allBits) {
+            return (anyBits & RUN_BITS) != 0 && (allBits & ABORTED_BIT) == 0;
+        }
+
+        @Override
+        public boolean test(long hand) {
+            return (hand & RUN_BITS) != 0 && (hand & ABORTED_BIT) == 0;
+        }
+
+        @Override
+        public void add(long hand) {
+            int beggingTeam = HandRecord.beggar(hand) & 1;
+            hands++;
+            if (HandRecord.chalk(hand, beggingTeam) > HandRecord.chalk(hand, 1 - beggingTeam)) {
+                handWins++;
+            }
+            if (HandRecord.matchWinner(hand) == beggingTeam) {
+                matchWins++;
+            }
+        }
+
+        @Override
+        public RunPackOutcome newPartial() {
+            return new RunPackOutcome();
+        }
+
+        @Override
+        protected void mergeFrom(RunPackOutcome other) {
+            hands += other.hands;
+            handWins += other.handWins;
+            matchWins += other.matchWins;
+        }
+
+        public long getHands() {
+            return hands;
+        }
+
+        public double getHandWinRate() {
+            return hands == 0 ? 0 : (double) handWins / hands;
+        }
+
+        public double getMatchWinRate() {
+            return hands == 0 ? 0 : (double) matchWins / hands;
+        }
+
+        @Override
+        public void report(PrintStream out) {
+            out.println("Pack run after a beg: " + hands + " hands; beggar's team outscores the dealer's in "
+                    + percent(getHandWinRate()) + ", wins the match " + percent(getMatchWinRate()));
+        }
+    }
+
+    public static final class HangJackBySeat extends HandQuery<HangJackBySeat> {
+        private static final long JACK_SEAT_BITS = HandRecord.field(HandRecord.JACK_SEAT, 3);
+
+        private final long[] played = new long[4];
+        private final long[] hung = new long[4];
+
+        // Skip segments where the Jack of trump was never dealt
+        @Override
+        public boolean mayMatch(long anyBits, long allBits) {
+            return (allBits & JACK_SEAT_BITS) != JACK_SEAT_BITS;
+        }
+
+        @Override
+        public boolean test(long hand) {
+            return HandRecord.jackSeat(hand) != HandRecord.NO_JACK;
+        }
+
+        @Override
+        public void add(long hand) {
+            int seat = HandRecord.jackSeat(hand);
+            played[seat]++;
+            if (HandRecord.jackHung(hand)) {
+                hung[seat]++;
+            }
+        }
+
+        @Override
+        public HangJackBySeat newPartial() {
+            return new HangJackBySeat();
+        }
+
+        @Override
+        protected void mergeFrom(HangJackBySeat other) {
+            for (int seat = 0; seat < 4; seat++) {
+                played[seat] += other.played[seat];
+                hung[seat] += other.hung[seat];
+            }
+        }
+
+        public double getHangRate(int seat) {
+            return played[seat] == 0 ? 0 : (double) hung[seat] / played[seat];
+        }
+
+        @Override
+        public void report(PrintStream out) {
+            out.print("Jack hung, by seat playing it:");
+            for (int seat = 0; seat < 4; seat++) {
+                out.print(" " + (seat + 1) + ": " + percent(getHangRate(seat)) + " of " + played[seat]);
+            }
+            out.println();
+        }
+    }
+
+    public static final class KickChalkByRank extends HandQuery<KickChalkByRank> {
+        private final long[] hands = new long[Card.NUM_RANKS];
+        private final long[] dealerChalk = new long[Card.NUM_RANKS];
+        private final long[] otherChalk = new long[Card.NUM_RANKS];
+
+        @Override
+        public boolean test(long hand) {
+            return true;
+        }
+
+        @Override
+        public void add(long hand) {
+            int rank = HandRecord.kickRank(hand);
+            int dealerTeam = HandRecord.dealer(hand) & 1;
+            hands[rank]++;
+            dealerChalk[rank] += HandRecord.chalk(hand, dealerTeam);
+            otherChalk[rank] += HandRecord.chalk(hand, 1 - dealerTeam);
+        }
+
+        @Override
+        public KickChalkByRank newPartial() {
+            return new KickChalkByRank();
+        }
+
+        @Override
+        protected void mergeFrom(KickChalkByRank other) {
+            for (int rank = 0; rank < Card.NUM_RANKS; rank++) {
+                hands[rank] += other.hands[rank];
+                dealerChalk[rank] += other.dealerChalk[rank];
+                otherChalk[rank] += other.otherChalk[rank];
+            }
+        }
+
+        public double getDealerChalk(int rank) {
+            return hands[rank] == 0 ? 0 : (double) dealerChalk[rank] / hands[rank];
+        }
+
+        public double getOtherChalk(int rank) {
+            return hands[rank] == 0 ? 0 : (double) otherChalk[rank] / hands[rank];
+        }
+
+        @Override
+        public void report(PrintStream out) {
+            out.println("Chalk per hand by first kick (dealer's team / other team):");
+            for (int rank = 0; rank < Card.NUM_RANKS; rank++) {
+                out.println(String.format("  %-5s %.3f / %.3f  (%d hands)",
+                        Card.RANKS[rank], getDealerChalk(rank), getOtherChalk(rank), hands[rank]));
+            }
+        }
+    }
+
+    private static String percent(double rate) {
+        return String.format("%.2f%%", rate * 100);
+    }
+
+    // Replays every match of a MatchLog into a HandArchive
+    public static long convert(Path matchLog, Path archiveDirectory) throws IOException {
+        try (HandArchive archive = new HandArchive(archiveDirectory)) {
+            HandArchiver archiver = new HandArchiver(archive);
+            long[] matches = {0};
+            MatchLog.scan(matchLog, record -> {
+                MatchReplayer.replay(record, Integer.MAX_VALUE, archiver);
+                matches[0]++;
+            });
+            return matches[0];
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 3 && args[0].equals("--convert")) {
+            long matches = convert(Paths.get(args[1]), Paths.get(args[2]));
+            System.out.println("Archived the hands of " + matches + " matches.");
+            return;
+        }
+        if (args.length < 1) {
+            System.out.println("Usage: HandQueries --convert <match log dir> <archive dir>");
+            System.out.println("       HandQueries <archive dir> [threads]");
+            return;
+        }
+
+        Path directory = Paths.get(args[0]);
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        HandQuery<?>[] queries = {new RunPackOutcome(), new HangJackBySeat(), new KickChalkByRank()};
+        for (HandQuery<?> query : queries) {
+            long start = System.nanoTime();
+            run(directory, query, pool);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            query.report(System.out);
+            long hands = query.getHandsScanned() + query.getHandsSkipped();
+            System.out.println("  " + hands + " hands (" + query.getSegmentsSkipped() + " of "
+                    + (query.getSegmentsScanned() + query.getSegmentsSkipped()) + " segments skipped) in "
+                    + String.format("%.3f s, %.1f M hands/sec", seconds, hands / seconds / 1e6));
+        }
+        pool.shutdown();
+    }
+
+    private static <Q extends HandQuery<Q>> void run(Path directory, HandQuery<Q> query, ForkJoinPool pool)
+            throws IOException {
+        @SuppressWarnings("unchecked")
+        Q typed = (Q) query;
+        HandArchive.scan(directory, typed, pool);
+    }
+}
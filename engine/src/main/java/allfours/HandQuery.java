@@ -0,0 +1,79 @@
+package allfours;
+
+import java.io.PrintStream;
+
+/*
+ * A filter and an aggregate over HandRecords, run by HandArchive.scan().
+ *
+ * Each segment is scanned into its own partial (newPartial()) on whichever
+ * thread picks it up, and partials are merged pairwise, so implementations
+ * need no synchronisation: add() and mergeFrom() only ever touch one
+ * partial at a time.
+ *
+ * Methods:
+ * - mayMatch(anyBits, allBits): false if no hand of a segment whose hands OR
+ *   to anyBits and AND to allBits can pass the filter; the segment is skipped
+ * - test(hand): the filter
+ * - add(hand): folds a hand that passed into the aggregate
+ * - newPartial(): an empty query of the same kind
+ * - mergeFrom(other): adds another partial's aggregate into this one
+ * - report(out): prints the result
+ */
+
+public abstract class HandQuery<Q extends HandQuery<Q>> {
+    private long handsScanned;
+    private long handsSkipped;
+    private int segmentsScanned;
+    private int segmentsSkipped;
+
+    public boolean mayMatch(long anyBits, long allBits) {
+        return true;
+    }
+
+    public abstract boolean test(long hand);
+
+    public abstract void add(long hand);
+
+    public abstract Q newPartial();
+
+    protected abstract void mergeFrom(Q other);
+
+    public abstract void report(PrintStream out);
+
+    public final void merge(Q other) {
+        HandQuery<Q> partial = other;
+        handsScanned += partial.handsScanned;
+        handsSkipped += partial.handsSkipped;
+        segmentsScanned += partial.segmentsScanned;
+        segmentsSkipped += partial.segmentsSkipped;
+        mergeFrom(other);
+    }
+
+    void segmentScanned(int hands) {
+        handsScanned += hands;
+        segmentsScanned++;
+    }
+
+    void segmentSkipped(int hands) {
+        handsSkipped += hands;
+        segmentsSkipped++;
+    }
+
+    // Hands read from segments that could not be skipped
+    public long getHandsScanned() {
+        return handsScanned;
+    }
+
+    // Hands in segments skipped on their summary alone
+    public long getHandsSkipped() {
+        return handsSkipped;
+    }
+
+    public int getSegmentsScanned() {
+        return segmentsScanned;
+    }
+
+    public int getSegmentsSkipped() {
+        return segmentsSkipped;
+    }
+}
@@ -0,0 +1,112 @@
+package allfours;
+
+/*
+ * One played hand (round) packed into a long, the row format of a HandArchive.
+ * Team 0 is Team A (seats 0 and 2), team 1 is Team B.
+ *
+ * Bits:
+ * - 0-1    dealer's seat (the beggar sits to the dealer's right)
+ * - 2-5    rank index of the first kicked card
+ * - 6      the beggar begged
+ * - 7      the dealer gave a chalk
+ * - 8-9    times the pack was run (0-2)
+ * - 10     the pack ran out and the hand was thrown in
+ * - 11-13  seat that played the Jack of trump, or 7 if it was not dealt
+ * - 14     the Jack was hung
+ * - 15-19  chalk team A scored in the hand (kicks, give, High, Low, Jack, Game)
+ * - 20-24  chalk team B scored in the hand
+ * - 25-28  team A's match score before the hand
+ * - 29-32  team B's match score before the hand
+ * - 33     team that went on to win the match
+ * - 34     last hand of the match
+ * - 35-41  game points team A took
+ * - 42-48  game points team B took
+ * - 49-50  trump suit the hand was played in
+ */
+
+public final class HandRecord {
+    public static final int NO_JACK = 7;
+
+    static final int DEALER = 0;
+    static final int KICK_RANK = 2;
+    static final int BEGGED = 6;
+    static final int GAVE = 7;
+    static final int RUNS = 8;
+    static final int ABORTED = 10;
+    static final int JACK_SEAT = 11;
+    static final int JACK_HUNG = 14;
+    static final int CHALK = 15;          // Team A; team B at CHALK + 5
+    static final int SCORE_BEFORE = 25;   // Team A; team B at SCORE_BEFORE + 4
+    static final int MATCH_WINNER = 33;
+    static final int LAST_HAND = 34;
+    static final int GAME_POINTS = 35;    // Team A; team B at GAME_POINTS + 7
+    static final int TRUMP = 49;
+
+    private HandRecord() {
+    }
+
+    // The mask of a field: width bits from shift
+    public static long field(int shift, int width) {
+        return ((1L << width) - 1) << shift;
+    }
+
+    public static int dealer(long hand) {
+        return (int) (hand >>> DEALER) & 3;
+    }
+
+    public static int beggar(long hand) {
+        return (dealer(hand) + 3) % 4;
+    }
+
+    public static int kickRank(long hand) {
+        return (int) (hand >>> KICK_RANK) & 0xF;
+    }
+
+    public static boolean begged(long hand) {
+        return (hand & (1L << BEGGED)) != 0;
+    }
+
+    public static boolean gave(long hand) {
+        return (hand & (1L << GAVE)) != 0;
+    }
+
+    public static int runs(long hand) {
+        return (int) (hand >>> RUNS) & 3;
+    }
+
+    public static boolean aborted(long hand) {
+        return (hand & (1L << ABORTED)) != 0;
+    }
+
+    public static int jackSeat(long hand) {
+        return (int) (hand >>> JACK_SEAT) & 7;
+    }
+
+    public static boolean jackHung(long hand) {
+        return (hand & (1L << JACK_HUNG)) != 0;
+    }
+
+    public static int chalk(long hand, int team) {
+        return (int) (hand >>> (CHALK + 5 * team)) & 0x1F;
+    }
+
+    public static int scoreBefore(long hand, int team) {
+        return (int) (hand >>> (SCORE_BEFORE + 4 * team)) & 0xF;
+    }
+
+    public static int matchWinner(long hand) {
+        return (int) (hand >>> MATCH_WINNER) & 1;
+    }
+
+    public static boolean lastHand(long hand) {
+        return (hand & (1L << LAST_HAND)) != 0;
+    }
+
+    public static int gamePoints(long hand, int team) {
+        return (int) (hand >>> (GAME_POINTS + 7 * team)) & 0x7F;
+    }
+
+    public static int trump(long hand) {
+        return (int) (hand >>> TRUMP) & 3;
+    }
+}
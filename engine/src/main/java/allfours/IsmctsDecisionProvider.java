@@ -0,0 +1,782 @@
+package allfours;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.random.RandomGenerator;
+
+/*
+ * Computer player: Information-Set Monte Carlo Tree Search within a hard
+ * time budget per decision.
+ *
+ * The bot only knows what its seat could know: its own hand, the kicked
+ * cards, every card played so far and the suits each opponent has shown
+ * out of. Each iteration deals the unseen cards to the other seats at
+ * random, consistent with those voids (a determinization), then walks a
+ * single tree shared by all determinizations (SO-ISMCTS): children are
+ * chosen by UCB over the moves legal in that deal, with each child's
+ * availability counted as its number of trials. A random playout finishes
+ * the round and the Jack + Game chalk margin is backed up.
+ *
+ * Begging decisions (beg or stand, give or run the pack) are evaluated the
+ * same way, flat: each determinization plays out standing, giving and
+ * running the pack (dealing on from the unseen cards) and the dealer is
+ * assumed to answer a beg with whichever is worse for the beggar. Giving
+ * a team its 14th chalk, or kicking the dealer's team to 14, counts as
+ * deciding the match.
+ *
+ * The search runs on the calling thread plus (threads - 1) helpers from
+ * the executor, all sharing one tree. Each node is guarded by its own lock
+ * and a thread descending through a child adds a virtual loss to it, so
+ * concurrent threads spread over different lines. Every thread stops at
+ * the deadline; the caller does not wait for helpers, so a decision never
+ * takes much longer than the budget even on a saturated executor.
+ *
+ * With a DecisionCache set, the decisions that recur across matches are
+ * searched once per situation up to suit relabelling (SuitIsomorphism):
+ * begging, giving, and the first lead of a hand before anything is played.
+ * The key is the canonical hand and kicked cards, the seat's place
+ * relative to the dealer and, for begging, how much chalk each team still
+ * needs: 1, 2 or 3 (a kick or a give can end the match) or more.
+ * Scores further from 14 share an answer, since no single kick or chalk
+ * decides the match there.
+ *
+ * The bot learns the play as a GameListener: GameController registers
+ * seats whose provider is a listener automatically. Use one instance per
+ * seat; an instance is driven from the game's thread.
+ */
+
+public class IsmctsDecisionProvider implements DecisionProvider, GameListener {
+    public static final long DEFAULT_BUDGET_MILLIS = 50;
+
+    private static final double EXPLORATION = 0.7;
+    private static final int VIRTUAL_LOSS = 1;
+    private static final int MAX_SAMPLE_ATTEMPTS = 16;
+    private static final int MAX_PLIES = 4 * 12;
+    private static final int MATCH_CHALK = 14;
+    private static final int MAX_KICK_CHALK = 3;
+
+    // Kinds of cached decision, in the top bits of the second cache key
+    private static final int CACHED_BEG = 0;
+    private static final int CACHED_GIVE = 1;
+    private static final int CACHED_LEAD = 2;
+
+    private final RandomGenerator rng;
+    private final long budgetNanos;
+    private final int threads;
+    private final int maxIterations;
+    private final Executor helpers;
+    private DecisionCache cache;
+
+    // What the seat has seen of the current round
+    private List<Player> players;
+    private Player dealer;
+    private int trump = -1;
+    private long kicked;          // Kicked cards: face up, in nobody's hand
+    private long played;          // Cards played to tricks
+    private final long[] voids = new long[4]; // Cards each seat is known not to hold
+    private int trickSize;
+    private final int[] trickSeats = new int[4];
+    private final int[] trickCards = new int[4];
+    private int gamePointMargin;  // Team A minus Team B, completed tricks
+    private int jackMargin;       // Team A minus Team B, once the Jack is resolved
+    private final Team[] teams = new Team[2]; // Teams seen in events, for the match score
+
+    private int lastIterations;
+
+    public IsmctsDecisionProvider() {
+        this(new SplittableRandom());
+    }
+
+    public IsmctsDecisionProvider(RandomGenerator rng) {
+        this(rng, DEFAULT_BUDGET_MILLIS, Runtime.getRuntime().availableProcessors());
+    }
+
+    public IsmctsDecisionProvider(RandomGenerator rng, long budgetMillis, int threads) {
+        this(rng, budgetMillis, threads, 0, ForkJoinPool.commonPool());
+    }
+
+    /*
+     * @param rng Seeds every search thread; with one thread and an iteration cap the bot is deterministic
+     * @param budgetMillis Time allowed per decision, or 0 for no time limit
+     * @param threads Searching threads, counting the caller
+     * @param maxIterations Determinizations per decision, or 0 for no limit
+     * @param helpers Runs the extra search threads; may be shared between bots
+     */
+    public IsmctsDecisionProvider(RandomGenerator rng, long budgetMillis, int threads, int maxIterations,
+            Executor helpers) {
+        if (budgetMillis < 0 || maxIterations < 0) {
+            throw new IllegalArgumentException("Budget and iteration cap cannot be negative");
+        }
+        if (budgetMillis == 0 && maxIterations == 0) {
+            throw new IllegalArgumentException("A search needs a time budget or an iteration cap");
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one search thread is needed: " + threads);
+        }
+        this.rng = rng;
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+        this.threads = threads;
+        this.maxIterations = maxIterations;
+        this.helpers = helpers;
+    }
+
+    // Shares searched decisions through a cache, or stops sharing with null
+    public void setCache(DecisionCache cache) {
+        this.cache = cache;
+    }
+
+    // Determinizations completed by the calling thread and any helpers that finished in time, last decision
+    public int getLastIterations() {
+        return lastIterations;
+    }
+
+    @Override
+    public Card chooseCard(Player player, String leadSuit, String trumpSuit, List<Card> playedCards) {
+        long legal = player.legalMoves(leadSuit, trumpSuit, playedCards);
+        if (Long.bitCount(legal) == 1) {
+            lastIterations = 0; // Nothing to search
+            return CardSet.first(legal);
+        }
+
+        int seat = seatOf(player);
+        boolean cacheable = cache != null && played == 0 && trickSize == 0;
+        int permutation = 0;
+        long keyA = 0;
+        long keyB = 0;
+        if (cacheable) {
+            permutation = SuitIsomorphism.permutation(player.getHandMask(), kicked, trump);
+            keyA = SuitIsomorphism.apply(player.getHandMask(), permutation);
+            keyB = cacheKey(CACHED_LEAD, seat, 0, 0, permutation);
+            int cached = cache.get(keyA, keyB);
+            if (cached != DecisionCache.MISS) {
+                lastIterations = 0;
+                return Card.of(SuitIsomorphism.applyCard(cached, SuitIsomorphism.inverse(permutation)));
+            }
+        }
+
+        // Our hand and the trick so far; the other hands are filled in per determinization
+        long[] known = new long[4];
+        known[seat] = player.getHandMask();
+        for (int i = 0; i < trickSize; i++) {
+            known[trickSeats[i]] |= 1L << trickCards[i];
+        }
+        GameState root = new GameState(false);
+        root.reset(known, Card.suitIndexOf(trumpSuit), trickSize == 0 ? seat : trickSeats[0], dealerSeat());
+        root.setScores(gamePointMargin, jackMargin);
+        for (int i = 0; i < trickSize; i++) {
+            root.makeMove(trickCards[i]);
+        }
+
+        int[] need = new int[4];
+        for (int s = 0; s < 4; s++) {
+            int size = players.get(s).getHand().size();
+            if (s != seat) {
+                need[s] = size;
+            }
+        }
+        long unseen = CardSet.ALL & ~player.getHandMask() & ~played & ~kicked;
+
+        TreeSearch search = new TreeSearch(root, seat, unseen, need, voids.clone());
+        run(search);
+
+        Node best = null;
+        synchronized (search.root) {
+            for (int i = 0; i < search.root.childCount; i++) {
+                Node child = search.root.children[i];
+                if (best == null || child.visits > best.visits) {
+                    best = child;
+                }
+            }
+        }
+        Card chosen = best == null ? CardSet.first(legal) : Card.of(best.card);
+        if (cacheable) {
+            cache.put(keyA, keyB, SuitIsomorphism.applyCard(chosen.getOrdinal(), permutation));
+        }
+        return chosen;
+    }
+
+    @Override
+    public boolean wantsToBeg(Player player, Card kickedCard) {
+        int seat = seatOf(player);
+        int cached = cachedBegging(CACHED_BEG, player, seat);
+        if (cached != DecisionCache.MISS) {
+            return cached != 0;
+        }
+        BegSearch search = begSearch(player, seat);
+        // The dealer's team answers with whichever of give or run suits them best
+        double stand = search.mean(search.stand, seat);
+        double beg = Math.min(search.mean(search.give, seat), search.mean(search.run, seat));
+        cacheBegging(CACHED_BEG, player, seat, beg > stand);
+        return beg > stand;
+    }
+
+    @Override
+    public boolean givesChalk(Player dealer, Card kickedCard) {
+        int seat = seatOf(dealer);
+        int cached = cachedBegging(CACHED_GIVE, dealer, seat);
+        if (cached != DecisionCache.MISS) {
+            return cached != 0;
+        }
+        BegSearch search = begSearch(dealer, seat);
+        boolean gives = search.mean(search.give, seat) >= search.mean(search.run, seat);
+        cacheBegging(CACHED_GIVE, dealer, seat, gives);
+        return gives;
+    }
+
+    // The cached beg or give answer (0 or 1) for the player's situation, or MISS
+    private int cachedBegging(int kind, Player player, int seat) {
+        if (cache == null) {
+            return DecisionCache.MISS;
+        }
+        int permutation = SuitIsomorphism.permutation(player.getHandMask(), kicked, trump);
+        int cached = cache.get(SuitIsomorphism.apply(player.getHandMask(), permutation), begKey(kind, seat, permutation));
+        if (cached != DecisionCache.MISS) {
+            lastIterations = 0;
+        }
+        return cached;
+    }
+
+    private void cacheBegging(int kind, Player player, int seat, boolean answer) {
+        if (cache != null) {
+            int permutation = SuitIsomorphism.permutation(player.getHandMask(), kicked, trump);
+            cache.put(SuitIsomorphism.apply(player.getHandMask(), permutation), begKey(kind, seat, permutation),
+                    answer ? 1 : 0);
+        }
+    }
+
+    private long begKey(int kind, int seat, int permutation) {
+        int dealerSeat = dealerSeat();
+        return cacheKey(kind, seat, chalkNeeded(dealerSeat & 1), chalkNeeded(1 - (dealerSeat & 1)), permutation);
+    }
+
+    // Chalk the team needs to win the match, with everything out of reach of one kick counted alike
+    private int chalkNeeded(int team) {
+        return Math.min(MATCH_CHALK - matchScore(team), MAX_KICK_CHALK + 1);
+    }
+
+    /*
+     * Second half of a cache key: the canonical kicked cards in the low 52 bits, then
+     * the kind of decision (2 bits), the seat counted from the dealer (2 bits) and the
+     * chalk the dealer's and the other team need (chalkNeeded, 3 bits each)
+     */
+    private long cacheKey(int kind, int seat, int dealerNeeds, int otherNeeds, int permutation) {
+        int fromDealer = (seat - dealerSeat() + 4) & 3;
+        long extras = kind | fromDealer << 2 | dealerNeeds << 4 | otherNeeds << 7;
+        return SuitIsomorphism.apply(kicked, permutation) | extras << Card.NUM_CARDS;
+    }
+
+    private BegSearch begSearch(Player player, int seat) {
+        int dealerSeat = dealerSeat();
+        long unseen = CardSet.ALL & ~player.getHandMask() & ~kicked;
+        int[] need = new int[4];
+        for (int s = 0; s < 4; s++) {
+            if (s != seat) {
+                need[s] = player.getHand().size();
+            }
+        }
+        BegSearch search = new BegSearch(seat, player.getHandMask(), unseen, need, dealerSeat, trump,
+                matchScore(dealerSeat & 1), matchScore(1 - (dealerSeat & 1)));
+        run(search);
+        return search;
+    }
+
+    // Searches on this thread and (threads - 1) helpers until the deadline or iteration cap
+    private void run(Search search) {
+        search.deadline = budgetNanos == 0 ? Long.MAX_VALUE : System.nanoTime() + budgetNanos;
+        for (int t = 1; t < threads; t++) {
+            long seed = rng.nextLong();
+            helpers.execute(() -> search.run(new Worker(seed)));
+        }
+        search.run(new Worker(rng.nextLong()));
+        search.stopped = true; // Helpers still running stop at their next iteration
+        lastIterations = search.completed.get();
+    }
+
+    private int seatOf(Player player) {
+        if (players == null) {
+            throw new IllegalStateException("The ISMCTS bot has not seen the deal; register it as a GameListener");
+        }
+        return players.indexOf(player);
+    }
+
+    private int dealerSeat() {
+        return players.indexOf(dealer);
+    }
+
+    private int matchScore(int team) {
+        for (Team t : teams) {
+            if (t != null && (players.indexOf(t.getPlayer1()) & 1) == team) {
+                return t.getMatchScore();
+            }
+        }
+        return 0; // No event has named the team yet, so it has not scored
+    }
+
+    private void noteTeam(Team team) {
+        if (teams[0] == null || teams[0] == team) {
+            teams[0] = team;
+        } else {
+            teams[1] = team;
+        }
+    }
+
+    // Following the play
+
+    @Override
+    public void roundStarted(Player dealer) {
+        this.dealer = dealer;
+        trump = -1;
+        kicked = 0;
+        played = 0;
+        for (int seat = 0; seat < 4; seat++) {
+            voids[seat] = 0;
+        }
+        trickSize = 0;
+        gamePointMargin = 0;
+        jackMargin = 0;
+    }
+
+    // A restored match: rebuild what following the hand would have shown, minus the voids it revealed
+    @Override
+    public void handResumed(GameController game) {
+        roundStarted(game.getCurrentDealer());
+        players = game.getPlayers();
+        Team teamA = game.getTeamA();
+        Team teamB = game.getTeamB();
+        noteTeam(teamA);
+        noteTeam(teamB);
+        Round round = game.getCurrentRound();
+        trump = Card.suitIndexOf(round.getTrumpSuit());
+        gamePointMargin = teamA.getGameScore() - teamB.getGameScore();
+        if (round.getTeamRanJack() != null) {
+            jackMargin = round.getTeamRanJack() == teamA ? 1 : -1;
+        } else if (round.getTeamHungJack() != null) {
+            jackMargin = round.getTeamHungJack() == teamA ? 3 : -3;
+        }
+
+        // Whatever is in no hand and not on the table is out of play: earlier tricks, kicks, the undealt pack
+        Trick trick = round.getTrick();
+        List<Card> trickCards = trick.getPlayedCards();
+        long inPlay = CardSet.of(trickCards);
+        for (int seat = 0; seat < 4; seat++) {
+            inPlay |= players.get(seat).getHandMask();
+        }
+        played = CardSet.ALL & ~inPlay;
+        int[] order = Trick.PLAY_ORDER[trick.getLeaderSeat()];
+        for (int i = 0; i < trickCards.size(); i++) {
+            cardPlayed(players.get(order[i]), trickCards.get(i));
+        }
+    }
+
+    @Override
+    public void handsDealt(List<Player> players) {
+        this.players = players;
+    }
+
+    @Override
+    public void cardKicked(Card kickedCard, boolean runningPack) {
+        kicked |= CardSet.bit(kickedCard);
+        trump = kickedCard.getSuitIndex();
+    }
+
+    @Override
+    public void kickChalk(Team dealerTeam, int chalk) {
+        noteTeam(dealerTeam);
+    }
+
+    @Override
+    public void chalkGiven(Team beggingTeam) {
+        noteTeam(beggingTeam);
+    }
+
+    @Override
+    public void roundFinished(Team teamA, Team teamB) {
+        noteTeam(teamA);
+        noteTeam(teamB);
+    }
+
+    @Override
+    public void trickStarted(int trickNumber, Player leader) {
+        trickSize = 0;
+    }
+
+    @Override
+    public void cardPlayed(Player player, Card card) {
+        int seat = players.indexOf(player);
+        int ordinal = card.getOrdinal();
+        int suit = card.getSuitIndex();
+        if (trickSize > 0) {
+            int lead = trickCards[0] / Card.NUM_RANKS;
+            if (suit != lead && suit != trump) {
+                voids[seat] |= CardSet.suit(lead); // Neither followed nor trumped
+            } else if (suit == trump && lead != trump && undertrumps(ordinal)) {
+                voids[seat] |= CardSet.ALL & ~CardSet.suit(trump); // Undertrumping means only trump was left
+            }
+        }
+        trickSeats[trickSize] = seat;
+        trickCards[trickSize] = ordinal;
+        trickSize++;
+        played |= 1L << ordinal;
+    }
+
+    private boolean undertrumps(int ordinal) {
+        for (int i = 0; i < trickSize; i++) {
+            if (trickCards[i] / Card.NUM_RANKS == trump && trickCards[i] > ordinal) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void trickWon(Player winner, int points) {
+        gamePointMargin += (players.indexOf(winner) & 1) == 0 ? points : -points;
+    }
+
+    @Override
+    public void jackPlayed(Player jackPlayer, boolean hung) {
+        int jackTeam = players.indexOf(jackPlayer) & 1;
+        int scoringTeam = hung ? 1 - jackTeam : jackTeam;
+        int chalk = hung ? 3 : 1;
+        jackMargin += scoringTeam == 0 ? chalk : -chalk;
+    }
+
+    /*
+     * Deals the hidden cards: need[seat] cards from unseen to each seat, avoiding its voids.
+     * Seats are filled most constrained first; after repeated failures the voids are ignored.
+     *
+     * @return The unseen cards left over, i.e. the rest of the pack
+     */
+    static long determinize(long[] hands, long unseen, int[] need, long[] voids, int[] order,
+            SplittableRandom rng) {
+        for (int attempt = 0; attempt <= MAX_SAMPLE_ATTEMPTS; attempt++) {
+            boolean useVoids = attempt < MAX_SAMPLE_ATTEMPTS;
+            long pool = unseen;
+            boolean dealt = true;
+            for (int seat : order) {
+                if (need[seat] == 0) continue;
+                long allowed = useVoids ? pool & ~voids[seat] : pool;
+                if (Long.bitCount(allowed) < need[seat]) {
+                    dealt = false;
+                    break;
+                }
+                long hand = pick(allowed, need[seat], rng);
+                hands[seat] = hand;
+                pool &= ~hand;
+            }
+            if (dealt) {
+                return pool;
+            }
+        }
+        throw new IllegalStateException("Not enough unseen cards to fill the other hands");
+    }
+
+    // k cards drawn uniformly from mask
+    static long pick(long mask, int k, SplittableRandom rng) {
+        long chosen = 0;
+        for (int n = Long.bitCount(mask); k > 0; k--, n--) {
+            long bit = 1L << CardSet.select(mask, rng.nextInt(n));
+            chosen |= bit;
+            mask &= ~bit;
+        }
+        return chosen;
+    }
+
+    // Seats ordered by how few cards they may hold relative to how many they need
+    private static int[] constrainedFirst(long unseen, int[] need, long[] voids) {
+        Integer[] seats = {0, 1, 2, 3};
+        Arrays.sort(seats, (a, b) -> Integer.compare(
+                Long.bitCount(unseen & ~voids[a]) - need[a], Long.bitCount(unseen & ~voids[b]) - need[b]));
+        int[] order = new int[4];
+        for (int i = 0; i < 4; i++) {
+            order[i] = seats[i];
+        }
+        return order;
+    }
+
+    // High and Low chalk margin for Team A, from the hands as dealt
+    private static int highLowMargin(long[] hands, int trump) {
+        long trumps = (hands[0] | hands[1] | hands[2] | hands[3]) & CardSet.suit(trump);
+        if (trumps == 0) return 0;
+        long high = Long.highestOneBit(trumps);
+        long low = Long.lowestOneBit(trumps);
+        int margin = 0;
+        for (int seat = 0; seat < 4; seat++) {
+            int sign = (seat & 1) == 0 ? 1 : -1;
+            if ((hands[seat] & high) != 0) margin += sign;
+            if ((hands[seat] & low) != 0) margin += sign;
+        }
+        return margin;
+    }
+
+    // Per-thread scratch space
+    private static final class Worker {
+        final SplittableRandom rng;
+        final GameState state = new GameState(false);
+        final long[] hands = new long[4];
+        final long[] runHands = new long[4];
+        final Node[] path = new Node[MAX_PLIES + 1];
+        int iterations;
+
+        Worker(long seed) {
+            rng = new SplittableRandom(seed);
+        }
+
+        // Plays the round out with uniformly random legal cards
+        void playOut(GameState state) {
+            while (!state.isOver()) {
+                long legal = state.legalMoves();
+                state.makeMove(CardSet.select(legal, rng.nextInt(Long.bitCount(legal))));
+            }
+        }
+    }
+
+    private abstract static class Search {
+        volatile long deadline;
+        volatile boolean stopped;
+        final int iterationCap;
+        final AtomicInteger started = new AtomicInteger();
+        final AtomicInteger completed = new AtomicInteger();
+
+        Search(int iterationCap) {
+            this.iterationCap = iterationCap;
+        }
+
+        void run(Worker worker) {
+            long end = deadline;
+            while (!stopped && System.nanoTime() < end) {
+                if (iterationCap > 0 && started.getAndIncrement() >= iterationCap) break;
+                iterate(worker);
+                worker.iterations++;
+            }
+            completed.addAndGet(worker.iterations);
+        }
+
+        abstract void iterate(Worker worker);
+    }
+
+    private final class TreeSearch extends Search {
+        final GameState rootState;
+        final Node root = new Node(-1, -1, null);
+        final int seat;
+        final long unseen;
+        final int[] need;
+        final long[] seatVoids;
+        final int[] order;
+
+        TreeSearch(GameState rootState, int seat, long unseen, int[] need, long[] seatVoids) {
+            super(maxIterations);
+            this.rootState = rootState;
+            this.seat = seat;
+            this.unseen = unseen;
+            this.need = need;
+            this.seatVoids = seatVoids;
+            this.order = constrainedFirst(unseen, need, seatVoids);
+        }
+
+        @Override
+        void iterate(Worker worker) {
+            GameState state = worker.state;
+            state.copyFrom(rootState);
+            determinize(worker.hands, unseen, need, seatVoids, order, worker.rng);
+            for (int s = 0; s < 4; s++) {
+                if (s != seat) {
+                    state.setHand(s, worker.hands[s]);
+                }
+            }
+
+            // Selection and expansion, adding a virtual loss along the way
+            Node node = root;
+            int depth = 0;
+            while (!state.isOver()) {
+                long legal = state.legalMoves();
+                Node child;
+                boolean expanded;
+                synchronized (node) {
+                    long untried = legal & ~node.childMask;
+                    expanded = untried != 0;
+                    child = expanded
+                            ? node.expand(CardSet.select(untried, worker.rng.nextInt(Long.bitCount(untried))),
+                                    state.getToMove())
+                            : node.select(legal);
+                    child.visits += VIRTUAL_LOSS;
+                }
+                worker.path[depth++] = child;
+                state.makeMove(child.card);
+                node = child;
+                if (expanded) break;
+            }
+
+            worker.playOut(state);
+            double rewardA = Math.min(1.0, Math.max(0.0, (state.getChalkMargin() + 5) / 10.0));
+
+            // Backpropagation, replacing each virtual loss with the real result
+            for (int i = 0; i < depth; i++) {
+                Node child = worker.path[i];
+                synchronized (child.parent) {
+                    child.visits += 1 - VIRTUAL_LOSS;
+                    child.reward += (child.seat & 1) == 0 ? rewardA : 1 - rewardA;
+                }
+            }
+        }
+    }
+
+    private final class BegSearch extends Search {
+        final int seat;
+        final long hand;
+        final long unseen;
+        final int[] need;
+        final long[] noVoids = new long[4];
+        final int[] order;
+        final int dealerSeat;
+        final int trump;
+        final int dealerTeamScore;
+        final int beggingTeamScore;
+
+        // Chalk margin sums for Team A
+        double stand;
+        double give;
+        double run;
+        int samples;
+
+        BegSearch(int seat, long hand, long unseen, int[] need, int dealerSeat, int trump,
+                int dealerTeamScore, int beggingTeamScore) {
+            super(maxIterations);
+            this.seat = seat;
+            this.hand = hand;
+            this.unseen = unseen;
+            this.need = need;
+            this.order = constrainedFirst(unseen, need, noVoids);
+            this.dealerSeat = dealerSeat;
+            this.trump = trump;
+            this.dealerTeamScore = dealerTeamScore;
+            this.beggingTeamScore = beggingTeamScore;
+        }
+
+        @Override
+        void iterate(Worker worker) {
+            long[] hands = worker.hands;
+            long pack = determinize(hands, unseen, need, noVoids, order, worker.rng);
+            hands[seat] = hand;
+            int dealerTeam = dealerSeat & 1;
+            int beggingTeam = 1 - dealerTeam;
+
+            int standValue = highLowMargin(hands, trump) + playRound(worker, hands, trump);
+            int giveValue = beggingTeamScore + 1 >= MATCH_CHALK
+                    ? teamValue(beggingTeam, MATCH_CHALK)
+                    : standValue + teamValue(beggingTeam, 1);
+            int runValue = runPack(worker, hands, pack, dealerTeam);
+
+            synchronized (this) {
+                stand += standValue;
+                give += giveValue;
+                run += runValue;
+                samples++;
+            }
+        }
+
+        // Deals three more each and kicks until trump changes, then plays the round
+        private int runPack(Worker worker, long[] hands, long pack, int dealerTeam) {
+            long[] runHands = worker.runHands;
+            System.arraycopy(hands, 0, runHands, 0, 4);
+            int kickChalk = 0;
+            int runTrump = trump;
+            while (true) {
+                if (Long.bitCount(pack) < 4 * 3 + 1) {
+                    return teamValue(dealerTeam, kickChalk); // Pack exhausted; the hand is thrown in
+                }
+                for (int s = 0; s < 4; s++) {
+                    long cards = pick(pack, 3, worker.rng);
+                    runHands[s] |= cards;
+                    pack &= ~cards;
+                }
+                int kick = CardSet.select(pack, worker.rng.nextInt(Long.bitCount(pack)));
+                pack &= ~(1L << kick);
+                kickChalk += Rules.kickChalk(kick % Card.NUM_RANKS);
+                if (dealerTeamScore + kickChalk >= MATCH_CHALK) {
+                    return teamValue(dealerTeam, MATCH_CHALK);
+                }
+                if (kick / Card.NUM_RANKS != runTrump) {
+                    runTrump = kick / Card.NUM_RANKS;
+                    break;
+                }
+            }
+            return teamValue(dealerTeam, kickChalk) + highLowMargin(runHands, runTrump)
+                    + playRound(worker, runHands, runTrump);
+        }
+
+        private int playRound(Worker worker, long[] hands, int roundTrump) {
+            GameState state = worker.state;
+            state.reset(hands, roundTrump, (dealerSeat + 3) % 4, dealerSeat); // The player to the dealer's right leads
+            worker.playOut(state);
+            return state.getChalkMargin();
+        }
+
+        private int teamValue(int team, int chalk) {
+            return team == 0 ? chalk : -chalk;
+        }
+
+        // Mean chalk margin of an option from the given seat's side
+        synchronized double mean(double sum, int forSeat) {
+            double mean = samples == 0 ? 0 : sum / samples;
+            return (forSeat & 1) == 0 ? mean : -mean;
+        }
+    }
+
+    /*
+     * Tree node: the card a seat played to reach it. Its statistics are
+     * guarded by the parent's lock, its children list by its own.
+     * reward is the sum of results from the point of view of seat's team.
+     */
+    private static final class Node {
+        final int card;
+        final int seat;
+        final Node parent;
+        Node[] children = new Node[4];
+        int childCount;
+        long childMask;
+        int visits;
+        int availability;
+        double reward;
+
+        Node(int card, int seat, Node parent) {
+            this.card = card;
+            this.seat = seat;
+            this.parent = parent;
+        }
+
+        Node expand(int card, int seat) {
+            Node child = new Node(card, seat, this);
+            if (childCount == children.length) {
+                children = Arrays.copyOf(children, childCount * 2);
+            }
+            children[childCount++] = child;
+            childMask |= 1L << card;
+            child.availability = 1;
+            return child;
+        }
+
+        // UCB over the children legal in this determinization, counting each as available
+        Node select(long legal) {
+            Node best = null;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < childCount; i++) {
+                Node child = children[i];
+                if ((legal & (1L << child.card)) == 0) continue;
+                child.availability++;
+                double score = child.reward / child.visits
+                        + EXPLORATION * Math.sqrt(Math.log(child.availability) / child.visits);
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = child;
+                }
+            }
+            return best;
+        }
+    }
+}
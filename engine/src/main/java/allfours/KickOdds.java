@@ -0,0 +1,235 @@
+package allfours;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/*
+ * Exact odds for the kick and for running the pack, counted over the
+ * cards still unseen rather than simulated.
+ *
+ * The pack is a uniform shuffle of the unseen cards, so the cards kicked
+ * on successive runs of the pack (after each three-card deal) are as
+ * likely as any draws without replacement from the unseen cards: the
+ * twelve cards dealt between kicks change nothing but how many runs the
+ * pack has left. Only the kicked cards then matter, and a run carries on
+ * only while the kick is trump, so the whole begging phase reduces to a
+ * walk over which trump cards have been kicked: which of the trump Ace, Six
+ * and Jack (the kicks that score, see Rules.kickChalk), and how many
+ * other trumps. Each run starts from one of those states, at most 8 * 14;
+ * a table of the chance of reaching each state, filled in kick order,
+ * gives every outcome in a few hundred multiply-adds.
+ *
+ * Outcomes of running the pack, as Round.beggingPhase() plays it:
+ * - trump changes on run k, and the hand goes on
+ * - a kick takes the dealer's team to 14 chalk and the match ends
+ * - the pack runs out (fewer than 13 cards, a deal and a kick, left before
+ *   a run) and the hand is thrown in
+ */
+
+public final class KickOdds {
+    private static final int CARDS_PER_RUN = 4 * 3 + 1; // A three-card deal to each seat and a kick
+    private static final int MATCH_CHALK = 14;
+    private static final int MAX_CHALK = 3;
+
+    // Trump ranks worth chalk when kicked, one state bit each
+    private static final int[] CHALK_RANKS = {Card.ACE, Card.SIX, Card.JACK};
+
+    private final double[] nextKick = new double[MAX_CHALK + 1];
+    private final double[] changed; // changed[k]: trump changes on run k + 1
+    private double matchWon;
+    private double exhausted;
+    private double expectedChalk;
+
+    private KickOdds(int runs) {
+        this.changed = new double[runs];
+    }
+
+    // Odds from the round's own view: the cards left in the deck, in unknown order
+    public static KickOdds of(Round round) {
+        Deck deck = round.getDeck();
+        return of(deck.getRemaining(), deck.cardsRemaining(), round.getTrumpIndex(),
+                MATCH_CHALK - round.getDealerTeam().getMatchScore());
+    }
+
+    // Odds from one player's view: every card but their hand and the kicks so far is unseen
+    public static KickOdds of(Round round, Player viewer) {
+        Deck deck = round.getDeck();
+        long kicked = CardSet.ALL & ~deck.getRemaining() & ~deck.getDealt();
+        return of(CardSet.ALL & ~viewer.getHandMask() & ~kicked, deck.cardsRemaining(), round.getTrumpIndex(),
+                MATCH_CHALK - round.getDealerTeam().getMatchScore());
+    }
+
+    /*
+     * @param unseen The cards the pack is drawn from
+     * @param packSize How many of them are in the pack
+     * @param trumpIndex The trump suit a run of the pack has to change
+     * @param chalkToWin Chalk the dealer's team still needs to win the match
+     */
+    public static KickOdds of(long unseen, int packSize, int trumpIndex, int chalkToWin) {
+        int unseenCount = CardSet.size(unseen);
+        if (packSize < 0 || packSize > unseenCount) {
+            throw new IllegalArgumentException("Pack of " + packSize + " from " + unseenCount + " unseen cards");
+        }
+        if (trumpIndex < 0 || trumpIndex >= Card.NUM_SUITS || chalkToWin < 1) {
+            throw new IllegalArgumentException("Trump " + trumpIndex + ", chalk to win " + chalkToWin);
+        }
+
+        KickOdds odds = new KickOdds(packSize / CARDS_PER_RUN);
+        long trumps = unseen & CardSet.suit(trumpIndex);
+
+        // Off-suit kicks end the run, so they only need counting by chalk
+        int[] offSuit = new int[MAX_CHALK + 1];
+        for (long rest = unseen & ~trumps; rest != 0; rest &= rest - 1) {
+            offSuit[Rules.kickChalk(Long.numberOfTrailingZeros(rest) % Card.NUM_RANKS)]++;
+        }
+        int[] chalk = new int[CHALK_RANKS.length];
+        int chalkMask = 0;
+        for (int i = 0; i < CHALK_RANKS.length; i++) {
+            chalk[i] = Rules.kickChalk(CHALK_RANKS[i]);
+            if ((trumps & (1L << (trumpIndex * Card.NUM_RANKS + CHALK_RANKS[i]))) != 0) {
+                chalkMask |= 1 << i;
+            }
+        }
+        int plain = Long.bitCount(trumps) - Integer.bitCount(chalkMask);
+
+        for (long rest = unseen; rest != 0; rest &= rest - 1) {
+            odds.nextKick[Rules.kickChalk(Long.numberOfTrailingZeros(rest) % Card.NUM_RANKS)] += 1.0 / unseenCount;
+        }
+
+        // reach[mask * (plain + 1) + p]: chance the run gets to a kick with those trump chalk
+        // cards (mask) and p other trumps still unseen, every kick before it trump
+        double[] reach = new double[(chalkMask + 1) * (plain + 1)];
+        reach[chalkMask * (plain + 1) + plain] = 1;
+        int trumpCount = Integer.bitCount(chalkMask) + plain;
+        for (int run = 0; run <= trumpCount; run++) {
+            for (int mask = chalkMask; ; mask = (mask - 1) & chalkMask) {
+                int kickedChalk = Integer.bitCount(chalkMask & ~mask);
+                int p = plain - (run - kickedChalk);
+                if (p >= 0 && p <= plain) {
+                    double mass = reach[mask * (plain + 1) + p];
+                    if (mass > 0) {
+                        odds.kick(mass, run, packSize - run * CARDS_PER_RUN, unseenCount - run, offSuit,
+                                chalk, mask, p, plain, chalkToWin - chalkFor(chalk, chalkMask & ~mask), reach);
+                    }
+                }
+                if (mask == 0) {
+                    break;
+                }
+            }
+        }
+        return odds;
+    }
+
+    // Spreads the chance of reaching one state over the outcomes of its kick
+    private void kick(double mass, int run, int packLeft, int unseenLeft, int[] offSuit, int[] chalk, int mask,
+            int p, int plain, int needed, double[] reach) {
+        if (packLeft < CARDS_PER_RUN) {
+            exhausted += mass;
+            return;
+        }
+        double each = mass / unseenLeft;
+        for (int c = 0; c <= MAX_CHALK; c++) {
+            double chance = each * offSuit[c];
+            expectedChalk += chance * c;
+            if (c > 0 && c >= needed) {
+                matchWon += chance;
+            } else {
+                changed[run] += chance;
+            }
+        }
+        for (int i = 0; i < chalk.length; i++) {
+            if ((mask >>> i & 1) != 0) {
+                expectedChalk += each * chalk[i];
+                if (chalk[i] >= needed) {
+                    matchWon += each;
+                } else {
+                    reach[(mask & ~(1 << i)) * (plain + 1) + p] += each;
+                }
+            }
+        }
+        if (p > 0) {
+            reach[mask * (plain + 1) + p - 1] += each * p;
+        }
+    }
+
+    private static int chalkFor(int[] chalk, int kicked) {
+        int total = 0;
+        for (int i = 0; i < chalk.length; i++) {
+            total += (kicked >>> i & 1) != 0 ? chalk[i] : 0;
+        }
+        return total;
+    }
+
+    // Chance the next card kicked is worth the given chalk (0 to 3) to the dealer's team
+    public double getNextKick(int chalk) {
+        return nextKick[chalk];
+    }
+
+    // Runs of the pack the cards left allow
+    public int getMaxRuns() {
+        return changed.length;
+    }
+
+    // Chance running the pack changes trump within k runs
+    public double getTrumpChanged(int k) {
+        double total = 0;
+        for (int i = 0; i < Math.min(k, changed.length); i++) {
+            total += changed[i];
+        }
+        return total;
+    }
+
+    // Chance a kick while running the pack wins the match for the dealer's team
+    public double getMatchWon() {
+        return matchWon;
+    }
+
+    // Chance the pack runs out and the hand is thrown in
+    public double getExhausted() {
+        return exhausted;
+    }
+
+    // Chalk the dealer's team can expect from kicks while running the pack
+    public double getExpectedChalk() {
+        return expectedChalk;
+    }
+
+    // Deals a hand from a seed and prints the odds of running the pack, as the table and as the beggar see it
+    public static void main(String[] args) {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : 42;
+        int chalkToWin = args.length > 1 ? Integer.parseInt(args[1]) : MATCH_CHALK;
+
+        Deck deck = new Deck(new SplittableRandom(seed));
+        deck.shuffle();
+        List<Player> players = new ArrayList<>();
+        for (int i = 1; i <= 4; i++) {
+            players.add(new Player("Player " + i));
+        }
+        deck.deal(players, 6);
+        Card kicked = deck.kick();
+        Player beggar = players.get(3); // Right of the dealer in seat 0
+        System.out.println("Kicked " + kicked + ", " + beggar.getName() + " holds " + beggar.getHand());
+
+        long pack = deck.getRemaining();
+        System.out.println("From the pack's contents:");
+        System.out.println(of(pack, deck.cardsRemaining(), kicked.getSuitIndex(), chalkToWin));
+        System.out.println("From " + beggar.getName() + "'s seat:");
+        long unseen = CardSet.ALL & ~beggar.getHandMask() & ~CardSet.bit(kicked);
+        System.out.println(of(unseen, deck.cardsRemaining(), kicked.getSuitIndex(), chalkToWin));
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("Next kick: 0 chalk %.4f, Ace %.4f, Six %.4f, Jack %.4f%n",
+                nextKick[0], nextKick[1], nextKick[2], nextKick[3]));
+        for (int k = 1; k <= changed.length; k++) {
+            out.append(String.format("Trump changed within %d run%s: %.4f%n", k, k == 1 ? "" : "s",
+                    getTrumpChanged(k)));
+        }
+        out.append(String.format("Match won on a kick: %.4f, pack runs out: %.4f, expected kick chalk %.4f",
+                matchWon, exhausted, expectedChalk));
+        return out.toString();
+    }
+}
@@ -0,0 +1,152 @@
+package allfours;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.SplittableRandom;
+
+/*
+ * Load generator for GameServer: many clients on one selector thread, each
+ * sitting at a table against three random bots, answering every prompt
+ * with a random legal choice and joining a new table whenever a match ends.
+ *
+ * With no host given it starts a server in-process on a loopback port, so
+ * the protocol and the server can be exercised on one machine.
+ *
+ * Usage: LoadGenerator [clients] [seconds] [host port]
+ */
+
+public class LoadGenerator {
+    private final SplittableRandom random = new SplittableRandom(42);
+    private long matches;
+    private long messagesIn;
+    private long messagesOut;
+    private long bytesIn;
+    private long rejected;
+
+    private final class Client {
+        final SocketChannel channel;
+        final ByteBuffer in = ByteBuffer.allocateDirect(4096);
+        final ByteBuffer out = ByteBuffer.allocateDirect(256);
+
+        Client(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        void send(int type, int a, int b) throws IOException {
+            out.clear();
+            out.put((byte) type).put((byte) a);
+            if (WireProtocol.size(type) == 3) {
+                out.put((byte) b);
+            }
+            out.flip();
+            while (out.hasRemaining()) {
+                channel.write(out); // A few bytes into an empty socket buffer; never waits in practice
+            }
+            messagesOut++;
+        }
+
+        void join() throws IOException {
+            send(WireProtocol.JOIN, 3, WireProtocol.BOT_RANDOM);
+        }
+
+        void read() throws IOException {
+            int n = channel.read(in);
+            if (n < 0) {
+                throw new IOException("Server closed the connection");
+            }
+            bytesIn += n;
+            in.flip();
+            int size;
+            while ((size = WireProtocol.peek(in)) > 0) {
+                int start = in.position();
+                int type = in.get(start) & 0xFF;
+                messagesIn++;
+                if (type == WireProtocol.PROMPT) {
+                    prompted(in.get(start + 1), in.getLong(start + 2));
+                } else if (type == WireProtocol.END) {
+                    matches++;
+                    join();
+                } else if (type == WireProtocol.REJECTED) {
+                    rejected++;
+                }
+                in.position(start + size);
+            }
+            in.compact();
+        }
+
+        private void prompted(int kind, long legal) throws IOException {
+            if (kind == WireProtocol.PROMPT_CARD) {
+                send(WireProtocol.PLAY, CardSet.select(legal, random.nextInt(Long.bitCount(legal))), 0);
+            } else {
+                send(kind == WireProtocol.PROMPT_BEG ? WireProtocol.BEG : WireProtocol.GIVE,
+                        random.nextBoolean() ? 1 : 0, 0);
+            }
+        }
+    }
+
+    public void run(InetSocketAddress address, int clients, long seconds) throws IOException {
+        try (Selector selector = Selector.open()) {
+            for (int i = 0; i < clients; i++) {
+                SocketChannel channel = SocketChannel.open(address);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                channel.configureBlocking(false);
+                Client client = new Client(channel);
+                channel.register(selector, SelectionKey.OP_READ, client);
+                client.join();
+            }
+
+            long start = System.nanoTime();
+            long end = start + seconds * 1_000_000_000L;
+            long now;
+            while ((now = System.nanoTime()) < end) {
+                selector.select(Math.max(1, (end - now) / 1_000_000));
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    ((Client) key.attachment()).read();
+                }
+            }
+            double elapsed = (System.nanoTime() - start) / 1e9;
+
+            System.out.println(clients + " clients: " + String.format("%.1f matches/sec, %.0f messages/sec in, "
+                    + "%.0f out, %.2f bytes per message in, %.0f bytes per match",
+                    matches / elapsed, messagesIn / elapsed, messagesOut / elapsed,
+                    (double) bytesIn / messagesIn, (double) bytesIn / Math.max(1, matches))
+                    + (rejected > 0 ? ", " + rejected + " rejected" : ""));
+            for (SelectionKey key : selector.keys()) {
+                key.channel().close();
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        long seconds = args.length > 1 ? Long.parseLong(args[1]) : 10;
+
+        if (args.length > 3) {
+            new LoadGenerator().run(new InetSocketAddress(args[2], Integer.parseInt(args[3])), clients, seconds);
+            return;
+        }
+
+        try (TableHost host = new TableHost();
+                GameServer server = new GameServer(new InetSocketAddress("127.0.0.1", 0), host, 30_000)) {
+            Thread serverThread = new Thread(() -> {
+                try {
+                    server.run();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }, "server");
+            serverThread.setDaemon(true);
+            serverThread.start();
+            new LoadGenerator().run(new InetSocketAddress("127.0.0.1", server.getPort()), clients, seconds);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package allfours;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/*
+ * Append-only store of match records (see MatchRecorder) in a directory of
+ * fixed-size, memory-mapped segment files: segment-000000.log, ...
+ *
+ * A segment starts with an 8-byte header (magic, format version) followed by
+ * records, each a varint length and the record's bytes. Records never span
+ * segments; when one does not fit, the next segment is created. The unused
+ * tail of a segment stays zero, and a zero length marks the end, so a
+ * segment can be read while it is still being written and segments can be
+ * scanned independently of one another.
+ *
+ * append() is thread-safe, so one log can take the records of many
+ * matches playing at once. Opening an existing directory appends after the
+ * last record.
+ */
+
+public class MatchLog implements Closeable {
+    public static final int DEFAULT_SEGMENT_BYTES = 16 << 20;
+
+    static final int MAGIC = 0x41344D4C; // "A4ML"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 8;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private int segmentIndex;
+    private MappedByteBuffer segment;
+    private long records;
+
+    public MatchLog(Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_BYTES);
+    }
+
+    public MatchLog(Path directory, int segmentBytes) throws IOException {
+        if (segmentBytes <= HEADER_BYTES + 16) {
+            throw new IllegalArgumentException("Segment size too small: " + segmentBytes);
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(directory);
+
+        List<Path> existing = segments(directory);
+        if (existing.isEmpty()) {
+            openSegment(0);
+        } else {
+            segmentIndex = existing.size() - 1;
+            segment = map(existing.get(segmentIndex), FileChannel.MapMode.READ_WRITE);
+            checkHeader(segment, existing.get(segmentIndex));
+            segment.position(endOfRecords(segment));
+        }
+    }
+
+    /*
+     * Appends one record
+     *
+     * @throws UncheckedIOException If a new segment cannot be created
+     */
+    public synchronized void append(byte[] record, int offset, int length) {
+        int needed = varintBytes(length) + length;
+        if (needed > segmentBytes - HEADER_BYTES) {
+            throw new IllegalArgumentException("Record of " + length + " bytes does not fit in a segment");
+        }
+        if (segment.remaining() < needed) {
+            try {
+                openSegment(segmentIndex + 1);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        putVarint(segment, length);
+        segment.put(record, offset, length);
+        records++;
+    }
+
+    // Records appended through this instance
+    public synchronized long getRecordsAppended() {
+        return records;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    // Flushes the current segment to disk
+    @Override
+    public synchronized void close() {
+        segment.force();
+    }
+
+    private void openSegment(int index) throws IOException {
+        if (segment != null) {
+            segment.force();
+        }
+        segmentIndex = index;
+        Path file = directory.resolve(String.format("segment-%06d.log", index));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        }
+        segment.putInt(MAGIC);
+        segment.putInt(VERSION);
+    }
+
+    // Segment files of a log directory, in order
+    public static List<Path> segments(Path directory) throws IOException {
+        List<Path> files = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return files;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "segment-*.log")) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        }
+        Collections.sort(files);
+        return files;
+    }
+
+    // Maps a segment read-only and passes each record to the action as a buffer over its bytes
+    public static void forEachRecord(Path segmentFile, Consumer<ByteBuffer> action) throws IOException {
+        MappedByteBuffer segment = map(segmentFile, FileChannel.MapMode.READ_ONLY);
+        checkHeader(segment, segmentFile);
+        int position = HEADER_BYTES;
+        while (position < segment.limit()) {
+            segment.position(position);
+            int length = getVarint(segment);
+            if (length == 0) break;
+            int start = segment.position();
+            action.accept(segment.slice(start, length));
+            position = start + length;
+        }
+    }
+
+    // Every record of every segment of a log directory, in order
+    public static void scan(Path directory, Consumer<ByteBuffer> action) throws IOException {
+        for (Path file : segments(directory)) {
+            forEachRecord(file, action);
+        }
+    }
+
+    private static MappedByteBuffer map(Path file, FileChannel.MapMode mode) throws IOException {
+        StandardOpenOption[] options = mode == FileChannel.MapMode.READ_ONLY
+                ? new StandardOpenOption[] {StandardOpenOption.READ}
+                : new StandardOpenOption[] {StandardOpenOption.READ, StandardOpenOption.WRITE};
+        try (FileChannel channel = FileChannel.open(file, options)) {
+            return channel.map(mode, 0, channel.size());
+        }
+    }
+
+    private static void checkHeader(ByteBuffer segment, Path file) throws IOException {
+        if (segment.limit() < HEADER_BYTES || segment.getInt(0) != MAGIC) {
+            throw new IOException("Not a match log segment: " + file);
+        }
+        if (segment.getInt(4) != VERSION) {
+            throw new IOException("Unsupported match log version " + segment.getInt(4) + ": " + file);
+        }
+    }
+
+    private static int endOfRecords(ByteBuffer segment) {
+        int position = HEADER_BYTES;
+        while (position < segment.limit()) {
+            segment.position(position);
+            int length = getVarint(segment);
+            if (length == 0) break;
+            position = segment.position() + length;
+        }
+        return position;
+    }
+
+    private static int varintBytes(int value) {
+        int bytes = 1;
+        while ((value >>>= 7) != 0) {
+            bytes++;
+        }
+        return bytes;
+    }
+
+    private static void putVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    static int getVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+    }
+}
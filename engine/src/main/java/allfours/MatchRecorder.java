@@ -0,0 +1,223 @@
+package allfours;
+
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * GameListener that records a match as a compact binary event log and, when
+ * the match finishes, appends it to a MatchLog as one record.
+ *
+ * Record layout: a header byte (format version << 4 | first dealer's seat),
+ * then events. Every event starts with a byte holding a tag in the high
+ * nibble and a small argument in the low nibble:
+ *
+ * - DEAL    dealer seat; then the 6 cards each seat was dealt (seat order,
+ *           each seat's cards ascending) and the kick, as a DealCodec index
+ *           over the whole pack (17 bytes)
+ * - BEG     1 if the player to the dealer's right begged, 0 if they stood
+ * - GIVE    the dealer gave a chalk (a beg not followed by GIVE ran the pack)
+ * - RUN     the pack was run: 3 more cards per seat and the new kick, as a
+ *           DealCodec index over the cards not yet dealt this round
+ * - EXHAUSTED the pack ran out; the hand is thrown in
+ * - CARD    index of the card in the player's hand, lowest card first;
+ *           the seat follows from the order of play
+ * - TRICK   seat that won the trick
+ * - CHALK   (kind << 1) | team for chalk awarded: kick, High, Low, Jack
+ *           run, Jack hung or Game (Game tie is its own kind)
+ * - END     winning team; last event of the record
+ *
+ * A round is about 60 bytes, a whole match a few hundred. MatchReplayer
+ * turns a record back into a GameController.
+ */
+
+public class MatchRecorder implements GameListener {
+    static final int VERSION = 1;
+
+    static final int DEAL = 1;
+    static final int BEG = 2;
+    static final int GIVE = 3;
+    static final int RUN = 4;
+    static final int EXHAUSTED = 5;
+    static final int CARD = 6;
+    static final int TRICK = 7;
+    static final int CHALK = 8;
+    static final int END = 9;
+
+    static final int CHALK_KICK = 0;
+    static final int CHALK_HIGH = 1;
+    static final int CHALK_LOW = 2;
+    static final int CHALK_JACK_RUN = 3;
+    static final int CHALK_JACK_HUNG = 4;
+    static final int CHALK_GAME = 5;
+    static final int CHALK_GAME_TIE = 6;
+
+    static final int DEAL_CARDS = 4 * 6 + 1;
+    static final int RUN_CARDS = 4 * 3 + 1;
+
+    private final MatchLog log;
+    private byte[] buffer = new byte[512];
+    private int length;
+    private int events;
+
+    private List<Player> players;
+    private Player firstDealer;
+    private Player dealer;
+    private long dealt;                 // Cards dealt or kicked this round
+    private final int[] batch = new int[DEAL_CARDS];
+    private int batchSize;
+
+    // Keeps each finished record in memory only; see getRecord()
+    public MatchRecorder() {
+        this(null);
+    }
+
+    public MatchRecorder(MatchLog log) {
+        this.log = log;
+    }
+
+    // The bytes recorded so far for the current (or just finished) match
+    public byte[] getRecord() {
+        return Arrays.copyOf(buffer, length);
+    }
+
+    public int getEventCount() {
+        return events;
+    }
+
+    @Override
+    public void matchStarted(Player firstDealer) {
+        this.firstDealer = firstDealer;
+        players = null;
+        length = 0;
+        events = 0;
+    }
+
+    @Override
+    public void roundStarted(Player dealer) {
+        this.dealer = dealer;
+        dealt = 0;
+        batchSize = 0;
+    }
+
+    @Override
+    public void cardsDealt(List<Player> players, int cardsEach) {
+        if (this.players == null) {
+            this.players = players;
+            put((VERSION << 4) | players.indexOf(firstDealer)); // The seats are known from the first deal
+        }
+        // Each seat's new cards, lowest first; the order within a seat's cards does not matter
+        batchSize = 0;
+        for (int seat = 0; seat < players.size(); seat++) {
+            long fresh = players.get(seat).getHandMask() & ~dealt;
+            for (; fresh != 0; fresh &= fresh - 1) {
+                batch[batchSize++] = Long.numberOfTrailingZeros(fresh);
+            }
+        }
+    }
+
+    @Override
+    public void cardKicked(Card kickedCard, boolean runningPack) {
+        batch[batchSize++] = kickedCard.getOrdinal();
+        put(runningPack ? RUN << 4 : (DEAL << 4) | players.indexOf(dealer));
+        ensureCapacity(DealCodec.encodedBytes(Long.bitCount(CardSet.ALL & ~dealt), batchSize));
+        length += DealCodec.encode(batch, batchSize, CardSet.ALL & ~dealt, buffer, length);
+        for (int i = 0; i < batchSize; i++) {
+            dealt |= 1L << batch[i];
+        }
+        endEvent();
+    }
+
+    @Override
+    public void kickChalk(Team dealerTeam, int chalk) {
+        putChalk(CHALK_KICK, dealerTeam);
+    }
+
+    @Override
+    public void begResponse(Player beggar, boolean begged) {
+        putEvent(BEG, begged ? 1 : 0);
+    }
+
+    @Override
+    public void chalkGiven(Team beggingTeam) {
+        putEvent(GIVE, 0);
+    }
+
+    @Override
+    public void packExhausted() {
+        putEvent(EXHAUSTED, 0);
+    }
+
+    @Override
+    public void cardPlayed(Player player, Card card) {
+        // The card has left the hand already; the cards below it give its index
+        putEvent(CARD, Long.bitCount(player.getHandMask() & (CardSet.bit(card) - 1)));
+    }
+
+    @Override
+    public void trickWon(Player winner, int points) {
+        putEvent(TRICK, players.indexOf(winner));
+    }
+
+    @Override
+    public void highAwarded(Team team, Card highTrump) {
+        putChalk(CHALK_HIGH, team);
+    }
+
+    @Override
+    public void lowAwarded(Team team, Card lowTrump) {
+        putChalk(CHALK_LOW, team);
+    }
+
+    @Override
+    public void jackAwarded(Team team, boolean hung) {
+        putChalk(hung ? CHALK_JACK_HUNG : CHALK_JACK_RUN, team);
+    }
+
+    @Override
+    public void gameAwarded(Team team, boolean tiebreak) {
+        putChalk(tiebreak ? CHALK_GAME_TIE : CHALK_GAME, team);
+    }
+
+    @Override
+    public void matchFinished(Team winner) {
+        putEvent(END, teamIndex(winner));
+        if (log != null) {
+            log.append(buffer, 0, length);
+        }
+    }
+
+    // Team A (seats 0 and 2) is 0, Team B is 1
+    private int teamIndex(Team team) {
+        return players.indexOf(team.getPlayer1()) & 1;
+    }
+
+    private void putChalk(int kind, Team team) {
+        putEvent(CHALK, (kind << 1) | teamIndex(team));
+    }
+
+    private void putEvent(int tag, int argument) {
+        put((tag << 4) | argument);
+        endEvent();
+    }
+
+    private void endEvent() {
+        events++;
+        eventRecorded();
+    }
+
+    // Called after each event; replays count events here
+    void eventRecorded() {
+    }
+
+    private void put(int b) {
+        ensureCapacity(1);
+        buffer[length++] = (byte) b;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+        }
+        Arrays.fill(buffer, length, length + extra, (byte) 0); // DealCodec ORs its bits in
+    }
+}
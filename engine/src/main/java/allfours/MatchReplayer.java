@@ -0,0 +1,261 @@
+package allfours;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/*
+ * Rebuilds a recorded match (see MatchRecorder) by playing it again through
+ * the real engine: a deck stacked in each round's recorded order, and
+ * decision providers that answer from the record. Replay can stop after any
+ * number of events, leaving the GameController, its Round, Teams and the
+ * players' hands as they stood at that point. A play stopped inside a trick
+ * shows the cards played so far only through the players' hands.
+ *
+ * A full replay re-records the match and checks the bytes match, so a
+ * corrupt or mis-versioned record fails loudly.
+ *
+ * Usage: MatchReplayer <log dir>                 (replay and verify every match)
+ *        MatchReplayer <log dir> <match number>  (show one match on the console)
+ */
+
+public class MatchReplayer {
+
+    private MatchReplayer() {
+    }
+
+    // Replays the whole match silently
+    public static GameController replay(ByteBuffer record) {
+        return replay(record, Integer.MAX_VALUE, GameListener.SILENT);
+    }
+
+    /*
+     * @param record One match record; its position is not changed
+     * @param events How many events to apply before stopping
+     * @param listener Hears the replayed match, e.g. ConsoleGameListener.INSTANCE
+     * @return The match as it stood after those events
+     */
+    public static GameController replay(ByteBuffer record, int events, GameListener listener) {
+        Script script = new Script(record.duplicate());
+        Stopper stopper = new Stopper(events);
+        GameController game = new GameController(new MulticastGameListener(listener, stopper),
+                new SplittableRandom(0), script.deck);
+        game.setupGame(new DecisionProvider[] {script, script, script, script}, script.firstDealer);
+        try {
+            game.playMatch();
+        } catch (Stop stop) {
+            return game;
+        }
+
+        byte[] original = new byte[record.remaining()];
+        record.duplicate().get(original);
+        if (!Arrays.equals(original, stopper.getRecord())) {
+            throw new IllegalStateException("Replay diverged from the record");
+        }
+        return game;
+    }
+
+    // Number of events in a record
+    public static int eventCount(ByteBuffer record) {
+        ByteBuffer in = record.duplicate();
+        int events = 0;
+        long dealt = 0;
+        int[] cards = new int[MatchRecorder.DEAL_CARDS];
+        in.get(); // Header
+        while (in.hasRemaining()) {
+            int tag = (in.get() & 0xFF) >>> 4;
+            if (tag == MatchRecorder.DEAL) {
+                DealCodec.decode(in, MatchRecorder.DEAL_CARDS, CardSet.ALL, cards);
+                dealt = mask(cards, MatchRecorder.DEAL_CARDS);
+            } else if (tag == MatchRecorder.RUN) {
+                DealCodec.decode(in, MatchRecorder.RUN_CARDS, CardSet.ALL & ~dealt, cards);
+                dealt |= mask(cards, MatchRecorder.RUN_CARDS);
+            }
+            events++;
+        }
+        return events;
+    }
+
+    private static long mask(int[] cards, int n) {
+        long set = 0;
+        for (int i = 0; i < n; i++) {
+            set |= 1L << cards[i];
+        }
+        return set;
+    }
+
+    // Unwinds the engine once the requested number of events has been replayed
+    private static final class Stop extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        Stop() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static final class Stopper extends MatchRecorder {
+        private final int events;
+
+        Stopper(int events) {
+            this.events = events;
+        }
+
+        @Override
+        void eventRecorded() {
+            if (getEventCount() >= events) {
+                throw new Stop();
+            }
+        }
+    }
+
+    /*
+     * The record decoded into what the engine will ask for: each round's deck
+     * order, and every beg, give and card decision in the order they were made.
+     */
+    private static final class Script implements DecisionProvider {
+        final int firstDealer;
+        final List<byte[]> orders = new ArrayList<>();
+        final List<Boolean> begs = new ArrayList<>();
+        final List<Boolean> gives = new ArrayList<>();
+        byte[] cards = new byte[64];
+        int cardCount;
+        int nextOrder;
+        int nextBeg;
+        int nextGive;
+        int nextCard;
+
+        final Deck deck = new Deck() {
+            @Override
+            public void shuffle() {
+                if (nextOrder == orders.size()) {
+                    throw new IllegalStateException("Record has no deal for round " + (nextOrder + 1));
+                }
+                stack(orders.get(nextOrder++));
+            }
+        };
+
+        Script(ByteBuffer in) {
+            int header = in.get() & 0xFF;
+            if (header >>> 4 != MatchRecorder.VERSION) {
+                throw new IllegalArgumentException("Unsupported match record version " + (header >>> 4));
+            }
+            firstDealer = header & 3;
+
+            int[] dealtCards = new int[Card.NUM_CARDS];
+            int dealtCount = 0;
+            long dealt = 0;
+            byte[] order = null;
+            while (in.hasRemaining()) {
+                int event = in.get() & 0xFF;
+                int tag = event >>> 4;
+                int argument = event & 0xF;
+                switch (tag) {
+                    case MatchRecorder.DEAL:
+                    case MatchRecorder.RUN: {
+                        int n = tag == MatchRecorder.DEAL ? MatchRecorder.DEAL_CARDS : MatchRecorder.RUN_CARDS;
+                        if (tag == MatchRecorder.DEAL) {
+                            order = new byte[Card.NUM_CARDS];
+                            orders.add(order);
+                            dealtCount = 0;
+                            dealt = 0;
+                        }
+                        int[] batch = new int[n];
+                        DealCodec.decode(in, n, CardSet.ALL & ~dealt, batch);
+                        for (int card : batch) {
+                            dealtCards[dealtCount++] = card;
+                            dealt |= 1L << card;
+                        }
+                        // The cards never dealt follow in ascending order
+                        int i = 0;
+                        for (; i < dealtCount; i++) {
+                            order[i] = (byte) dealtCards[i];
+                        }
+                        for (long rest = CardSet.ALL & ~dealt; rest != 0; rest &= rest - 1) {
+                            order[i++] = (byte) Long.numberOfTrailingZeros(rest);
+                        }
+                        break;
+                    }
+                    case MatchRecorder.BEG:
+                        begs.add(argument == 1);
+                        if (argument == 1) {
+                            gives.add(false); // Until a GIVE says otherwise, the pack was run
+                        }
+                        break;
+                    case MatchRecorder.GIVE:
+                        gives.set(gives.size() - 1, true);
+                        break;
+                    case MatchRecorder.CARD:
+                        if (cardCount == cards.length) {
+                            cards = Arrays.copyOf(cards, cardCount * 2);
+                        }
+                        cards[cardCount++] = (byte) argument;
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+
+        @Override
+        public Card chooseCard(Player player, String leadSuit, String trumpSuit, List<Card> playedCards) {
+            if (nextCard == cardCount) {
+                throw new IllegalStateException("Record has no more cards to play");
+            }
+            return Card.of(CardSet.select(player.getHandMask(), cards[nextCard++]));
+        }
+
+        @Override
+        public boolean wantsToBeg(Player player, Card kickedCard) {
+            return begs.get(nextBeg++);
+        }
+
+        @Override
+        public boolean givesChalk(Player dealer, Card kickedCard) {
+            return gives.get(nextGive++);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: MatchReplayer <log dir> [match number]");
+            return;
+        }
+        Path directory = Paths.get(args[0]);
+
+        if (args.length > 1) {
+            long wanted = Long.parseLong(args[1]);
+            long[] index = {0};
+            MatchLog.scan(directory, record -> {
+                if (index[0]++ == wanted) {
+                    replay(record, Integer.MAX_VALUE, ConsoleGameListener.INSTANCE);
+                }
+            });
+            if (index[0] <= wanted) {
+                System.out.println("The log holds only " + index[0] + " matches.");
+            }
+            return;
+        }
+
+        long[] totals = new long[3]; // Matches, bytes, events
+        long start = System.nanoTime();
+        MatchLog.scan(directory, record -> {
+            totals[0]++;
+            totals[1] += record.remaining();
+            totals[2] += eventCount(record);
+            replay(record);
+        });
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.println("Replayed and verified " + totals[0] + " matches in "
+                + String.format("%.2f", seconds) + " s (" + String.format("%.0f", totals[0] / seconds)
+                + " matches/sec)");
+        if (totals[0] > 0) {
+            System.out.println(String.format("%.1f", (double) totals[1] / totals[0]) + " bytes and "
+                    + String.format("%.1f", (double) totals[2] / totals[0]) + " events per match");
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package allfours;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+import java.util.random.RandomGenerator;
+
+/*
+ * Plays batches of headless matches across all cores on a fork/join pool.
+ *
+ * Match i is driven by its own SplittableRandom seeded from (master seed, i),
+ * so results do not depend on how the work was split between threads and
+ * any single match can be replayed on its own with replay(seed, i).
+ * Each leaf task tallies into its own SimulationStats; partial results are
+ * merged as tasks join.
+ *
+ * With a MatchLog set, every match is also recorded (see MatchRecorder).
+ *
+ * With counter deals, every pack and the first dealer come from
+ * DealGenerator rather than the match's generator, so any hand of any
+ * match can be dealt on its own. ShardCoordinator runs batches this way
+ * in worker processes (--shard), each writing its SimulationStats to
+ * stdout.
+ *
+ * Usage: MatchSimulator <matches> [seed] [threads] [log dir]
+ *        MatchSimulator --replay <seed> <match index>
+ *        MatchSimulator --shard <seed> <from> <to> [threads]
+ */
+
+public class MatchSimulator {
+    private static final int MATCHES_PER_TASK = 256;
+
+    private final long masterSeed;
+    private final Function<RandomGenerator, DecisionProvider> bots;
+    private MatchLog log;
+    private boolean counterDeals;
+
+    public MatchSimulator(long masterSeed) {
+        this(masterSeed, RandomDecisionProvider::new);
+    }
+
+    // The factory builds one seat's DecisionProvider from a generator split off the match's own
+    public MatchSimulator(long masterSeed, Function<RandomGenerator, DecisionProvider> bots) {
+        this.masterSeed = masterSeed;
+        this.bots = bots;
+    }
+
+    // Records every match played from now on into the log, or stops recording if null
+    public void setLog(MatchLog log) {
+        this.log = log;
+    }
+
+    // Deals every match from DealGenerator (see Deck(seed, match)), or from the match's generator if false
+    public void setCounterDeals(boolean counterDeals) {
+        this.counterDeals = counterDeals;
+    }
+
+    // Plays matches [0, matches) on the given pool and returns the merged tallies
+    public SimulationStats run(long matches, ForkJoinPool pool) {
+        return run(0, matches, pool);
+    }
+
+    // Plays matches [from, to): a shard of a larger batch
+    public SimulationStats run(long from, long to, ForkJoinPool pool) {
+        return pool.invoke(new Batch(from, to));
+    }
+
+    public SimulationStats run(long matches) {
+        return run(matches, ForkJoinPool.commonPool());
+    }
+
+    /*
+     * Plays one match with the given listener
+     *
+     * @param matchIndex The match's index in the batch; the same index always gives the same match
+     * @return The finished game
+     */
+    public GameController playMatch(long matchIndex, GameListener listener) {
+        SplittableRandom rng = new SplittableRandom(matchSeed(masterSeed, matchIndex));
+        GameController game = counterDeals
+                ? new GameController(listener, rng.split(), new Deck(masterSeed, matchIndex))
+                : new GameController(listener, rng.split());
+        DecisionProvider[] seats = {
+                bots.apply(rng.split()), bots.apply(rng.split()),
+                bots.apply(rng.split()), bots.apply(rng.split()) };
+        if (counterDeals) {
+            game.setupGame(seats, DealGenerator.firstDealer(masterSeed, matchIndex));
+        } else {
+            game.setupGame(seats);
+        }
+        game.playMatch();
+        return game;
+    }
+
+    // Replays a single match of a batch on the console
+    public void replay(long matchIndex) {
+        playMatch(matchIndex, ConsoleGameListener.INSTANCE);
+    }
+
+    // SplitMix64 finalizer over the master seed and index, giving well-spread independent seeds
+    static long matchSeed(long masterSeed, long matchIndex) {
+        long z = masterSeed + (matchIndex + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private class Batch extends RecursiveTask<SimulationStats> {
+        private static final long serialVersionUID = 1L;
+
+        private final long from;
+        private final long to;
+
+        Batch(long from, long to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected SimulationStats compute() {
+            if (to - from <= MATCHES_PER_TASK) {
+                SimulationStats stats = new SimulationStats();
+                GameListener listener = log == null ? stats : new MulticastGameListener(stats, new MatchRecorder(log));
+                for (long i = from; i < to; i++) {
+                    GameController game = playMatch(i, listener);
+                    stats.recordMatch(game, game.getWinner());
+                }
+                return stats;
+            }
+
+            long mid = (from + to) >>> 1;
+            Batch left = new Batch(from, mid);
+            left.fork();
+            SimulationStats right = new Batch(mid, to).compute();
+            SimulationStats result = left.join();
+            result.merge(right);
+            return result;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 3 && args[0].equals("--replay")) {
+            new MatchSimulator(Long.parseLong(args[1])).replay(Long.parseLong(args[2]));
+            return;
+        }
+        if (args.length >= 4 && args[0].equals("--shard")) {
+            runShard(Long.parseLong(args[1]), Long.parseLong(args[2]), Long.parseLong(args[3]),
+                    args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors());
+            return;
+        }
+
+        long matches = args.length > 0 ? Long.parseLong(args[0]) : 100_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : System.nanoTime();
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        MatchSimulator simulator = new MatchSimulator(seed);
+        MatchLog log = args.length > 3 ? new MatchLog(Paths.get(args[3])) : null;
+        simulator.setLog(log);
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        SimulationStats stats = simulator.run(matches, pool);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        pool.shutdown();
+        if (log != null) {
+            log.close();
+        }
+
+        System.out.println("Seed " + seed + ", " + threads + " threads, "
+                + String.format("%.1f", matches / seconds) + " matches/sec");
+        stats.report(System.out);
+    }
+
+    // Worker side of ShardCoordinator: plays [from, to) with counter deals, tallies in binary on stdout
+    private static void runShard(long seed, long from, long to, int threads) throws IOException {
+        MatchSimulator simulator = new MatchSimulator(seed);
+        simulator.setCounterDeals(true);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        SimulationStats stats = simulator.run(from, to, pool);
+        pool.shutdown();
+
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(System.out));
+        stats.write(out);
+        out.flush();
+    }
+}
@@ -0,0 +1,241 @@
+package allfours;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/*
+ * Compact binary snapshot of a match in progress, for checkpointing a
+ * hosted match and resuming it elsewhere after a crash, or parking an idle
+ * one off the heap (TableStore).
+ *
+ * A snapshot can be taken at three points:
+ * - from a listener's roundStarted (or matchStarted): HAND_START, 3 bytes; dealer and match
+ *   score. Restoring deals a fresh hand.
+ * - from a listener's cardPlayed: TRICK_PLAY, 37 bytes; as above plus trump, game points,
+ *   High and Low (card and team), the Jack so far, the trick number and
+ *   leader, the cards on the table and every hand as a 52-bit CardSet.
+ *   Restoring picks up with the next card.
+ * - while a seat chooses a card (from the table's thread, as TableHost
+ *   does when it parks a table): TRICK_PLAY as above, the table possibly
+ *   still empty, written as no first card.
+ * Anywhere else (mid-deal, begging, scoring) capture() throws: the state
+ * there also depends on the undealt pack, which a snapshot leaves out.
+ *
+ * Layout: a header byte (version << 4 | kind), then the fields packed
+ * little-endian at the bit level in the order written below. Card fields
+ * are ordinals, NO_CARD (63) when absent.
+ *
+ * restore() builds a GameController whose playMatch() continues the match.
+ * Its listener hears matchStarted, then (for TRICK_PLAY) handResumed before
+ * the next card, so bots following the play can rebuild what they track.
+ */
+
+public final class MatchSnapshot {
+    public static final int HAND_START = 0;
+    public static final int TRICK_PLAY = 1;
+
+    public static final int HAND_START_BYTES = 3;
+    public static final int TRICK_PLAY_BYTES = 37;
+    public static final int MAX_BYTES = TRICK_PLAY_BYTES;
+
+    static final int VERSION = 1;
+    private static final int NO_CARD = 63;
+
+    // Jack field: not yet played, run home, hung
+    private static final int JACK_OUT = 0;
+    private static final int JACK_RAN = 1;
+    private static final int JACK_HUNG = 2;
+
+    private MatchSnapshot() {
+    }
+
+    public static byte[] capture(GameController game) {
+        byte[] out = new byte[MAX_BYTES];
+        int n = capture(game, out, 0);
+        return n == MAX_BYTES ? out : Arrays.copyOf(out, n);
+    }
+
+    /*
+     * @return The number of bytes written at offset (at most MAX_BYTES)
+     * @throws IllegalStateException if the match is not at a hand start or in trick play
+     */
+    public static int capture(GameController game, byte[] out, int offset) {
+        Round round = game.getCurrentRound();
+        int phase = round == null ? Round.HAND_START : round.getPhase();
+        Team teamA = game.getTeamA();
+        Team teamB = game.getTeamB();
+
+        Bits bits = new Bits(out, offset);
+        if (phase == Round.HAND_START) {
+            bits.write(VERSION << 4 | HAND_START, 8);
+            bits.write(game.getDealerIndex(), 2);
+            bits.write(teamA.getMatchScore(), 4);
+            bits.write(teamB.getMatchScore(), 4);
+            return bits.finish();
+        }
+
+        Trick trick = round.getTrick();
+        List<Card> trickCards = trick.getPlayedCards();
+        if (phase != Round.TRICKS || trick.isResolved()) {
+            throw new IllegalStateException("Snapshots are taken at the start of a hand or while a trick is played");
+        }
+        bits.write(VERSION << 4 | TRICK_PLAY, 8);
+        bits.write(game.getDealerIndex(), 2);
+        bits.write(teamA.getMatchScore(), 4);
+        bits.write(teamB.getMatchScore(), 4);
+        bits.write(round.getTrumpIndex(), 2);
+        bits.write(teamA.getGameScore(), 7);
+        bits.write(teamB.getGameScore(), 7);
+        bits.write(ordinal(round.getHighTrump()), 6);
+        bits.write(round.getHighTeam() == teamB ? 1 : 0, 1);
+        bits.write(ordinal(round.getLowTrump()), 6);
+        bits.write(round.getLowTeam() == teamB ? 1 : 0, 1);
+        Team ran = round.getTeamRanJack();
+        Team hung = round.getTeamHungJack();
+        bits.write(ran != null ? JACK_RAN : hung != null ? JACK_HUNG : JACK_OUT, 2);
+        bits.write(ran == teamB || hung == teamB ? 1 : 0, 1);
+        bits.write(round.getTrickNumber(), 4);
+        bits.write(round.getLeaderSeat(), 2); // The trick's leader; set before it is led
+        bits.write(Math.max(trickCards.size() - 1, 0), 2);
+        for (int i = 0; i < 4; i++) {
+            bits.write(i < trickCards.size() ? trickCards.get(i).getOrdinal() : NO_CARD, 6);
+        }
+        List<Player> players = game.getPlayers();
+        for (int seat = 0; seat < 4; seat++) {
+            bits.write(players.get(seat).getHandMask(), Card.NUM_CARDS);
+        }
+        return bits.finish();
+    }
+
+    // HAND_START or TRICK_PLAY
+    public static int kind(byte[] in, int offset) {
+        int header = in[offset] & 0xFF;
+        if (header >>> 4 != VERSION || (header & 0xF) > TRICK_PLAY) {
+            throw new IllegalArgumentException("Not a version " + VERSION + " match snapshot: header " + header);
+        }
+        return header & 0xF;
+    }
+
+    public static int length(byte[] in, int offset) {
+        return kind(in, offset) == HAND_START ? HAND_START_BYTES : TRICK_PLAY_BYTES;
+    }
+
+    /*
+     * Rebuilds a match from a snapshot, seated with the given providers
+     *
+     * @param rng Shuffles every later deal
+     * @return A match whose playMatch() carries on from the snapshot
+     */
+    public static GameController restore(byte[] in, int offset, DecisionProvider[] seats, GameListener listener,
+            RandomGenerator rng) {
+        return restore(in, offset, seats, listener, rng, new Deck(rng));
+    }
+
+    // As above, with the deck that deals every later hand (the snapshot holds no pack order)
+    public static GameController restore(byte[] in, int offset, DecisionProvider[] seats, GameListener listener,
+            RandomGenerator rng, Deck deck) {
+        int kind = kind(in, offset);
+        Bits bits = new Bits(in, offset);
+        bits.read(8);
+        int dealer = (int) bits.read(2);
+        int scoreA = (int) bits.read(4);
+        int scoreB = (int) bits.read(4);
+
+        GameController game = new GameController(listener, rng, deck);
+        game.setupGame(seats, dealer);
+        Team teamA = game.getTeamA();
+        Team teamB = game.getTeamB();
+        if (kind == HAND_START) {
+            teamA.restoreScores(scoreA, 0);
+            teamB.restoreScores(scoreB, 0);
+            return game;
+        }
+
+        int trump = (int) bits.read(2);
+        teamA.restoreScores(scoreA, (int) bits.read(7));
+        teamB.restoreScores(scoreB, (int) bits.read(7));
+        Card highTrump = card(bits.read(6));
+        Team highTeam = bits.read(1) == 0 ? teamA : teamB;
+        Card lowTrump = card(bits.read(6));
+        Team lowTeam = bits.read(1) == 0 ? teamA : teamB;
+        int jack = (int) bits.read(2);
+        Team jackTeam = bits.read(1) == 0 ? teamA : teamB;
+        int trickNumber = (int) bits.read(4);
+        int leader = (int) bits.read(2);
+        int trickSize = (int) bits.read(2) + 1;
+        List<Card> trickCards = new ArrayList<>(4);
+        for (int i = 0; i < 4; i++) {
+            Card card = card(bits.read(6));
+            if (i < trickSize && card != null) {
+                trickCards.add(card);
+            }
+        }
+        List<Player> players = game.getPlayers();
+        for (int seat = 0; seat < 4; seat++) {
+            players.get(seat).restoreHand(bits.read(Card.NUM_CARDS));
+        }
+
+        Round round = game.resumeRound();
+        round.restoreTricks(trump, highTrump, highTrump == null ? null : highTeam,
+                lowTrump, lowTrump == null ? null : lowTeam,
+                jack == JACK_RAN ? jackTeam : null, jack == JACK_HUNG ? jackTeam : null,
+                trickNumber, leader, trickCards);
+        return game;
+    }
+
+    private static int ordinal(Card card) {
+        return card == null ? NO_CARD : card.getOrdinal();
+    }
+
+    private static Card card(long ordinal) {
+        return ordinal == NO_CARD ? null : Card.of((int) ordinal);
+    }
+
+    // Little-endian bit packing over a byte array, through a 64-bit accumulator
+    private static final class Bits {
+        private final byte[] bytes;
+        private final int start;
+        private int position;
+        private long buffer;
+        private int count;
+
+        Bits(byte[] bytes, int offset) {
+            this.bytes = bytes;
+            this.start = offset;
+            this.position = offset;
+        }
+
+        // width <= 56
+        void write(long value, int width) {
+            buffer |= value << count;
+            count += width;
+            while (count >= 8) {
+                bytes[position++] = (byte) buffer;
+                buffer >>>= 8;
+                count -= 8;
+            }
+        }
+
+        int finish() {
+            if (count > 0) {
+                bytes[position++] = (byte) buffer;
+                buffer = 0;
+                count = 0;
+            }
+            return position - start;
+        }
+
+        long read(int width) {
+            while (count < width) {
+                buffer |= (bytes[position++] & 0xFFL) << count;
+                count += 8;
+            }
+            long value = buffer & ((1L << width) - 1);
+            buffer >>>= width;
+            count -= width;
+            return value;
+        }
+    }
+}
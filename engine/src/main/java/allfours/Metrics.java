@@ -0,0 +1,394 @@
+package allfours;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.sun.net.httpserver.HttpServer;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/*
+ * Counters, latency histograms and JFR events for the engine's hot paths:
+ * Round.playRound(), Round.beggingPhase(), Trick.play(),
+ * Player.chooseCardToPlay() and Deck.deal().
+ *
+ * Providers that let a player retry an illegal card (the console, a remote
+ * seat) report each refused card through illegalChoice(), so
+ * ILLEGAL_CHOICES counts those as well as the ones Player refuses.
+ *
+ * Off unless the JVM is started with -Dallfours.metrics=true. ENABLED is a
+ * static final, so with metrics off the JIT folds every check away and the
+ * instrumented methods compile as if the instrumentation were not there.
+ * With metrics on, each instrumented call costs two nanoTime() reads and a
+ * few atomic increments; the JFR events are created alongside and are
+ * committed only while a recording has them enabled (category "All Fours").
+ *
+ * Everything is registered in one registry, readable as Prometheus text
+ * (scrape(), or over HTTP with serve(port)) or printed with dump().
+ */
+
+public final class Metrics {
+    public static final boolean ENABLED = Boolean.getBoolean("allfours.metrics");
+
+    private static final List<Metric> REGISTRY = new CopyOnWriteArrayList<>();
+
+    public static final Counter ROUNDS = counter("allfours_rounds_total", "Hands dealt, including thrown-in hands");
+    public static final Counter THROW_INS = counter("allfours_throw_ins_total", "Hands thrown in when the pack ran out");
+    public static final Histogram ROUND_TIME = histogram("allfours_round_seconds", "Time to play a hand", 1e-9);
+    public static final Counter BEGS = counter("allfours_begs_total", "Begs");
+    public static final Counter GIVES = counter("allfours_gives_total", "Begs answered with a chalk");
+    public static final Counter PACK_RUNS = counter("allfours_pack_runs_total", "Begs answered by running the pack");
+    public static final Histogram PACK_RUN_DEALS = histogram("allfours_pack_run_deals",
+            "Three-card deals each time the pack is run", 1);
+    public static final Histogram BEGGING_TIME = histogram("allfours_begging_seconds",
+            "Time from the beg to the final trump, decisions included", 1e-9);
+    public static final Histogram TRICK_TIME = histogram("allfours_trick_seconds", "Time to play a trick", 1e-9);
+    public static final Histogram DECISION_TIME = histogram("allfours_decision_seconds",
+            "Time a DecisionProvider takes to choose a card", 1e-9);
+    public static final Counter ILLEGAL_CHOICES = counter("allfours_illegal_choices_total",
+            "Cards chosen that were not legal to play, retried ones included");
+    public static final Histogram DEAL_TIME = histogram("allfours_deal_seconds", "Time to deal a round of cards", 1e-9);
+    public static final Counter SHORT_DEALS = counter("allfours_short_deals_total",
+            "Deals refused because the pack ran out");
+
+    private Metrics() {
+    }
+
+    public static Counter counter(String name, String help) {
+        Counter counter = new Counter(name, help);
+        REGISTRY.add(counter);
+        return counter;
+    }
+
+    // scale converts recorded values to the reported unit (1e-9 for nanoseconds reported as seconds)
+    public static Histogram histogram(String name, String help, double scale) {
+        Histogram histogram = new Histogram(name, help, scale);
+        REGISTRY.add(histogram);
+        return histogram;
+    }
+
+    public abstract static class Metric {
+        final String name;
+        final String help;
+
+        Metric(String name, String help) {
+            this.name = name;
+            this.help = help;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        abstract void write(StringBuilder out);
+    }
+
+    public static final class Counter extends Metric {
+        private final LongAdder count = new LongAdder();
+
+        Counter(String name, String help) {
+            super(name, help);
+        }
+
+        public void increment() {
+            count.increment();
+        }
+
+        public void add(long n) {
+            count.add(n);
+        }
+
+        public long get() {
+            return count.sum();
+        }
+
+        @Override
+        void write(StringBuilder out) {
+            out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+            out.append("# TYPE ").append(name).append(" counter\n");
+            out.append(name).append(' ').append(get()).append('\n');
+        }
+    }
+
+    /*
+     * Log-linear histogram of non-negative longs: eight buckets per power of
+     * two, so any quantile is within 12.5% of the true value. Recording is
+     * one atomic increment per value plus the count, sum and max.
+     */
+    public static final class Histogram extends Metric {
+        private static final int SUB_BITS = 3;
+        private static final int SUB_BUCKETS = 1 << SUB_BITS;
+        private static final int BUCKETS = (64 - SUB_BITS + 1) * SUB_BUCKETS;
+        private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+        private final double scale;
+
+        Histogram(String name, String help, double scale) {
+            super(name, help);
+            this.scale = scale;
+        }
+
+        static int bucket(long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) Math.max(value, 0);
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+            return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+        }
+
+        // The largest value that falls in a bucket
+        static long upperBound(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+            int shift = bucket / SUB_BUCKETS - 1;
+            long lower = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+            return lower + (1L << shift) - 1;
+        }
+
+        public void record(long value) {
+            buckets.incrementAndGet(bucket(value));
+            count.increment();
+            sum.add(value);
+            long current;
+            while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+                // Retry against the newer maximum
+            }
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getMax() {
+            return max.get();
+        }
+
+        public double getMean() {
+            long n = count.sum();
+            return n == 0 ? 0 : (double) sum.sum() / n;
+        }
+
+        // The value below which a fraction q of recorded values fall, in recorded units
+        public long quantile(double q) {
+            long[] counts = new long[BUCKETS];
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = buckets.get(i);
+                total += counts[i];
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(q * total);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(upperBound(i), max.get());
+                }
+            }
+            return max.get();
+        }
+
+        @Override
+        void write(StringBuilder out) {
+            out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+            out.append("# TYPE ").append(name).append(" summary\n");
+            for (double q : QUANTILES) {
+                out.append(name).append("{quantile=\"").append(q).append("\"} ")
+                        .append(format(quantile(q) * scale)).append('\n');
+            }
+            out.append(name).append("_sum ").append(format(sum.sum() * scale)).append('\n');
+            out.append(name).append("_count ").append(getCount()).append('\n');
+        }
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.9g", value);
+    }
+
+    // The registry in the Prometheus text exposition format
+    public static String scrape() {
+        StringBuilder out = new StringBuilder();
+        for (Metric metric : REGISTRY) {
+            metric.write(out);
+        }
+        return out.toString();
+    }
+
+    public static void dump(PrintStream out) {
+        out.print(scrape());
+    }
+
+    // Serves scrape() at http://<host>:port/metrics on a background thread
+    public static HttpServer serve(int port) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/metrics", exchange -> {
+            byte[] body = scrape().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    // Recording, called only when ENABLED
+
+    static void roundPlayed(RoundEvent event, long start, int dealerSeat, boolean thrownIn) {
+        ROUNDS.increment();
+        ROUND_TIME.record(System.nanoTime() - start);
+        if (thrownIn) {
+            THROW_INS.increment();
+        }
+        if (event.shouldCommit()) {
+            event.dealerSeat = dealerSeat;
+            event.thrownIn = thrownIn;
+            event.commit();
+        }
+    }
+
+    static void beggingDone(BeggingEvent event, long start, boolean begged, boolean gave, int packDeals) {
+        if (!begged) {
+            return; // Standing is not a beg
+        }
+        BEGS.increment();
+        BEGGING_TIME.record(System.nanoTime() - start);
+        if (gave) {
+            GIVES.increment();
+        } else {
+            PACK_RUNS.increment();
+            PACK_RUN_DEALS.record(packDeals);
+        }
+        if (event.shouldCommit()) {
+            event.gave = gave;
+            event.packDeals = packDeals;
+            event.commit();
+        }
+    }
+
+    static void trickPlayed(TrickEvent event, long start, int leaderSeat, int winnerSeat, int points) {
+        TRICK_TIME.record(System.nanoTime() - start);
+        if (event.shouldCommit()) {
+            event.leaderSeat = leaderSeat;
+            event.winnerSeat = winnerSeat;
+            event.points = points;
+            event.commit();
+        }
+    }
+
+    static void decisionMade(DecisionEvent event, long start, Player player, Card card, boolean legal) {
+        DECISION_TIME.record(System.nanoTime() - start);
+        if (!legal) {
+            ILLEGAL_CHOICES.increment();
+        }
+        if (event.shouldCommit()) {
+            event.player = player.getName();
+            event.card = card == null ? null : card.toString();
+            event.legal = legal;
+            event.commit();
+        }
+    }
+
+    // A provider refused a card and asked again
+    static void illegalChoice() {
+        ILLEGAL_CHOICES.increment();
+    }
+
+    static void dealt(DealEvent event, long start, int cardsEach, boolean dealt) {
+        DEAL_TIME.record(System.nanoTime() - start);
+        if (!dealt) {
+            SHORT_DEALS.increment();
+        }
+        if (event.shouldCommit()) {
+            event.cardsEach = cardsEach;
+            event.dealt = dealt;
+            event.commit();
+        }
+    }
+
+    @Name("allfours.Round")
+    @Label("Hand")
+    @Category("All Fours")
+    @Description("Round.playRound(): one hand, from the deal to the last chalk")
+    static final class RoundEvent extends Event {
+        @Label("Dealer Seat")
+        int dealerSeat;
+
+        @Label("Thrown In")
+        boolean thrownIn;
+    }
+
+    @Name("allfours.Begging")
+    @Label("Beg")
+    @Category("All Fours")
+    @Description("Round.beggingPhase() after a beg: the dealer's answer and any run of the pack")
+    static final class BeggingEvent extends Event {
+        @Label("Gave")
+        boolean gave;
+
+        @Label("Pack Run Deals")
+        int packDeals;
+    }
+
+    @Name("allfours.Trick")
+    @Label("Trick")
+    @Category("All Fours")
+    static final class TrickEvent extends Event {
+        @Label("Leader Seat")
+        int leaderSeat;
+
+        @Label("Winner Seat")
+        int winnerSeat;
+
+        @Label("Game Points")
+        int points;
+    }
+
+    @Name("allfours.Decision")
+    @Label("Card Decision")
+    @Category("All Fours")
+    @Description("Player.chooseCardToPlay(): the DecisionProvider choosing a card")
+    static final class DecisionEvent extends Event {
+        @Label("Player")
+        String player;
+
+        @Label("Card")
+        String card;
+
+        @Label("Legal")
+        boolean legal;
+    }
+
+    @Name("allfours.Deal")
+    @Label("Deal")
+    @Category("All Fours")
+    static final class DealEvent extends Event {
+        @Label("Cards Each")
+        int cardsEach;
+
+        @Label("Dealt")
+        boolean dealt;
+    }
+}
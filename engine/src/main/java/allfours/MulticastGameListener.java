@@ -0,0 +1,183 @@
+package allfours;
+
+import java.util.List;
+
+/*
+ * GameListener that passes every event on to several listeners, in order.
+ * GameController uses it so that bots which follow the play (decision
+ * providers that are also listeners) hear the match alongside the
+ * console, statistics and so on.
+ */
+
+public class MulticastGameListener implements GameListener {
+    private final GameListener[] listeners;
+
+    public MulticastGameListener(GameListener... listeners) {
+        this.listeners = listeners.clone();
+    }
+
+    public MulticastGameListener(List<GameListener> listeners) {
+        this.listeners = listeners.toArray(new GameListener[0]);
+    }
+
+    @Override
+    public void matchStarted(Player firstDealer) {
+        for (GameListener listener : listeners) {
+            listener.matchStarted(firstDealer);
+        }
+    }
+
+    @Override
+    public void roundStarted(Player dealer) {
+        for (GameListener listener : listeners) {
+            listener.roundStarted(dealer);
+        }
+    }
+
+    @Override
+    public void roundFinished(Team teamA, Team teamB) {
+        for (GameListener listener : listeners) {
+            listener.roundFinished(teamA, teamB);
+        }
+    }
+
+    @Override
+    public void dealerRotated(Player dealer) {
+        for (GameListener listener : listeners) {
+            listener.dealerRotated(dealer);
+        }
+    }
+
+    @Override
+    public void matchFinished(Team winner) {
+        for (GameListener listener : listeners) {
+            listener.matchFinished(winner);
+        }
+    }
+
+    @Override
+    public void cardsDealt(List<Player> players, int cardsEach) {
+        for (GameListener listener : listeners) {
+            listener.cardsDealt(players, cardsEach);
+        }
+    }
+
+    @Override
+    public void handResumed(GameController game) {
+        for (GameListener listener : listeners) {
+            listener.handResumed(game);
+        }
+    }
+
+    @Override
+    public void handsDealt(List<Player> players) {
+        for (GameListener listener : listeners) {
+            listener.handsDealt(players);
+        }
+    }
+
+    @Override
+    public void cardKicked(Card kickedCard, boolean runningPack) {
+        for (GameListener listener : listeners) {
+            listener.cardKicked(kickedCard, runningPack);
+        }
+    }
+
+    @Override
+    public void kickChalk(Team dealerTeam, int chalk) {
+        for (GameListener listener : listeners) {
+            listener.kickChalk(dealerTeam, chalk);
+        }
+    }
+
+    @Override
+    public void begResponse(Player beggar, boolean begged) {
+        for (GameListener listener : listeners) {
+            listener.begResponse(beggar, begged);
+        }
+    }
+
+    @Override
+    public void chalkGiven(Team beggingTeam) {
+        for (GameListener listener : listeners) {
+            listener.chalkGiven(beggingTeam);
+        }
+    }
+
+    @Override
+    public void packRun(Player dealer) {
+        for (GameListener listener : listeners) {
+            listener.packRun(dealer);
+        }
+    }
+
+    @Override
+    public void sameTrumpKicked() {
+        for (GameListener listener : listeners) {
+            listener.sameTrumpKicked();
+        }
+    }
+
+    @Override
+    public void packExhausted() {
+        for (GameListener listener : listeners) {
+            listener.packExhausted();
+        }
+    }
+
+    @Override
+    public void trickStarted(int trickNumber, Player leader) {
+        for (GameListener listener : listeners) {
+            listener.trickStarted(trickNumber, leader);
+        }
+    }
+
+    @Override
+    public void cardPlayed(Player player, Card card) {
+        for (GameListener listener : listeners) {
+            listener.cardPlayed(player, card);
+        }
+    }
+
+    @Override
+    public void trickWon(Player winner, int points) {
+        for (GameListener listener : listeners) {
+            listener.trickWon(winner, points);
+        }
+    }
+
+    @Override
+    public void jackPlayed(Player jackPlayer, boolean hung) {
+        for (GameListener listener : listeners) {
+            listener.jackPlayed(jackPlayer, hung);
+        }
+    }
+
+    @Override
+    public void highAwarded(Team team, Card highTrump) {
+        for (GameListener listener : listeners) {
+            listener.highAwarded(team, highTrump);
+        }
+    }
+
+    @Override
+    public void lowAwarded(Team team, Card lowTrump) {
+        for (GameListener listener : listeners) {
+            listener.lowAwarded(team, lowTrump);
+        }
+    }
+
+    @Override
+    public void jackAwarded(Team team, boolean hung) {
+        for (GameListener listener : listeners) {
+            listener.jackAwarded(team, hung);
+        }
+    }
+
+    @Override
+    public void gameAwarded(Team team, boolean tiebreak) {
+        for (GameListener listener : listeners) {
+            listener.gameAwarded(team, tiebreak);
+        }
+    }
+}
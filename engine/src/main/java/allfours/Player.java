@@ -0,0 +1,181 @@
+package allfours;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/*
+ * Attributes:
+ * - Player's name
+ * - Player's hand
+ * - Player's hand as a 52-bit card mask (see CardSet), kept in step with the hand
+ * - Player's DecisionProvider, which makes the player's choices (console prompts by default)
+ * 
+ * Methods:
+ * - addCard(Card card): Adds a card to the player's hand
+ * - getHand(): Returns the player's hand
+ * - clearHand(): Empties the player's hand
+ * - getDecisions(): Returns the player's DecisionProvider
+ * - getName(): Returns the player's name
+ * - showHand(): Displays the player's hand
+ * - getHandMask(): Returns the player's hand as a card mask
+ * - legalMoves(String leadSuit, String trumpSuit, List<Card> playedCards): Returns the mask of cards the player may legally play
+ * - chooseCardToPlay(String leadSuit, String trumpSuit, List<Card> playedCards): asks the DecisionProvider for a card and plays it
+ */
+
+public class Player {
+    // Six dealt plus three for each of the (at most two) runs of the pack a deck allows
+    private static final int MAX_HAND_SIZE = 12;
+
+    private String name;
+    private List<Card> hand;
+    private long handMask;
+    private DecisionProvider decisions;
+
+    public Player(String name) {
+        this(name, ConsoleDecisionProvider.INSTANCE);
+    }
+
+    public Player(String name, DecisionProvider decisions) {
+        this.name = name;
+        this.hand = new ArrayList<>(MAX_HAND_SIZE);
+        this.decisions = decisions;
+    }
+
+    public void addCard(Card card) {
+        hand.add(card);
+        handMask |= CardSet.bit(card);
+    }
+
+    // Replaces the hand with the cards of a CardSet, in card order (restoring a MatchSnapshot)
+    void restoreHand(long cards) {
+        clearHand();
+        for (long rest = cards; rest != 0; rest &= rest - 1) {
+            addCard(Card.of(Long.numberOfTrailingZeros(rest)));
+        }
+    }
+
+    public List<Card> getHand() {
+        return hand;
+    }
+
+    public void clearHand() {
+        hand.clear();
+        handMask = CardSet.EMPTY;
+    }
+
+    public DecisionProvider getDecisions() {
+        return decisions;
+    }
+
+    public void setDecisions(DecisionProvider decisions) {
+        this.decisions = decisions;
+    }
+
+    public long getHandMask() {
+        return handMask;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void showHand() {
+        sortHand();
+        System.out.println(name + "'s hand:");
+        for (Card card : hand) {
+            System.out.println("  " + card);
+        }
+    }
+
+    /*
+     * @param leadSuit The suit of the card called in the trick
+     * 
+     * @param trumpSuit The trump suit for the round
+     * 
+     * @param playedCards The cards already played in the trick
+     * 
+     * @return The card chosen by the player
+     * 
+     * Asks the player's DecisionProvider for a card and removes it from the hand.
+     * The card must follow the suit called, unless it is trump
+     * However, the player cannot undertrump unless they are down to trump
+     */
+    public Card chooseCardToPlay(String leadSuit, String trumpSuit, List<Card> playedCards) {
+        Metrics.DecisionEvent event = null;
+        long start = 0;
+        if (Metrics.ENABLED) {
+            event = new Metrics.DecisionEvent();
+            event.begin();
+            start = System.nanoTime();
+        }
+        Card selected = decisions.chooseCard(this, leadSuit, trumpSuit, playedCards);
+        boolean legal = CardSet.contains(legalMoves(leadSuit, trumpSuit, playedCards), selected);
+        if (Metrics.ENABLED) {
+            Metrics.decisionMade(event, start, this, selected, legal);
+        }
+
+        if (!legal) {
+            throw new IllegalStateException(name + " chose an illegal card: " + selected);
+        }
+
+        hand.remove(selected);
+        handMask &= ~CardSet.bit(selected);
+        return selected;
+    }
+
+    /*
+     * @param leadSuit The suit of the card called in the trick, or null if leading
+     *
+     * @param trumpSuit The trump suit for the round
+     *
+     * @param playedCards The cards already played in the trick
+     *
+     * @return The mask of cards in hand that may legally be played
+     */
+    public long legalMoves(String leadSuit, String trumpSuit, List<Card> playedCards) {
+        return legalMoves(handMask, Card.suitIndexOf(leadSuit), Card.suitIndexOf(trumpSuit),
+                CardSet.of(playedCards));
+    }
+
+    /*
+     * Mask form of the follow-suit and no-undertrump rules.
+     * A player holding the lead suit must play it or trump. Once trump has been
+     * played to a non-trump lead, a lower trump may only be played by a player
+     * holding nothing but trump.
+     *
+     * @param hand The cards held
+     * @param leadSuit The suit index led, or -1 if leading
+     * @param trumpSuit The trump suit index
+     * @param played The cards already played in the trick
+     */
+    public static long legalMoves(long hand, int leadSuit, int trumpSuit, long played) {
+        if (leadSuit < 0) {
+            return hand;
+        }
+
+        long trumpMask = CardSet.suit(trumpSuit);
+        long trumps = hand & trumpMask;
+        long followers = hand & CardSet.suit(leadSuit);
+        long legal = followers != 0 ? followers | trumps : hand;
+
+        long playedTrumps = played & trumpMask;
+        if (leadSuit != trumpSuit && playedTrumps != 0 && (hand & ~trumpMask) != 0) {
+            long belowHighest = (Long.highestOneBit(playedTrumps) - 1) & trumpMask;
+            legal &= ~belowHighest;
+        }
+        return legal;
+    }
+
+    public void sortHand() {
+        hand.sort(new Comparator<Card>() {
+            @Override
+            public int compare(Card c1, Card c2) {
+                int suitCompare = c1.getSuit().compareTo(c2.getSuit());
+                if (suitCompare != 0)
+                    return suitCompare;
+                return CardComparator.compare(c1, c2);
+            }
+        });
+    }
+}
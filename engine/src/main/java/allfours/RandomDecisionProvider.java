@@ -0,0 +1,51 @@
+package allfours;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/*
+ * DecisionProvider that plays a uniformly random legal card and answers
+ * begs with fixed probabilities. Used for headless matches and as the
+ * baseline opponent in simulations.
+ */
+
+public class RandomDecisionProvider implements DecisionProvider {
+    private final RandomGenerator rng;
+    private final double begProbability;
+    private final double giveProbability;
+
+    public RandomDecisionProvider() {
+        this(new SplittableRandom());
+    }
+
+    public RandomDecisionProvider(RandomGenerator rng) {
+        this(rng, 0.5, 0.5);
+    }
+
+    public RandomDecisionProvider(RandomGenerator rng, double begProbability, double giveProbability) {
+        this.rng = rng;
+        this.begProbability = begProbability;
+        this.giveProbability = giveProbability;
+    }
+
+    @Override
+    public Card chooseCard(Player player, String leadSuit, String trumpSuit, List<Card> playedCards) {
+        long legal = player.legalMoves(leadSuit, trumpSuit, playedCards);
+        // Skip a random number of set bits, then take the lowest remaining one
+        for (int skip = rng.nextInt(Long.bitCount(legal)); skip > 0; skip--) {
+            legal &= legal - 1;
+        }
+        return CardSet.first(legal);
+    }
+
+    @Override
+    public boolean wantsToBeg(Player player, Card kickedCard) {
+        return rng.nextDouble() < begProbability;
+    }
+
+    @Override
+    public boolean givesChalk(Player dealer, Card kickedCard) {
+        return rng.nextDouble() < giveProbability;
+    }
+}
@@ -0,0 +1,448 @@
+package allfours;
+
+import java.util.List;
+
+/*
+ * One hand of a match: deal, kick, begging, tricks and chalk.
+ * A Round is reusable; GameController resets it with the next dealer and
+ * plays it again, so a hand in steady state allocates nothing.
+ */
+
+public class Round {
+    // RIGHT_OF[seat] is the seat to the right of seat
+    private static final int[] RIGHT_OF = {3, 0, 1, 2};
+
+    private Deck deck;
+    private List<Player> players;
+    private Team[] teamBySeat;
+    private Trick trick;
+    private Player dealer;
+    private int dealerSeat;
+    private Team dealerTeam;
+    private Team teamA;
+    private Team teamB;
+    private String trumpSuit;
+    private int trumpIndex;
+    private boolean roundAborted = false;
+    private Team teamRanJack = null;
+    private Team teamHungJack = null;
+    private GameListener listener;
+
+    // Where the hand stands, for MatchSnapshot
+    static final int HAND_START = 0;
+    static final int BIDDING = 1;   // Dealt: kicks, begging, running the pack
+    static final int TRICKS = 2;
+    static final int SCORING = 3;
+    private int phase = HAND_START;
+
+    // Trick play state, kept in fields so a restored hand can pick up mid-trick
+    private Card highTrump;
+    private Card lowTrump;
+    private Team highTeam;
+    private Team lowTeam;
+    private int trickNumber;
+    private int leaderSeat;
+
+    // How the last begging phase went, for Metrics
+    private boolean begged;
+    private boolean gave;
+    private int packDeals;
+
+    public boolean wasRoundAborted() { // Didthe pack run out?
+        return roundAborted;
+    }
+
+    public Round(List<Player> players, Player dealer, Team teamA, Team teamB) {
+        this(players, dealer, teamA, teamB, ConsoleGameListener.INSTANCE, new Deck());
+    }
+
+    // The deck is reset and reshuffled at the start of playRound, so one Deck can serve a whole match
+    public Round(List<Player> players, Player dealer, Team teamA, Team teamB, GameListener listener, Deck deck) {
+        this.listener = listener;
+        this.deck = deck;
+        this.players = players;
+        this.teamA = teamA;
+        this.teamB = teamB;
+        this.teamBySeat = new Team[players.size()];
+        for (int seat = 0; seat < players.size(); seat++) {
+            Player player = players.get(seat);
+            teamBySeat[seat] = (player == teamA.getPlayer1() || player == teamA.getPlayer2()) ? teamA : teamB;
+        }
+        this.trick = new Trick(players, listener);
+        reset(dealer);
+    }
+
+    // Prepares the round to be played again with the given dealer
+    public void reset(Player dealer) {
+        this.dealer = dealer;
+        this.dealerSeat = players.indexOf(dealer);
+        this.dealerTeam = teamBySeat[dealerSeat];
+    }
+
+    public Player getDealer() {
+        return dealer;
+    }
+
+    public void playRound() {
+        if (!Metrics.ENABLED) {
+            playHand();
+            return;
+        }
+        Metrics.RoundEvent event = new Metrics.RoundEvent();
+        event.begin();
+        long start = System.nanoTime();
+        playHand();
+        Metrics.roundPlayed(event, start, dealerSeat, roundAborted);
+    }
+
+    private void playHand() {
+        phase = HAND_START;
+        teamHungJack = null;
+        teamRanJack = null;
+        roundAborted = false;
+
+        // Hands left over from an aborted round are thrown in, and game points restart
+        for (int seat = 0; seat < players.size(); seat++) {
+            players.get(seat).clearHand();
+        }
+        teamA.resetGameScore();
+        teamB.resetGameScore();
+
+        deck.reset();
+        deck.shuffle();
+
+        listener.roundStarted(dealer);
+
+        boolean success = deck.deal(players, 6);
+        if (!success) {
+            roundAborted = true;
+            return;
+        }
+        phase = BIDDING;
+        listener.cardsDealt(players, 6);
+
+        Card kickedCard = deck.kick();
+        setTrump(kickedCard);
+        listener.cardKicked(kickedCard, false);
+
+        awardKickPoints(kickedCard);
+        if (teamA.getMatchScore() >= 14 || teamB.getMatchScore() >= 14)
+            return;
+
+        listener.handsDealt(players);
+
+        // Initiate begging phase
+        if (beggingPhase(kickedCard)) {
+            // If beggingPhase() returns true → pack ran out → abort round
+            roundAborted = true;
+            return;
+        }
+        if (teamA.getMatchScore() >= 14 || teamB.getMatchScore() >= 14)
+            return; // Match won on a kick while running the pack
+
+        // Show all players' hands
+        listener.handsDealt(players);
+
+        // No High or Low is scored if nobody was dealt a trump
+        highTrump = findHighTrump();
+        lowTrump = findLowTrump();
+        highTeam = highTrump == null ? null : teamBySeat[deck.getSeat(highTrump)];
+        lowTeam = lowTrump == null ? null : teamBySeat[deck.getSeat(lowTrump)];
+
+        phase = TRICKS;
+        trickNumber = 0;
+        leaderSeat = RIGHT_OF[dealerSeat]; // Player to the right of dealer is on top
+        playAllTricks();
+
+        // After all tricks are played, allocate match points
+        phase = SCORING;
+        allocateEndOfRoundPoints(highTeam, lowTeam, highTrump, lowTrump);
+
+    }
+
+    /*
+     * Finishes a hand restored mid-trick by MatchSnapshot: the trick on the
+     * table, the rest of the tricks, then the chalk.
+     */
+    void resumeHand() {
+        roundAborted = false;
+        finishTrick();
+        playAllTricks();
+        phase = SCORING;
+        allocateEndOfRoundPoints(highTeam, lowTeam, highTrump, lowTrump);
+    }
+
+    /*
+     * Sets up trick play as a snapshot recorded it; hands and scores are restored by the caller
+     *
+     * @param trickCards The cards on the table in play order, led by leaderSeat
+     */
+    void restoreTricks(int trumpIndex, Card highTrump, Team highTeam, Card lowTrump, Team lowTeam,
+            Team teamRanJack, Team teamHungJack, int trickNumber, int leaderSeat, List<Card> trickCards) {
+        this.trumpIndex = trumpIndex;
+        this.trumpSuit = Card.SUITS[trumpIndex];
+        this.highTrump = highTrump;
+        this.highTeam = highTeam;
+        this.lowTrump = lowTrump;
+        this.lowTeam = lowTeam;
+        this.teamRanJack = teamRanJack;
+        this.teamHungJack = teamHungJack;
+        this.trickNumber = trickNumber;
+        this.leaderSeat = leaderSeat;
+        trick.reset(trumpSuit, leaderSeat);
+        for (int i = 0; i < trickCards.size(); i++) {
+            trick.restorePlayed(trickCards.get(i));
+        }
+        phase = TRICKS;
+    }
+
+    // Snapshot state
+
+    int getPhase() {
+        return phase;
+    }
+
+    int getDealerSeat() {
+        return dealerSeat;
+    }
+
+    int getTrumpIndex() {
+        return trumpIndex;
+    }
+
+    Deck getDeck() {
+        return deck;
+    }
+
+    Team getDealerTeam() {
+        return dealerTeam;
+    }
+
+    List<Player> getPlayers() {
+        return players;
+    }
+
+    Team getTeam(int seat) {
+        return teamBySeat[seat];
+    }
+
+    // The trick being played
+    public Trick getTrick() {
+        return trick;
+    }
+
+    int getTrickNumber() {
+        return trickNumber;
+    }
+
+    // On top for the trick in play (the trick object may still hold the last one until it is led)
+    int getLeaderSeat() {
+        return leaderSeat;
+    }
+
+    Card getHighTrump() {
+        return highTrump;
+    }
+
+    Card getLowTrump() {
+        return lowTrump;
+    }
+
+    Team getHighTeam() {
+        return highTeam;
+    }
+
+    Team getLowTeam() {
+        return lowTeam;
+    }
+
+    Team getTeamRanJack() {
+        return teamRanJack;
+    }
+
+    Team getTeamHungJack() {
+        return teamHungJack;
+    }
+
+    public void allocateEndOfRoundPoints(Team highTeam, Team lowTeam, Card highTrump, Card lowTrump) {
+        // Give point for High
+        if (highTeam != null) {
+            highTeam.addChalk(1); // Add 1 chalk to the team
+            listener.highAwarded(highTeam, highTrump);
+            if (teamA.getMatchScore() >= 14 || teamB.getMatchScore() >= 14)
+                return;
+        }
+
+        // Give point for Low
+        if (lowTeam != null) {
+            lowTeam.addChalk(1); // Add 1 chalk to the team
+            listener.lowAwarded(lowTeam, lowTrump);
+            if (teamA.getMatchScore() >= 14 || teamB.getMatchScore() >= 14)
+                return;
+        }
+
+        if (teamRanJack != null) {
+            teamRanJack.addChalk(1);
+            listener.jackAwarded(teamRanJack, false);
+            if (teamA.getMatchScore() >= 14 || teamB.getMatchScore() >= 14)
+                return;
+        } else if (teamHungJack != null) {
+            teamHungJack.addChalk(3);
+            listener.jackAwarded(teamHungJack, true);
+            if (teamA.getMatchScore() >= 14 || teamB.getMatchScore() >= 14)
+                return;
+        }
+
+        // Give 2 points for game
+        int teamAScore = teamA.getGameScore();
+        int teamBScore = teamB.getGameScore();
+        if (teamAScore > teamBScore) {
+            teamA.addChalk(2);
+            listener.gameAwarded(teamA, false);
+            if (teamA.getMatchScore() >= 14 || teamB.getMatchScore() >= 14)
+                return;
+        } else if (teamBScore > teamAScore) {
+            teamB.addChalk(2);
+            listener.gameAwarded(teamB, false);
+            if (teamA.getMatchScore() >= 14 || teamB.getMatchScore() >= 14)
+                return;
+        } else {
+            // Tie → non-dealer team wins Game
+            Team nonDealerTeam = (dealerTeam == teamA) ? teamB : teamA;
+            nonDealerTeam.addChalk(2);
+            listener.gameAwarded(nonDealerTeam, true);
+            if (teamA.getMatchScore() >= 14 || teamB.getMatchScore() >= 14)
+                return;
+        }
+    }
+
+    private boolean beggingPhase(Card kickedCard) {
+        if (!Metrics.ENABLED) {
+            return beg(kickedCard);
+        }
+        Metrics.BeggingEvent event = new Metrics.BeggingEvent();
+        event.begin();
+        long start = System.nanoTime();
+        boolean exhausted = beg(kickedCard);
+        Metrics.beggingDone(event, start, begged, gave, packDeals);
+        return exhausted;
+    }
+
+    // The begging phase proper; true if the pack ran out while being run
+    private boolean beg(Card kickedCard) {
+        begged = false;
+        gave = false;
+        packDeals = 0;
+        int beggingSeat = RIGHT_OF[dealerSeat];
+        Player beggingPlayer = players.get(beggingSeat);
+
+        begged = beggingPlayer.getDecisions().wantsToBeg(beggingPlayer, kickedCard);
+        listener.begResponse(beggingPlayer, begged);
+        if (!begged) {
+            return false; // Player stood → round continues
+        }
+
+        // Player begged → dealer must respond
+        if (dealer.getDecisions().givesChalk(dealer, kickedCard)) {
+            // Dealer gives 1 chalk to begging team
+            gave = true;
+            Team beggingTeam = teamBySeat[beggingSeat];
+            beggingTeam.addChalk(1);
+            listener.chalkGiven(beggingTeam);
+            return false; // round continues
+        }
+
+        // Dealer chooses to run the pack
+        listener.packRun(dealer);
+
+        while (true) {
+            // ⭐ Reuse Deck's safe deal() method
+            boolean success = deck.deal(players, 3);
+            if (!success) {
+                listener.packExhausted(); // The refused deal counts in SHORT_DEALS, not in packDeals
+                return true; // Signal to GameController to restart round
+            }
+            packDeals++;
+            listener.cardsDealt(players, 3);
+
+            // Kick new card + award dealer team if Ace/6/Jack
+            Card newKick = deck.kick();
+            listener.cardKicked(newKick, true);
+
+            awardKickPoints(newKick); // ⭐ Clean reusable method
+            if (teamA.getMatchScore() >= 14 || teamB.getMatchScore() >= 14)
+                return false; // Match is over; playRound stops before the tricks
+
+            // Check if new trump is different
+            if (newKick.getSuitIndex() != trumpIndex) {
+                setTrump(newKick);
+                break; // trump changed → continue round
+            }
+
+            // Otherwise → same trump → run pack again
+            listener.sameTrumpKicked();
+        }
+
+        return false; // Round continues normally
+    }
+
+    // Plays tricks until the hands are empty, from the trick after the current one
+    private void playAllTricks() {
+        while (players.get(leaderSeat).getHandMask() != CardSet.EMPTY) { // Plays all the tricks
+            trickNumber++;
+            listener.trickStarted(trickNumber, players.get(leaderSeat));
+            trick.reset(trumpSuit, leaderSeat);
+            finishTrick();
+        }
+    }
+
+    // Plays out the trick on the table and scores it
+    private void finishTrick() {
+        trick.play();
+        int winnerSeat = trick.getWinnerSeat();
+        Team winnerTeam = teamBySeat[winnerSeat];
+        winnerTeam.addGamePoints(trick.getPointsEarned());
+        leaderSeat = winnerSeat; // Winner is on top for next trick
+
+        // Check for hangjack
+        if (trick.isJackPlayed()) {
+            Team jackTeam = teamBySeat[trick.getJackSeat()];
+            if (jackTeam == winnerTeam) {
+                listener.jackPlayed(trick.getJackPlayer(), false);
+                teamRanJack = jackTeam;
+            } else {
+                listener.jackPlayed(trick.getJackPlayer(), true);
+                teamHungJack = winnerTeam;
+            }
+        }
+    }
+
+    public String getTrumpSuit() {
+        return trumpSuit;
+    }
+
+    // Trump follows the suit of the kicked card
+    void setTrump(Card kickedCard) {
+        trumpSuit = kickedCard.getSuit();
+        trumpIndex = kickedCard.getSuitIndex();
+    }
+
+    // Return the highest trump card dealt this round, from the deck's index of dealt cards
+    Card findHighTrump() {
+        return CardSet.highest(deck.getDealt(), trumpIndex);
+    }
+
+    // Return the lowest trump card dealt this round
+    Card findLowTrump() {
+        return CardSet.lowest(deck.getDealt(), trumpIndex);
+    }
+
+    private void awardKickPoints(Card kickedCard) {
+        int chalkPoints = Rules.kickChalk(kickedCard.getRankIndex()); // Ace = 1, 6 = 2, Jack = 3
+
+        if (chalkPoints > 0) {
+            dealerTeam.addChalk(chalkPoints);
+            listener.kickChalk(dealerTeam, chalkPoints);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package allfours;
+
+/*
+ * Lookup tables for trick resolution and scoring, built once at class load.
+ *
+ * - beats(c1, c2, leadSuit, trumpSuit): does c1 beat c2 in a trick? One long read
+ *   from BEATS, which holds, per (lead suit, trump suit, card), the mask of cards it beats
+ * - gamePoints(ordinal): game points a card is worth in a trick
+ * - kickChalk(rank index): chalk the dealer's team earns for kicking the rank
+ *
+ * The tables are private so no caller can change the scoring; the accessors
+ * are a single array read that the JIT inlines.
+ */
+
+public final class Rules {
+    private static final int[] GAME_POINTS = new int[Card.NUM_CARDS];
+    private static final int[] KICK_CHALK = new int[Card.NUM_RANKS];
+
+    private static final long[] BEATS = new long[Card.NUM_SUITS * Card.NUM_SUITS * Card.NUM_CARDS];
+
+    static {
+        for (int card = 0; card < Card.NUM_CARDS; card++) {
+            switch (card % Card.NUM_RANKS) {
+                case Card.ACE: GAME_POINTS[card] = 4; break;
+                case Card.KING: GAME_POINTS[card] = 3; break;
+                case Card.QUEEN: GAME_POINTS[card] = 2; break;
+                case Card.JACK: GAME_POINTS[card] = 1; break;
+                case Card.TEN: GAME_POINTS[card] = 10; break;
+                default: break;
+            }
+        }
+
+        KICK_CHALK[Card.ACE] = 1;
+        KICK_CHALK[Card.SIX] = 2;
+        KICK_CHALK[Card.JACK] = 3;
+
+        for (int lead = 0; lead < Card.NUM_SUITS; lead++) {
+            for (int trump = 0; trump < Card.NUM_SUITS; trump++) {
+                for (int c1 = 0; c1 < Card.NUM_CARDS; c1++) {
+                    long beaten = 0;
+                    for (int c2 = 0; c2 < Card.NUM_CARDS; c2++) {
+                        if (computeBeats(c1, c2, lead, trump)) {
+                            beaten |= 1L << c2;
+                        }
+                    }
+                    BEATS[index(c1, lead, trump)] = beaten;
+                }
+            }
+        }
+    }
+
+    private Rules() {
+    }
+
+    /*
+     * @param c1 The card played
+     * @param c2 The current winning card
+     * @param leadSuit The suit index called in the trick
+     * @param trumpSuit The trump suit index
+     * @return true if c1 is better than c2
+     */
+    public static boolean beats(Card c1, Card c2, int leadSuit, int trumpSuit) {
+        return (BEATS[index(c1.getOrdinal(), leadSuit, trumpSuit)] & (1L << c2.getOrdinal())) != 0;
+    }
+
+    // The mask of cards that card beats for the given lead and trump suits
+    public static long beatenBy(int card, int leadSuit, int trumpSuit) {
+        return BEATS[index(card, leadSuit, trumpSuit)];
+    }
+
+    public static int gamePoints(Card card) {
+        return GAME_POINTS[card.getOrdinal()];
+    }
+
+    public static int gamePoints(int ordinal) {
+        return GAME_POINTS[ordinal];
+    }
+
+    public static int kickChalk(Card kickedCard) {
+        return KICK_CHALK[kickedCard.getRankIndex()];
+    }
+
+    public static int kickChalk(int rankIndex) {
+        return KICK_CHALK[rankIndex];
+    }
+
+    private static int index(int card, int leadSuit, int trumpSuit) {
+        return ((leadSuit << 2) + trumpSuit) * Card.NUM_CARDS + card;
+    }
+
+    // Trump beats everything else, then the lead suit, then rank decides
+    private static boolean computeBeats(int c1, int c2, int leadSuit, int trumpSuit) {
+        int s1 = c1 / Card.NUM_RANKS;
+        int s2 = c2 / Card.NUM_RANKS;
+        boolean c1Trump = s1 == trumpSuit;
+        boolean c2Trump = s2 == trumpSuit;
+
+        if (c1Trump != c2Trump) return c1Trump;
+
+        if (!c1Trump) {
+            boolean c1Lead = s1 == leadSuit;
+            boolean c2Lead = s2 == leadSuit;
+            if (c1Lead != c2Lead) return c1Lead;
+        }
+
+        return c1 % Card.NUM_RANKS > c2 % Card.NUM_RANKS;
+    }
+}
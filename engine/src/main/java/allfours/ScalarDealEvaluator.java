@@ -0,0 +1,77 @@
+package allfours;
+
+/*
+ * DealEvaluator one deal at a time, with the same bit tricks on CardSets
+ * that Round uses. VectorDealEvaluator finishes a batch's last partial
+ * vector with it.
+ */
+
+final class ScalarDealEvaluator implements DealEvaluator {
+    // The cards that count for game (Rules.gamePoints), by rank
+    static final long TENS = rank(Card.TEN);
+    static final long JACKS = rank(Card.JACK);
+    static final long QUEENS = rank(Card.QUEEN);
+    static final long KINGS = rank(Card.KING);
+    static final long ACES = rank(Card.ACE);
+
+    static final ScalarDealEvaluator INSTANCE = new ScalarDealEvaluator();
+
+    private ScalarDealEvaluator() {
+    }
+
+    @Override
+    public void evaluate(DealBatch batch) {
+        evaluate(batch, 0);
+    }
+
+    // Scores deals [from, size)
+    static void evaluate(DealBatch batch, int from) {
+        long[][] hands = batch.hands;
+        for (int i = from, n = batch.size(); i < n; i++) {
+            int kicked = Long.numberOfTrailingZeros(batch.kicks[i]);
+            long trumps = CardSet.suit(kicked / Card.NUM_RANKS);
+            long highest = 0;
+            int highSeat = DealBatch.NONE;
+            long lowest = Long.MAX_VALUE;
+            int lowSeat = DealBatch.NONE;
+            int jackSeat = DealBatch.NONE;
+            long result = Rules.kickChalk(kicked % Card.NUM_RANKS);
+            for (int seat = 0; seat < 4; seat++) {
+                long hand = hands[seat][i];
+                long held = hand & trumps;
+                // Hands are disjoint, so the one holding the highest trump has the largest trump mask
+                if (held > highest) {
+                    highest = held;
+                    highSeat = seat;
+                }
+                long low = Long.lowestOneBit(held);
+                if (low != 0 && low < lowest) {
+                    lowest = low;
+                    lowSeat = seat;
+                }
+                if ((held & JACKS) != 0) {
+                    jackSeat = seat;
+                }
+                result |= (long) points(hand) << (DealBatch.POINTS_SHIFT + 6 * seat);
+            }
+            batch.results[i] = result | highSeat << DealBatch.HIGH_SHIFT | lowSeat << DealBatch.LOW_SHIFT
+                    | jackSeat << DealBatch.JACK_SHIFT;
+        }
+    }
+
+    // Game points in a set of cards
+    static int points(long cards) {
+        return 10 * Long.bitCount(cards & TENS) + 4 * Long.bitCount(cards & ACES)
+                + 3 * Long.bitCount(cards & KINGS) + 2 * Long.bitCount(cards & QUEENS)
+                + Long.bitCount(cards & JACKS);
+    }
+
+    // The four cards of a rank
+    static long rank(int rankIndex) {
+        long cards = 0;
+        for (int suit = 0; suit < Card.NUM_SUITS; suit++) {
+            cards |= 1L << (suit * Card.NUM_RANKS + rankIndex);
+        }
+        return cards;
+    }
+}
@@ -0,0 +1,213 @@
+package allfours;
+
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/*
+ * DecisionProvider for a remote seat at a hosted table. The table's thread
+ * posts a prompt and parks until an answer arrives; whoever talks to the
+ * player (a socket handler, a test driver) answers through play() or
+ * answer(), which never block.
+ *
+ * Answers that do not fit the prompt (an illegal card, a card when a beg
+ * is asked) are dropped, and the player can try again; each illegal card
+ * counts in Metrics.ILLEGAL_CHOICES. A seat that does not answer within
+ * the timeout has the decision made by its fallback provider instead, so
+ * an absent player cannot hold a table forever.
+ *
+ * When TableHost parks a table whose thread is waiting here for a card,
+ * the prompt is held: it stays visible, and an answer to it is queued and
+ * wakes the table, whose restored match asks the same question again and
+ * takes the queued answer. The timeout starts over when the table wakes.
+ *
+ * Methods:
+ * - setPromptHandler(handler): called on the table's thread as each prompt is posted; must not block
+ * - getPrompt() / getPlayer() / getLegalCards() / getKickedCard(): the decision awaited, if any
+ * - getPromptNanos(): System.nanoTime() when the prompt was posted
+ * - play(card) / answer(yes): submit an answer; false if no such prompt is pending
+ * - getTimeouts(): decisions left to the fallback
+ */
+
+public class SeatInbox implements DecisionProvider {
+    public enum Prompt { CARD, BEG, GIVE }
+
+    private final LinkedBlockingQueue<Object> answers = new LinkedBlockingQueue<>();
+    private final long timeoutNanos;
+    private final DecisionProvider fallback;
+    private volatile Consumer<SeatInbox> promptHandler = inbox -> { };
+
+    private volatile Prompt prompt;
+    private volatile Player player;
+    private volatile long legalCards;
+    private volatile Card kickedCard;
+    private volatile int timeouts;
+    private volatile long promptNanos;
+    private volatile boolean held; // Pending while the table is parked
+    private volatile Runnable wakeHandler = () -> { };
+
+    public SeatInbox(long timeout, TimeUnit unit) {
+        this(timeout, unit, new RandomDecisionProvider());
+    }
+
+    public SeatInbox(long timeout, TimeUnit unit, DecisionProvider fallback) {
+        this.timeoutNanos = unit.toNanos(timeout);
+        this.fallback = fallback;
+    }
+
+    public void setPromptHandler(Consumer<SeatInbox> promptHandler) {
+        this.promptHandler = promptHandler;
+    }
+
+    // The decision awaited, or null between prompts
+    public Prompt getPrompt() {
+        return prompt;
+    }
+
+    public Player getPlayer() {
+        return player;
+    }
+
+    // CardSet of the cards that may be played, while a CARD prompt is pending
+    public long getLegalCards() {
+        return legalCards;
+    }
+
+    public Card getKickedCard() {
+        return kickedCard;
+    }
+
+    public int getTimeouts() {
+        return timeouts;
+    }
+
+    public long getPromptNanos() {
+        return promptNanos;
+    }
+
+    public boolean isHeld() {
+        return held;
+    }
+
+    // Set by TableHost: called when a held prompt is answered
+    void setWakeHandler(Runnable wakeHandler) {
+        this.wakeHandler = wakeHandler;
+    }
+
+    // An answer has come in for the held prompt
+    boolean hasAnswer() {
+        return !answers.isEmpty();
+    }
+
+    // Drops a held prompt, and any answer to it, when its table ends
+    void release() {
+        held = false;
+        prompt = null;
+        legalCards = 0;
+        answers.clear();
+    }
+
+    public boolean play(Card card) {
+        if (prompt != Prompt.CARD) {
+            return false;
+        }
+        if (!CardSet.contains(legalCards, card)) {
+            if (Metrics.ENABLED) {
+                Metrics.illegalChoice();
+            }
+            return false;
+        }
+        return offer(card);
+    }
+
+    // Beg (or stand), or as dealer give (or run the pack)
+    public boolean answer(boolean yes) {
+        Prompt pending = prompt;
+        if (pending != Prompt.BEG && pending != Prompt.GIVE) {
+            return false;
+        }
+        return offer(yes);
+    }
+
+    private boolean offer(Object answer) {
+        answers.offer(answer);
+        if (held) {
+            wakeHandler.run();
+        }
+        return true;
+    }
+
+    @Override
+    public Card chooseCard(Player player, String leadSuit, String trumpSuit, List<Card> playedCards) {
+        long legal = player.legalMoves(leadSuit, trumpSuit, playedCards);
+        if (Long.bitCount(legal) == 1) {
+            return CardSet.first(legal); // Nothing to ask
+        }
+        Object answer = await(Prompt.CARD, player, legal, null);
+        if (answer == null) {
+            return fallback.chooseCard(player, leadSuit, trumpSuit, playedCards);
+        }
+        return (Card) answer;
+    }
+
+    @Override
+    public boolean wantsToBeg(Player player, Card kickedCard) {
+        Object answer = await(Prompt.BEG, player, 0, kickedCard);
+        return answer == null ? fallback.wantsToBeg(player, kickedCard) : (Boolean) answer;
+    }
+
+    @Override
+    public boolean givesChalk(Player dealer, Card kickedCard) {
+        Object answer = await(Prompt.GIVE, dealer, 0, kickedCard);
+        return answer == null ? fallback.givesChalk(dealer, kickedCard) : (Boolean) answer;
+    }
+
+    /*
+     * Posts a prompt and parks the table's thread until a fitting answer arrives
+     *
+     * @return The answer, or null on timeout
+     * @throws TableHost.Aborted if the table is aborted or parked (its thread interrupted) while waiting
+     */
+    private Object await(Prompt next, Player player, long legal, Card kickedCard) {
+        boolean resumed = held && prompt == next && legalCards == legal; // The question a parked table was asking
+        held = false;
+        if (!resumed) {
+            answers.clear(); // Anything left over was meant for an earlier prompt
+        }
+        this.player = player;
+        this.kickedCard = kickedCard;
+        legalCards = legal;
+        prompt = next;
+        boolean holding = false;
+        try {
+            if (!resumed) {
+                promptNanos = System.nanoTime();
+                promptHandler.accept(this);
+            }
+            long deadline = System.nanoTime() + timeoutNanos;
+            while (true) {
+                long remaining = deadline - System.nanoTime();
+                Object answer = remaining > 0 ? answers.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                if (answer == null) {
+                    timeouts++;
+                    return null;
+                }
+                if (next == Prompt.CARD ? answer instanceof Card && CardSet.contains(legalCards, (Card) answer)
+                        : answer instanceof Boolean) {
+                    return answer;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            holding = next == Prompt.CARD; // Until the table wakes, or releases it if it was aborted
+            held = holding;
+            throw new TableHost.Aborted();
+        } finally {
+            if (!holding) {
+                prompt = null;
+                legalCards = 0;
+            }
+        }
+    }
+}
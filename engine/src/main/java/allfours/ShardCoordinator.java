@@ -0,0 +1,136 @@
+package allfours;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Splits a simulation into match ranges and plays each in its own worker
+ * JVM (MatchSimulator --shard), running a few workers at a time and
+ * merging the SimulationStats each writes to stdout.
+ *
+ * Workers deal from DealGenerator, so a shard's result depends only on the
+ * seed and its range: shards can run in any order, on any machine, and
+ * any one of them (or any single match, with --replay) can be re-run
+ * alone. The merged result is the same whatever the shard size or the
+ * number of workers. A worker that fails aborts the run, naming the
+ * command that reproduces its shard.
+ *
+ * Usage: ShardCoordinator <matches> [seed] [workers] [shards] [threads per worker]
+ *        ShardCoordinator --replay <seed> <match index>
+ */
+
+public class ShardCoordinator {
+    private final long seed;
+    private final int workers;
+    private final int threadsPerWorker;
+
+    public ShardCoordinator(long seed, int workers, int threadsPerWorker) {
+        if (workers < 1 || threadsPerWorker < 1) {
+            throw new IllegalArgumentException("Workers and threads must be positive: " + workers + ", "
+                    + threadsPerWorker);
+        }
+        this.seed = seed;
+        this.workers = workers;
+        this.threadsPerWorker = threadsPerWorker;
+    }
+
+    // Plays matches [0, matches) in the given number of shards and merges their tallies
+    public SimulationStats run(long matches, int shards) throws IOException, InterruptedException {
+        SimulationStats total = new SimulationStats();
+        List<Shard> running = new ArrayList<>();
+        for (int i = 0; i < shards; i++) {
+            long from = matches * i / shards;
+            long to = matches * (i + 1) / shards;
+            if (from == to) {
+                continue;
+            }
+            if (running.size() == workers) {
+                total.merge(running.remove(0).await());
+            }
+            running.add(new Shard(from, to));
+        }
+        for (Shard shard : running) {
+            total.merge(shard.await());
+        }
+        return total;
+    }
+
+    // The command line that plays one shard; anyone can run it to reproduce the shard
+    public List<String> command(long from, long to) {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(MatchSimulator.class.getName());
+        command.add("--shard");
+        command.add(Long.toString(seed));
+        command.add(Long.toString(from));
+        command.add(Long.toString(to));
+        command.add(Integer.toString(threadsPerWorker));
+        return command;
+    }
+
+    // A worker process playing one match range
+    private final class Shard {
+        private final long from;
+        private final long to;
+        private final Process process;
+
+        Shard(long from, long to) throws IOException {
+            this.from = from;
+            this.to = to;
+            this.process = new ProcessBuilder(command(from, to))
+                    .redirectError(ProcessBuilder.Redirect.INHERIT)
+                    .start();
+        }
+
+        SimulationStats await() throws IOException, InterruptedException {
+            SimulationStats stats;
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(process.getInputStream()))) {
+                stats = SimulationStats.read(in);
+            } catch (IOException e) {
+                process.destroy();
+                throw new IOException("Shard [" + from + ", " + to + ") returned no results; rerun with: "
+                        + String.join(" ", command(from, to)), e);
+            }
+            int exit = process.waitFor();
+            if (exit != 0) {
+                throw new IOException("Shard [" + from + ", " + to + ") exited with " + exit + "; rerun with: "
+                        + String.join(" ", command(from, to)));
+            }
+            if (stats.getMatches() != to - from) {
+                throw new IOException("Shard [" + from + ", " + to + ") played " + stats.getMatches() + " matches");
+            }
+            return stats;
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length >= 3 && args[0].equals("--replay")) {
+            MatchSimulator simulator = new MatchSimulator(Long.parseLong(args[1]));
+            simulator.setCounterDeals(true);
+            simulator.replay(Long.parseLong(args[2]));
+            return;
+        }
+
+        long matches = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : System.nanoTime();
+        int cores = Runtime.getRuntime().availableProcessors();
+        int workers = args.length > 2 ? Integer.parseInt(args[2]) : Math.max(1, cores / 2);
+        int shards = args.length > 3 ? Integer.parseInt(args[3]) : 4 * workers;
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Math.max(1, cores / workers);
+
+        ShardCoordinator coordinator = new ShardCoordinator(seed, workers, threads);
+        long start = System.nanoTime();
+        SimulationStats stats = coordinator.run(matches, shards);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println("Seed " + seed + ", " + shards + " shards on " + workers + " workers x " + threads
+                + " threads, " + String.format("%.1f", matches / seconds) + " matches/sec");
+        stats.report(System.out);
+    }
+}
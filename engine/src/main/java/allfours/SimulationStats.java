@@ -0,0 +1,271 @@
+package allfours;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.PrintStream;
+
+/*
+ * Tallies for a batch of simulated matches. Each simulator task fills its
+ * own instance as the GameListener of the matches it plays, and instances
+ * are combined with merge() when the tasks join, so no counter is shared
+ * between threads.
+ *
+ * Methods:
+ * - recordMatch(GameController game, Team winner): Counts a finished match
+ * - merge(SimulationStats other): Adds another batch's tallies into this one
+ * - write(DataOutput out) / read(DataInput in): The tallies in binary, for results from other processes
+ * - report(PrintStream out): Prints win rates, chalk distribution and event frequencies
+ */
+
+public class SimulationStats implements GameListener {
+    private long matches;
+    private long teamAWins;
+    private long teamBWins;
+    private final long[] loserChalk = new long[14]; // Final chalk of the losing team
+
+    private long rounds;
+    private long abortedRounds;
+
+    private long kicks;
+    private long redealKicks;
+    private long kickAces;
+    private long kickSixes;
+    private long kickJacks;
+
+    private long begs;
+    private long stands;
+    private long gives;
+    private long packRuns;
+
+    private long highs;
+    private long lows;
+    private long jackRuns;
+    private long jackHangs;
+    private long games;
+    private long gameTiebreaks;
+
+    private long kickChalk;
+    private long begChalk;
+
+    public void recordMatch(GameController game, Team winner) {
+        matches++;
+        if (winner == game.getTeamA()) {
+            teamAWins++;
+        } else {
+            teamBWins++;
+        }
+        Team loser = winner == game.getTeamA() ? game.getTeamB() : game.getTeamA();
+        loserChalk[Math.min(loser.getMatchScore(), loserChalk.length - 1)]++;
+    }
+
+    public void merge(SimulationStats other) {
+        matches += other.matches;
+        teamAWins += other.teamAWins;
+        teamBWins += other.teamBWins;
+        for (int i = 0; i < loserChalk.length; i++) {
+            loserChalk[i] += other.loserChalk[i];
+        }
+        rounds += other.rounds;
+        abortedRounds += other.abortedRounds;
+        kicks += other.kicks;
+        redealKicks += other.redealKicks;
+        kickAces += other.kickAces;
+        kickSixes += other.kickSixes;
+        kickJacks += other.kickJacks;
+        begs += other.begs;
+        stands += other.stands;
+        gives += other.gives;
+        packRuns += other.packRuns;
+        highs += other.highs;
+        lows += other.lows;
+        jackRuns += other.jackRuns;
+        jackHangs += other.jackHangs;
+        games += other.games;
+        gameTiebreaks += other.gameTiebreaks;
+        kickChalk += other.kickChalk;
+        begChalk += other.begChalk;
+    }
+
+    // The tallies as fixed-order longs, for shipping a shard's results between processes
+    public void write(DataOutput out) throws IOException {
+        out.writeLong(matches);
+        out.writeLong(teamAWins);
+        out.writeLong(teamBWins);
+        for (long count : loserChalk) {
+            out.writeLong(count);
+        }
+        out.writeLong(rounds);
+        out.writeLong(abortedRounds);
+        out.writeLong(kicks);
+        out.writeLong(redealKicks);
+        out.writeLong(kickAces);
+        out.writeLong(kickSixes);
+        out.writeLong(kickJacks);
+        out.writeLong(begs);
+        out.writeLong(stands);
+        out.writeLong(gives);
+        out.writeLong(packRuns);
+        out.writeLong(highs);
+        out.writeLong(lows);
+        out.writeLong(jackRuns);
+        out.writeLong(jackHangs);
+        out.writeLong(games);
+        out.writeLong(gameTiebreaks);
+        out.writeLong(kickChalk);
+        out.writeLong(begChalk);
+    }
+
+    public static SimulationStats read(DataInput in) throws IOException {
+        SimulationStats stats = new SimulationStats();
+        stats.matches = in.readLong();
+        stats.teamAWins = in.readLong();
+        stats.teamBWins = in.readLong();
+        for (int i = 0; i < stats.loserChalk.length; i++) {
+            stats.loserChalk[i] = in.readLong();
+        }
+        stats.rounds = in.readLong();
+        stats.abortedRounds = in.readLong();
+        stats.kicks = in.readLong();
+        stats.redealKicks = in.readLong();
+        stats.kickAces = in.readLong();
+        stats.kickSixes = in.readLong();
+        stats.kickJacks = in.readLong();
+        stats.begs = in.readLong();
+        stats.stands = in.readLong();
+        stats.gives = in.readLong();
+        stats.packRuns = in.readLong();
+        stats.highs = in.readLong();
+        stats.lows = in.readLong();
+        stats.jackRuns = in.readLong();
+        stats.jackHangs = in.readLong();
+        stats.games = in.readLong();
+        stats.gameTiebreaks = in.readLong();
+        stats.kickChalk = in.readLong();
+        stats.begChalk = in.readLong();
+        return stats;
+    }
+
+    public long getMatches() {
+        return matches;
+    }
+
+    public long getTeamAWins() {
+        return teamAWins;
+    }
+
+    public long getTeamBWins() {
+        return teamBWins;
+    }
+
+    public long getRounds() {
+        return rounds;
+    }
+
+    public long getJackHangs() {
+        return jackHangs;
+    }
+
+    public long getPackRuns() {
+        return packRuns;
+    }
+
+    @Override
+    public void roundStarted(Player dealer) {
+        rounds++;
+    }
+
+    @Override
+    public void packExhausted() {
+        abortedRounds++;
+    }
+
+    @Override
+    public void cardKicked(Card kickedCard, boolean runningPack) {
+        kicks++;
+        if (runningPack) redealKicks++;
+        switch (kickedCard.getRankIndex()) {
+            case Card.ACE: kickAces++; break;
+            case Card.SIX: kickSixes++; break;
+            case Card.JACK: kickJacks++; break;
+            default: break;
+        }
+    }
+
+    @Override
+    public void kickChalk(Team dealerTeam, int chalk) {
+        kickChalk += chalk;
+    }
+
+    @Override
+    public void begResponse(Player beggar, boolean begged) {
+        if (begged) {
+            begs++;
+        } else {
+            stands++;
+        }
+    }
+
+    @Override
+    public void chalkGiven(Team beggingTeam) {
+        gives++;
+        begChalk++;
+    }
+
+    @Override
+    public void packRun(Player dealer) {
+        packRuns++;
+    }
+
+    @Override
+    public void highAwarded(Team team, Card highTrump) {
+        highs++;
+    }
+
+    @Override
+    public void lowAwarded(Team team, Card lowTrump) {
+        lows++;
+    }
+
+    @Override
+    public void jackAwarded(Team team, boolean hung) {
+        if (hung) {
+            jackHangs++;
+        } else {
+            jackRuns++;
+        }
+    }
+
+    @Override
+    public void gameAwarded(Team team, boolean tiebreak) {
+        games++;
+        if (tiebreak) gameTiebreaks++;
+    }
+
+    public void report(PrintStream out) {
+        out.println("Matches: " + matches + ", rounds: " + rounds + " (" + abortedRounds + " aborted, pack ran out)");
+        out.println("Win rate: Team A " + percent(teamAWins, matches) + ", Team B " + percent(teamBWins, matches));
+
+        out.println("Losing team's final chalk:");
+        for (int i = 0; i < loserChalk.length; i++) {
+            out.printf("  %2d: %s%n", i, percent(loserChalk[i], matches));
+        }
+
+        out.println("Kicks: " + kicks + " (" + redealKicks + " from running the pack)");
+        out.println("  Ace " + percent(kickAces, kicks) + ", Six " + percent(kickSixes, kicks)
+                + ", Jack " + percent(kickJacks, kicks) + ", chalk per round " + ratio(kickChalk, rounds));
+        out.println("Begging: beg " + percent(begs, begs + stands) + ", give " + percent(gives, begs)
+                + ", run the pack " + percent(packRuns, begs) + " of begs, " + percent(packRuns, rounds) + " of rounds");
+        out.println("Jack: run " + percent(jackRuns, rounds) + ", hang " + percent(jackHangs, rounds) + " of rounds");
+        out.println("High " + percent(highs, rounds) + ", Low " + percent(lows, rounds) + ", Game " + percent(games, rounds)
+                + " (" + percent(gameTiebreaks, games) + " by tiebreaker)");
+    }
+
+    private static String percent(long count, long total) {
+        return total == 0 ? "n/a" : String.format("%.2f%%", 100.0 * count / total);
+    }
+
+    private static String ratio(long count, long total) {
+        return total == 0 ? "n/a" : String.format("%.3f", (double) count / total);
+    }
+}
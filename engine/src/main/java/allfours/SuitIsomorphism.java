@@ -0,0 +1,88 @@
+package allfours;
+
+/*
+ * Canonical relabelling of suits. Apart from trump, All Fours treats every
+ * suit alike, so two situations that differ only by a permutation of the
+ * non-trump suits call for the same decision (with the suits of the
+ * answer permuted back).
+ *
+ * A permutation maps each suit to its canonical suit: trump to suit 0, and
+ * the other three to suits 1-3 in decreasing order of their cards in the
+ * primary set, ties broken by the secondary set. Sets that are equal
+ * under the permutation then come out as the same pair of CardSets.
+ * Suits with the same cards in both sets are interchangeable, so their
+ * order does not matter.
+ *
+ * A permutation is packed into an int, two bits per suit: bits 2s and
+ * 2s + 1 hold the canonical suit of suit s.
+ *
+ * Methods:
+ * - permutation(long primary, long secondary, int trump): The canonical permutation for a pair of sets
+ * - apply(long set, int permutation): Relabels the suits of a CardSet
+ * - applyCard(int ordinal, int permutation): Relabels the suit of one card
+ * - inverse(int permutation): The permutation that undoes it
+ */
+
+public final class SuitIsomorphism {
+    public static final int IDENTITY = 0b11_10_01_00;
+
+    private static final long SUIT_BITS = (1L << Card.NUM_RANKS) - 1;
+
+    private SuitIsomorphism() {
+    }
+
+    public static int permutation(long primary, long secondary, int trump) {
+        // Three non-trump suits, sorted by (primary, secondary) suit bits, largest first
+        int[] suits = new int[Card.NUM_SUITS - 1];
+        long[] keys = new long[Card.NUM_SUITS - 1];
+        int n = 0;
+        for (int s = 0; s < Card.NUM_SUITS; s++) {
+            if (s == trump) {
+                continue;
+            }
+            long key = suitBits(primary, s) << Card.NUM_RANKS | suitBits(secondary, s);
+            int i = n++;
+            while (i > 0 && keys[i - 1] < key) {
+                keys[i] = keys[i - 1];
+                suits[i] = suits[i - 1];
+                i--;
+            }
+            keys[i] = key;
+            suits[i] = s;
+        }
+
+        int permutation = 0; // trump maps to 0
+        for (int i = 0; i < suits.length; i++) {
+            permutation |= (i + 1) << (2 * suits[i]);
+        }
+        return permutation;
+    }
+
+    public static long apply(long set, int permutation) {
+        long result = CardSet.EMPTY;
+        for (int s = 0; s < Card.NUM_SUITS; s++) {
+            result |= suitBits(set, s) << (Card.NUM_RANKS * canonical(s, permutation));
+        }
+        return result;
+    }
+
+    public static int applyCard(int ordinal, int permutation) {
+        return canonical(ordinal / Card.NUM_RANKS, permutation) * Card.NUM_RANKS + ordinal % Card.NUM_RANKS;
+    }
+
+    public static int inverse(int permutation) {
+        int inverse = 0;
+        for (int s = 0; s < Card.NUM_SUITS; s++) {
+            inverse |= s << (2 * canonical(s, permutation));
+        }
+        return inverse;
+    }
+
+    private static int canonical(int suit, int permutation) {
+        return permutation >>> (2 * suit) & 3;
+    }
+
+    private static long suitBits(long set, int suit) {
+        return set >>> (Card.NUM_RANKS * suit) & SUIT_BITS;
+    }
+}
@@ -0,0 +1,649 @@
+package allfours;
+
+import java.io.Closeable;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Hosts many concurrent matches in one JVM, one table per match.
+ *
+ * Lifecycle of a table:
+ * - createTable(): OPEN, waiting for four seats
+ * - join(seat, provider): once the fourth seat is taken the match starts on
+ *   the table's own thread (RUNNING)
+ * - the match plays through GameController as usual, redealing whenever the
+ *   pack runs out (Round.wasRoundAborted()), until a team reaches 14 chalk
+ *   (FINISHED)
+ * - abort(): ABORTED; the match stops at its next event, or at once if it is
+ *   waiting on a remote seat
+ * - park(): PARKED; the match goes into the host's TableStore as a
+ *   snapshot, off the heap, and its thread and object graph are dropped.
+ *   A table waiting on a card from a remote seat parks at once, holding
+ *   the prompt (see SeatInbox); otherwise it parks at the next hand, card
+ *   or card prompt. wake(), or an answer to a held prompt, rebuilds the
+ *   match on a new thread (RUNNING) and it carries on where it stopped.
+ *   The table's listener hears the event the match parks at; on waking it
+ *   hears matchStarted, then handResumed if the hand was under way
+ *   parkIdle() parks only at held prompts, so each of its tables wakes
+ *   when its player answers
+ *
+ * Each table has its own thread, so a table waiting on a slow player, or
+ * stuck in a bot, holds nothing the other tables need. On a JDK with virtual
+ * threads the tables run on them and a waiting table costs a parked virtual
+ * thread; otherwise each gets a platform thread with a small stack. Remote
+ * seats are SeatInboxes, which bound how long a player can keep a table
+ * waiting. parkIdle() parks the tables whose players are slow to play, so
+ * a host can keep far more matches open than it has threads and heap for
+ * live ones.
+ *
+ * Usage: TableHost [tables] [decision timeout ms] (plays one inbox seat per
+ * table against three random bots, the inboxes answered by client threads)
+ *        TableHost --park [tables] (leaves every card prompt waiting, parks
+ *        the tables, reports the heap and store they take, then plays them out)
+ */
+
+public class TableHost implements Closeable {
+    public enum State { OPEN, RUNNING, PARKED, FINISHED, ABORTED }
+
+    // Unwinds a table's match when it is aborted or parked
+    static final class Aborted extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        Aborted() {
+            super(null, null, false, false);
+        }
+    }
+
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+    private final TableStore store;
+    private final AtomicInteger parkedTables = new AtomicInteger();
+    private final ConcurrentHashMap<Long, Table> tables = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong();
+    private final AtomicLong finished = new AtomicLong();
+    private final AtomicLong aborted = new AtomicLong();
+
+    public TableHost() {
+        this(new TableStore());
+    }
+
+    // Parked tables go into the given store
+    public TableHost(TableStore store) {
+        this.store = store;
+        ExecutorService virtual = virtualThreadExecutor();
+        virtualThreads = virtual != null;
+        executor = virtual != null ? virtual : Executors.newCachedThreadPool(new TableThreads());
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() where the running JDK has it
+    private static ExecutorService virtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    private static final class TableThreads implements ThreadFactory {
+        private static final long STACK_BYTES = 256 * 1024;
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(null, task, "table-" + count.incrementAndGet(), STACK_BYTES);
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    public boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    // A new OPEN table whose match reports to the given listener (on the table's thread)
+    public Table createTable(GameListener listener) {
+        Table table = new Table(nextId.incrementAndGet(), listener);
+        tables.put(table.id, table);
+        return table;
+    }
+
+    public Table createTable() {
+        return createTable(GameListener.SILENT);
+    }
+
+    // An OPEN or RUNNING table, or null
+    public Table getTable(long id) {
+        return tables.get(id);
+    }
+
+    public Collection<Table> getTables() {
+        return tables.values();
+    }
+
+    public int getTableCount() {
+        return tables.size();
+    }
+
+    public long getFinishedCount() {
+        return finished.get();
+    }
+
+    public long getAbortedCount() {
+        return aborted.get();
+    }
+
+    public int getParkedCount() {
+        return parkedTables.get();
+    }
+
+    public TableStore getStore() {
+        return store;
+    }
+
+    /*
+     * Parks every running table that has waited at least this long on a card from a remote seat
+     *
+     * @return The number of tables asked to park
+     */
+    public int parkIdle(long idle, TimeUnit unit) {
+        long now = System.nanoTime();
+        long idleNanos = unit.toNanos(idle);
+        int count = 0;
+        for (Table table : tables.values()) {
+            SeatInbox inbox = table.state == State.RUNNING ? table.waitingInbox() : null;
+            if (inbox != null && now - inbox.getPromptNanos() >= idleNanos && table.park(false)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Aborts every table and stops the host's threads
+    @Override
+    public void close() {
+        for (Table table : tables.values()) {
+            table.abort();
+        }
+        executor.shutdownNow();
+    }
+
+    public final class Table {
+        private final long id;
+        private final GameListener listener;
+        private final DecisionProvider[] seats = new DecisionProvider[4];
+        private final CountDownLatch done = new CountDownLatch(1);
+        private int seated;
+        private volatile State state = State.OPEN;
+        private volatile boolean abortRequested;
+        private volatile boolean parkRequested;
+        private volatile boolean parkAnywhere; // Not just at a card prompt
+        private boolean wakeRequested; // An answer came in while the table was on its way to the store
+        private int record = -1;       // In the store while PARKED
+        private volatile int rounds;
+        private volatile int throwIns;
+        private volatile long startNanos;
+        private volatile long endNanos;
+        private volatile GameController game;
+        private volatile Team winner;
+        private volatile RuntimeException failure;
+        private Thread thread; // While the match runs
+
+        private Table(long id, GameListener listener) {
+            this.id = id;
+            this.listener = listener;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public State getState() {
+            return state;
+        }
+
+        // RUNNING or PARKED: the match is under way
+        public boolean isPlaying() {
+            State current = state;
+            return current == State.RUNNING || current == State.PARKED;
+        }
+
+        // The running or finished match, or null before it starts and while it is parked
+        public GameController getGame() {
+            return game;
+        }
+
+        // The winning team once FINISHED
+        public Team getWinner() {
+            return winner;
+        }
+
+        // Hands played to a result, and hands thrown in when the pack ran out
+        public int getRounds() {
+            return rounds;
+        }
+
+        public int getThrowIns() {
+            return throwIns;
+        }
+
+        // Hands played per second of the match so far, or over the whole match once it has ended
+        public double getHandsPerSecond() {
+            long start = startNanos;
+            if (start == 0) {
+                return 0;
+            }
+            long end = endNanos != 0 ? endNanos : System.nanoTime();
+            return rounds / ((end - start) / 1e9);
+        }
+
+        // What ended the match if a seat or listener threw
+        public RuntimeException getFailure() {
+            return failure;
+        }
+
+        /*
+         * Takes a seat (0..3, Player 1..Player 4); the match starts when the fourth is taken
+         *
+         * @return false if the seat is taken or the table is no longer OPEN
+         */
+        public synchronized boolean join(int seat, DecisionProvider provider) {
+            if (seat < 0 || seat > 3) {
+                throw new IllegalArgumentException("Seat must be 0-3: " + seat);
+            }
+            if (state != State.OPEN || seats[seat] != null) {
+                return false;
+            }
+            seats[seat] = provider;
+            if (provider instanceof SeatInbox) {
+                ((SeatInbox) provider).setWakeHandler(this::wake);
+            }
+            if (++seated == 4) {
+                state = State.RUNNING;
+                executor.execute(this::run);
+            }
+            return true;
+        }
+
+        // Stops the match, or closes an OPEN table; no effect once it has ended
+        public synchronized void abort() {
+            if (state == State.FINISHED || state == State.ABORTED) {
+                return;
+            }
+            abortRequested = true;
+            if (thread != null) {
+                thread.interrupt(); // Ends a wait on a SeatInbox
+            } else if (state == State.PARKED) {
+                store.free(record, id);
+                record = -1;
+                parkedTables.decrementAndGet();
+                end(State.ABORTED);
+            } else if (state == State.OPEN) {
+                end(State.ABORTED);
+            }
+        }
+
+        /*
+         * Moves a RUNNING match into the store: at once if it waits on a card from a
+         * remote seat, otherwise at its next hand, card or card prompt. Unless it
+         * parks holding a prompt, only wake() brings it back
+         *
+         * @return false if the table is not RUNNING
+         */
+        public boolean park() {
+            return park(true);
+        }
+
+        // Without anywhere, only a table waiting on a card prompt is parked, and only there
+        private synchronized boolean park(boolean anywhere) {
+            if (state != State.RUNNING || abortRequested || !anywhere && waitingInbox() == null) {
+                return false;
+            }
+            parkRequested = true;
+            parkAnywhere |= anywhere;
+            wakeRequested = false;
+            if (thread != null && waitingInbox() != null) {
+                thread.interrupt(); // The inbox holds its prompt and the match unwinds
+            }
+            return true;
+        }
+
+        // Rebuilds a PARKED match and carries on; a table still on its way to the store wakes as it arrives
+        public synchronized void wake() {
+            if (state == State.PARKED) {
+                state = State.RUNNING;
+                parkedTables.decrementAndGet();
+                executor.execute(this::run);
+            } else if (state == State.RUNNING) {
+                parkRequested = false;
+                parkAnywhere = false;
+                wakeRequested = true;
+            }
+        }
+
+        // A remote seat whose card prompt the table is waiting on, or null
+        private SeatInbox waitingInbox() {
+            for (DecisionProvider seat : seats) {
+                if (seat instanceof SeatInbox) {
+                    SeatInbox inbox = (SeatInbox) seat;
+                    if (inbox.getPrompt() == SeatInbox.Prompt.CARD && !inbox.isHeld()) {
+                        return inbox;
+                    }
+                }
+            }
+            return null;
+        }
+
+        // Waits for the table to finish or abort
+        public boolean awaitEnd(long timeout, TimeUnit unit) throws InterruptedException {
+            return done.await(timeout, unit);
+        }
+
+        private void run() {
+            synchronized (this) {
+                if (abortRequested) {
+                    end(State.ABORTED);
+                    return;
+                }
+                thread = Thread.currentThread();
+            }
+            if (startNanos == 0) {
+                startNanos = System.nanoTime();
+            }
+            GameController controller = null;
+            try {
+                GameListener guarded = new MulticastGameListener(listener, new Guard());
+                if (record >= 0) {
+                    controller = store.restore(record, id, seats.clone(), guarded, new SplittableRandom());
+                    record = -1;
+                } else {
+                    controller = new GameController(guarded, new SplittableRandom());
+                    controller.setupGame(seats.clone());
+                }
+                game = controller;
+                winner = controller.playMatch();
+                end(State.FINISHED);
+            } catch (Aborted e) {
+                if (abortRequested || controller == null) {
+                    end(State.ABORTED);
+                } else {
+                    store(controller);
+                }
+            } catch (RuntimeException e) {
+                failure = e;
+                end(State.ABORTED);
+            } finally {
+                synchronized (this) {
+                    if (thread == Thread.currentThread()) { // A woken table may already be running again
+                        thread = null;
+                    }
+                    Thread.interrupted(); // A late abort must not reach the thread's next table
+                }
+            }
+        }
+
+        // Parks the unwound match, or wakes it straight away if an answer beat it to the store
+        private synchronized void store(GameController controller) {
+            if (abortRequested) {
+                end(State.ABORTED);
+                return;
+            }
+            try {
+                record = store.park(id, controller);
+            } catch (IllegalStateException e) {
+                failure = e;
+                end(State.ABORTED);
+                return;
+            }
+            game = null;
+            thread = null;
+            parkRequested = false;
+            parkAnywhere = false;
+            state = State.PARKED;
+            parkedTables.incrementAndGet();
+            if (wakeRequested || heldAnswer()) {
+                wakeRequested = false;
+                wake();
+            }
+        }
+
+        private boolean heldAnswer() {
+            for (DecisionProvider seat : seats) {
+                if (seat instanceof SeatInbox && ((SeatInbox) seat).isHeld() && ((SeatInbox) seat).hasAnswer()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void end(State outcome) {
+            endNanos = System.nanoTime();
+            state = outcome;
+            for (DecisionProvider seat : seats) {
+                if (seat instanceof SeatInbox) {
+                    ((SeatInbox) seat).release();
+                }
+            }
+            (outcome == State.FINISHED ? finished : aborted).incrementAndGet();
+            tables.remove(id);
+            done.countDown();
+        }
+
+        // Last listener of the match, so the table's own listener hears each event first: counts hands,
+        // and stops an aborted or parked match once the event is delivered
+        private final class Guard implements GameListener {
+            private void check() {
+                if (abortRequested) {
+                    throw new Aborted();
+                }
+            }
+
+            // Where a snapshot can be taken
+            private void checkPark() {
+                if (abortRequested || parkRequested && parkAnywhere) {
+                    throw new Aborted();
+                }
+            }
+
+            @Override
+            public void roundStarted(Player dealer) {
+                checkPark();
+                if (parkRequested) {
+                    synchronized (Table.this) {
+                        checkPark();
+                        // A park for a card prompt that was answered first; its interrupt must not reach the begging
+                        parkRequested = false;
+                        Thread.interrupted();
+                    }
+                }
+            }
+
+            @Override
+            public void roundFinished(Team teamA, Team teamB) {
+                rounds++;
+            }
+
+            @Override
+            public void packExhausted() {
+                throwIns++;
+                check();
+            }
+
+            @Override
+            public void trickStarted(int trickNumber, Player leader) {
+                check();
+            }
+
+            @Override
+            public void cardPlayed(Player player, Card card) {
+                checkPark();
+            }
+        }
+    }
+
+    // Answers an inbox prompt as a random player would
+    private static void answerRandomly(SeatInbox inbox, SplittableRandom random) {
+        SeatInbox.Prompt prompt = inbox.getPrompt();
+        if (prompt == SeatInbox.Prompt.CARD) {
+            long legal = inbox.getLegalCards();
+            if (legal != 0) {
+                inbox.play(Card.of(CardSet.select(legal, random.nextInt(Long.bitCount(legal)))));
+            }
+        } else if (prompt != null) {
+            inbox.answer(random.nextBoolean());
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length > 0 && args[0].equals("--park")) {
+            parkDemo(args.length > 1 ? Integer.parseInt(args[1]) : 100_000);
+            return;
+        }
+        int tableCount = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        long timeoutMillis = args.length > 1 ? Long.parseLong(args[1]) : 5_000;
+        int clients = Math.max(1, Runtime.getRuntime().availableProcessors());
+
+        TableHost host = new TableHost();
+        LinkedBlockingQueue<SeatInbox> prompts = new LinkedBlockingQueue<>();
+        List<Thread> clientThreads = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            SplittableRandom random = new SplittableRandom(i);
+            Thread client = new Thread(() -> {
+                try {
+                    while (true) {
+                        answerRandomly(prompts.take(), random);
+                    }
+                } catch (InterruptedException e) {
+                    // Done
+                }
+            }, "client-" + i);
+            client.setDaemon(true);
+            client.start();
+            clientThreads.add(client);
+        }
+
+        long start = System.nanoTime();
+        List<Table> started = new ArrayList<>();
+        List<SeatInbox> inboxes = new ArrayList<>();
+        for (int i = 0; i < tableCount; i++) {
+            Table table = host.createTable();
+            SeatInbox inbox = new SeatInbox(timeoutMillis, TimeUnit.MILLISECONDS);
+            inbox.setPromptHandler(prompts::add);
+            inboxes.add(inbox);
+            table.join(0, inbox);
+            for (int seat = 1; seat < 4; seat++) {
+                table.join(seat, new RandomDecisionProvider());
+            }
+            started.add(table);
+        }
+        int peak = host.getTableCount();
+        for (Table table : started) {
+            table.awaitEnd(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long rounds = 0;
+        long timeouts = 0;
+        double handsPerSecond = 0;
+        for (int i = 0; i < tableCount; i++) {
+            rounds += started.get(i).getRounds();
+            timeouts += inboxes.get(i).getTimeouts();
+            handsPerSecond += started.get(i).getHandsPerSecond();
+        }
+        System.out.println(tableCount + " tables on " + (host.usesVirtualThreads() ? "virtual" : "platform")
+                + " threads, " + peak + " open at once after seating");
+        System.out.println(host.getFinishedCount() + " finished, " + host.getAbortedCount() + " aborted, "
+                + rounds + " hands, " + timeouts + " inbox timeouts in "
+                + String.format("%.2f s (%.0f matches/sec, %.1f hands/sec per table)",
+                        seconds, tableCount / seconds, handsPerSecond / tableCount));
+        if (Metrics.ENABLED) {
+            Metrics.dump(System.out);
+        }
+
+        for (Thread client : clientThreads) {
+            client.interrupt();
+        }
+        host.close();
+    }
+
+    /*
+     * Seats an inbox that never plays a card at each table, parking them a wave at a
+     * time so no more than a wave hold threads, then answers them all and plays them out
+     */
+    private static void parkDemo(int tableCount) throws InterruptedException {
+        final int wave = 1_000;
+        TableHost host = new TableHost();
+        long heapBefore = usedHeap();
+        List<Table> started = new ArrayList<>();
+        List<SeatInbox> inboxes = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < tableCount; i++) {
+            Table table = host.createTable();
+            SeatInbox inbox = new SeatInbox(10, TimeUnit.MINUTES);
+            SplittableRandom random = new SplittableRandom(i);
+            inbox.setPromptHandler(prompted -> {
+                if (prompted.getPrompt() != SeatInbox.Prompt.CARD) {
+                    answerRandomly(prompted, random); // Begs and gives now; cards are left waiting
+                }
+            });
+            inboxes.add(inbox);
+            table.join(0, inbox);
+            for (int seat = 1; seat < 4; seat++) {
+                table.join(seat, new RandomDecisionProvider());
+            }
+            started.add(table);
+            while ((i + 1) % wave == 0 || i == tableCount - 1) {
+                host.parkIdle(0, TimeUnit.NANOSECONDS);
+                if (host.getParkedCount() == i + 1) {
+                    break;
+                }
+                Thread.sleep(1);
+            }
+        }
+        double parkSeconds = (System.nanoTime() - start) / 1e9;
+        long heapParked = usedHeap();
+        TableStore store = host.getStore();
+        System.out.println(tableCount + " tables parked in " + String.format("%.2f s", parkSeconds) + ": "
+                + String.format("%.0f", (double) (heapParked - heapBefore) / tableCount) + " heap bytes per table, "
+                + store.size() + " in the store (" + TableStore.RECORD_BYTES + " bytes each, "
+                + store.getOffHeapBytes() / 1024 + " KiB off-heap)");
+
+        // Answering a held prompt wakes its table
+        start = System.nanoTime();
+        for (int i = 0; i < tableCount; i++) {
+            SeatInbox inbox = inboxes.get(i);
+            SplittableRandom random = new SplittableRandom(-1 - i);
+            inbox.setPromptHandler(prompted -> answerRandomly(prompted, random));
+            answerRandomly(inbox, random);
+        }
+        long rounds = 0;
+        for (Table table : started) {
+            table.awaitEnd(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            rounds += table.getRounds();
+        }
+        System.out.println(host.getFinishedCount() + " finished, " + host.getAbortedCount() + " aborted, "
+                + rounds + " hands after waking, in "
+                + String.format("%.2f s", (System.nanoTime() - start) / 1e9) + "; " + store.size() + " left in the store");
+        host.close();
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,136 @@
+package allfours;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/*
+ * Off-heap home for parked matches: each is one fixed-size record, a
+ * MatchSnapshot and the id of its table, in direct ByteBuffer slabs of
+ * SLAB_RECORDS records. A match costs RECORD_BYTES outside the heap and
+ * four bytes of free list inside it, against kilobytes for the live
+ * GameController, Players, Round and Deck it is rebuilt into.
+ *
+ * Record layout: table id (8 bytes), snapshot length (1), snapshot
+ * (up to MatchSnapshot.MAX_BYTES), padding to RECORD_BYTES.
+ *
+ * Slabs are allocated as the store grows and kept for reuse, so a host
+ * that parks and wakes tables all day settles at a fixed footprint.
+ * Freed records go on a stack and are handed out again first.
+ *
+ * The store is thread-safe; TableHost parks and wakes tables from many threads.
+ */
+
+public final class TableStore {
+    public static final int RECORD_BYTES = 48;
+    public static final int SLAB_RECORDS = 1 << 14;
+
+    private static final int ID = 0;
+    private static final int LENGTH = 8;
+    private static final int SNAPSHOT = 9;
+    private static final long NO_TABLE = -1;
+
+    static {
+        if (SNAPSHOT + MatchSnapshot.MAX_BYTES > RECORD_BYTES) {
+            throw new IllegalStateException("A snapshot does not fit a record");
+        }
+    }
+
+    private final List<ByteBuffer> slabs = new ArrayList<>();
+    private final byte[] scratch = new byte[MatchSnapshot.MAX_BYTES];
+    private int[] free = new int[SLAB_RECORDS];
+    private int freeCount;
+    private int size;
+
+    /*
+     * Parks a match in a free record
+     *
+     * @return The record, to hand back to restore()
+     * @throws IllegalStateException if the match cannot be snapshot where it stands (see MatchSnapshot)
+     */
+    public synchronized int park(long tableId, GameController game) {
+        if (tableId < 0) {
+            throw new IllegalArgumentException("Table ids are not negative: " + tableId);
+        }
+        int length = MatchSnapshot.capture(game, scratch, 0);
+        if (freeCount == 0) {
+            grow();
+        }
+        int record = free[--freeCount];
+        ByteBuffer slab = slabs.get(record / SLAB_RECORDS);
+        int at = (record % SLAB_RECORDS) * RECORD_BYTES;
+        slab.putLong(at + ID, tableId);
+        slab.put(at + LENGTH, (byte) length);
+        slab.put(at + SNAPSHOT, scratch, 0, length);
+        size++;
+        return record;
+    }
+
+    /*
+     * Rebuilds a parked match and frees its record
+     *
+     * @return A match whose playMatch() carries on where it was parked
+     * @throws IllegalArgumentException if the record does not hold the table's match
+     */
+    public GameController restore(int record, long tableId, DecisionProvider[] seats,
+            GameListener listener, RandomGenerator rng) {
+        byte[] snapshot = new byte[MatchSnapshot.MAX_BYTES]; // The match is rebuilt outside the lock
+        synchronized (this) {
+            ByteBuffer slab = slab(record, tableId);
+            int at = (record % SLAB_RECORDS) * RECORD_BYTES;
+            slab.get(at + SNAPSHOT, snapshot, 0, slab.get(at + LENGTH));
+            release(slab, at, record);
+        }
+        return MatchSnapshot.restore(snapshot, 0, seats, listener, rng);
+    }
+
+    // Drops a parked match without restoring it
+    public synchronized void free(int record, long tableId) {
+        release(slab(record, tableId), (record % SLAB_RECORDS) * RECORD_BYTES, record);
+    }
+
+    private ByteBuffer slab(int record, long tableId) {
+        ByteBuffer slab = record >= 0 && record / SLAB_RECORDS < slabs.size() ? slabs.get(record / SLAB_RECORDS) : null;
+        if (slab == null || slab.getLong((record % SLAB_RECORDS) * RECORD_BYTES + ID) != tableId) {
+            throw new IllegalArgumentException("Record " + record + " does not hold table " + tableId);
+        }
+        return slab;
+    }
+
+    private void release(ByteBuffer slab, int at, int record) {
+        slab.putLong(at + ID, NO_TABLE);
+        free[freeCount++] = record;
+        size--;
+    }
+
+    private void grow() {
+        int first = slabs.size() * SLAB_RECORDS;
+        ByteBuffer slab = ByteBuffer.allocateDirect(SLAB_RECORDS * RECORD_BYTES);
+        for (int i = 0; i < SLAB_RECORDS; i++) {
+            slab.putLong(i * RECORD_BYTES + ID, NO_TABLE);
+        }
+        slabs.add(slab);
+        if (free.length < first + SLAB_RECORDS) {
+            free = Arrays.copyOf(free, first + SLAB_RECORDS);
+        }
+        for (int i = SLAB_RECORDS - 1; i >= 0; i--) {
+            free[freeCount++] = first + i; // Lowest records first
+        }
+    }
+
+    // Matches parked
+    public synchronized int size() {
+        return size;
+    }
+
+    // Records the slabs hold, parked or free
+    public synchronized int getCapacity() {
+        return slabs.size() * SLAB_RECORDS;
+    }
+
+    public synchronized long getOffHeapBytes() {
+        return (long) slabs.size() * SLAB_RECORDS * RECORD_BYTES;
+    }
+}
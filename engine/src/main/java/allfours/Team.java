@@ -1,3 +1,5 @@
+package allfours;
+
 public class Team {
     private String name;
     private Player player1;
@@ -41,6 +43,16 @@ public class Team {
         gameScore = 0;
     }
 
+    public void resetMatchScore() {
+        matchScore = 0;
+    }
+
+    // Scores from a MatchSnapshot
+    void restoreScores(int matchScore, int gameScore) {
+        this.matchScore = matchScore;
+        this.gameScore = gameScore;
+    }
+
     public String getName() {
         return name;
     }
@@ -0,0 +1,312 @@
+package allfours;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.random.RandomGenerator;
+
+/*
+ * Head-to-head matches between two bot strategies, stopped by a sequential
+ * probability ratio test (SPRT) as soon as the difference between them is
+ * settled either way.
+ *
+ * Matches are played in duplicate pairs: both matches of a pair get the
+ * same first dealer and the counter deck Deck(master seed, p), so hand k
+ * is dealt the same pack in both, with the strategies partnered as Team A
+ * in one match and as Team B in the other. The pack depends only on the
+ * hand's number (and on the redeal, when the pack runs out), not on how
+ * many shuffles came before it, so a hand thrown in during one match and
+ * not the other does not shift the later deals out of step. Deals that favour one partnership
+ * cancel out within the pair, which leaves far less noise than
+ * independent matches. The first dealer rotates with the pair index, so
+ * every seat arrangement is played equally often. Pair p is seeded from
+ * (master seed, p), so its result does not depend on the thread count.
+ *
+ * A pair scores 1, 1/2 or 0 for the first strategy. The test is the
+ * generalized SPRT of H0: Elo difference = elo0 against H1: elo1, using the
+ * normal approximation to the log-likelihood ratio over pair scores.
+ * Pairs are played in batches across the pool, and the test is checked
+ * between batches, in pair order. The run stops when the LLR leaves
+ * [ln(beta / (1 - alpha)), ln((1 - beta) / alpha)] or after maxPairs.
+ *
+ * Usage: Tournament <strategy> <strategy> [max pairs] [seed] [threads] [elo0 elo1]
+ * Strategies: random, ismcts:<iterations per decision>
+ */
+
+public class Tournament {
+    private static final int PAIRS_PER_TASK = 4;
+
+    // A named strategy: builds one seat's DecisionProvider from a generator
+    public static final class Entrant {
+        private final String name;
+        private final Function<RandomGenerator, DecisionProvider> bots;
+
+        public Entrant(String name, Function<RandomGenerator, DecisionProvider> bots) {
+            this.name = name;
+            this.bots = bots;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        // "random", or "ismcts:<iterations>" for a single-threaded ISMCTS bot with an iteration cap
+        public static Entrant parse(String spec) {
+            if (spec.equals("random")) {
+                return new Entrant(spec, RandomDecisionProvider::new);
+            }
+            if (spec.startsWith("ismcts:")) {
+                int iterations = Integer.parseInt(spec.substring("ismcts:".length()));
+                return new Entrant(spec, rng -> new IsmctsDecisionProvider(rng, 0, 1, iterations, Runnable::run));
+            }
+            throw new IllegalArgumentException("Unknown strategy: " + spec);
+        }
+    }
+
+    // Pair results for the first entrant, with the SPRT over them
+    public static final class Result {
+        private long sweeps;  // Both matches of a pair won
+        private long splits;
+        private long losses;  // Both lost
+        private double llr;
+        private int decision; // 0 undecided, 1 accepted H1 (first stronger by elo1), -1 accepted H0
+
+        void add(Result other) {
+            sweeps += other.sweeps;
+            splits += other.splits;
+            losses += other.losses;
+        }
+
+        public long getPairs() {
+            return sweeps + splits + losses;
+        }
+
+        public long getSweeps() {
+            return sweeps;
+        }
+
+        public long getSplits() {
+            return splits;
+        }
+
+        public long getLosses() {
+            return losses;
+        }
+
+        // Mean pair score of the first entrant: its share of matches won
+        public double getScore() {
+            long pairs = getPairs();
+            return pairs == 0 ? 0.5 : (sweeps + 0.5 * splits) / pairs;
+        }
+
+        // Elo difference implied by the score, first minus second
+        public double getElo() {
+            return elo(getScore());
+        }
+
+        // Half-width of the 95% interval on getElo()
+        public double getEloError() {
+            long pairs = getPairs();
+            double score = getScore();
+            if (pairs < 2 || score <= 0 || score >= 1) {
+                return Double.POSITIVE_INFINITY;
+            }
+            double spread = 1.96 * Math.sqrt(variance() / pairs);
+            return (elo(Math.min(score + spread, 1 - 1e-9)) - elo(Math.max(score - spread, 1e-9))) / 2;
+        }
+
+        public double getLlr() {
+            return llr;
+        }
+
+        // 1: the first entrant is stronger by elo1; -1: no stronger than elo0; 0: not settled
+        public int getDecision() {
+            return decision;
+        }
+
+        private double variance() {
+            long pairs = getPairs();
+            double mean = getScore();
+            double squares = (sweeps + 0.25 * splits) / pairs;
+            return squares - mean * mean;
+        }
+
+        void test(double score0, double score1, double lower, double upper) {
+            long pairs = getPairs();
+            // A sample with no spread yet (every pair alike) is given a little, rather than an infinite LLR
+            double variance = Math.max(variance(), 1e-3);
+            llr = pairs * (score1 - score0) * (getScore() - (score0 + score1) / 2) / variance;
+            decision = llr >= upper ? 1 : llr <= lower ? -1 : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d pairs (+%d =%d -%d), score %.4f, Elo %+.1f +/- %.1f, LLR %.2f%s",
+                    getPairs(), sweeps, splits, losses, getScore(), getElo(), getEloError(), llr,
+                    decision > 0 ? ", H1 accepted" : decision < 0 ? ", H0 accepted" : "");
+        }
+    }
+
+    private final Entrant first;
+    private final Entrant second;
+    private final long masterSeed;
+    private final double elo0;
+    private final double elo1;
+    private final double lower;
+    private final double upper;
+
+    public Tournament(Entrant first, Entrant second, long masterSeed) {
+        this(first, second, masterSeed, 0, 20, 0.05, 0.05);
+    }
+
+    /*
+     * @param elo0 Elo difference of the null hypothesis (first no stronger than this)
+     * @param elo1 Elo difference of the alternative; elo1 > elo0
+     * @param alpha Chance of accepting H1 when H0 holds
+     * @param beta Chance of accepting H0 when H1 holds
+     */
+    public Tournament(Entrant first, Entrant second, long masterSeed, double elo0, double elo1, double alpha,
+            double beta) {
+        if (elo1 <= elo0) {
+            throw new IllegalArgumentException("elo1 must exceed elo0: " + elo0 + ", " + elo1);
+        }
+        if (alpha <= 0 || alpha >= 1 || beta <= 0 || beta >= 1) {
+            throw new IllegalArgumentException("Error rates must be in (0, 1): " + alpha + ", " + beta);
+        }
+        this.first = first;
+        this.second = second;
+        this.masterSeed = masterSeed;
+        this.elo0 = elo0;
+        this.elo1 = elo1;
+        this.lower = Math.log(beta / (1 - alpha));
+        this.upper = Math.log((1 - beta) / alpha);
+    }
+
+    /*
+     * Plays pairs in batches on the pool until the SPRT settles or maxPairs are played
+     *
+     * @param progress Hears the running result after every batch
+     */
+    public Result run(long maxPairs, int batchPairs, ForkJoinPool pool, Consumer<Result> progress) {
+        Result result = new Result();
+        double score0 = score(elo0);
+        double score1 = score(elo1);
+        for (long from = 0; from < maxPairs && result.getDecision() == 0; from += batchPairs) {
+            result.add(pool.invoke(new Batch(from, Math.min(maxPairs, from + batchPairs))));
+            result.test(score0, score1, lower, upper);
+            progress.accept(result);
+        }
+        return result;
+    }
+
+    /*
+     * Plays one duplicate pair
+     *
+     * @return How many of the pair's two matches the first entrant won
+     */
+    public int playPair(long pairIndex) {
+        long seed = MatchSimulator.matchSeed(masterSeed, pairIndex);
+        int dealer = (int) (pairIndex & 3);
+        int wins = 0;
+        for (int firstAsTeamA = 0; firstAsTeamA < 2; firstAsTeamA++) {
+            SplittableRandom rng = new SplittableRandom(seed);
+            Deck deck = new Deck(masterSeed, pairIndex); // Hand k gets the same pack in both matches
+            GameController game = new GameController(GameListener.SILENT, rng.split(), deck);
+            Entrant teamA = firstAsTeamA == 1 ? first : second;
+            Entrant teamB = firstAsTeamA == 1 ? second : first;
+            game.setupGame(new DecisionProvider[] {
+                    teamA.bots.apply(rng.split()), teamB.bots.apply(rng.split()),
+                    teamA.bots.apply(rng.split()), teamB.bots.apply(rng.split()) }, dealer);
+            game.playMatch();
+            boolean teamAWon = game.getWinner() == game.getTeamA();
+            if (teamAWon == (firstAsTeamA == 1)) {
+                wins++;
+            }
+        }
+        return wins;
+    }
+
+    // Expected score at an Elo difference
+    static double score(double elo) {
+        return 1 / (1 + Math.pow(10, -elo / 400));
+    }
+
+    static double elo(double score) {
+        return -400 * Math.log10(1 / score - 1);
+    }
+
+    private class Batch extends RecursiveTask<Result> {
+        private static final long serialVersionUID = 1L;
+
+        private final long from;
+        private final long to;
+
+        Batch(long from, long to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Result compute() {
+            if (to - from <= PAIRS_PER_TASK) {
+                Result result = new Result();
+                for (long p = from; p < to; p++) {
+                    int wins = playPair(p);
+                    if (wins == 2) {
+                        result.sweeps++;
+                    } else if (wins == 1) {
+                        result.splits++;
+                    } else {
+                        result.losses++;
+                    }
+                }
+                return result;
+            }
+
+            long mid = (from + to) >>> 1;
+            Batch left = new Batch(from, mid);
+            left.fork();
+            Result right = new Batch(mid, to).compute();
+            Result result = left.join();
+            result.add(right);
+            return result;
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: Tournament <strategy> <strategy> [max pairs] [seed] [threads] [elo0 elo1]");
+            System.err.println("Strategies: random, ismcts:<iterations>");
+            return;
+        }
+        Entrant first = Entrant.parse(args[0]);
+        Entrant second = Entrant.parse(args[1]);
+        long maxPairs = args.length > 2 ? Long.parseLong(args[2]) : 100_000;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+        double elo0 = args.length > 6 ? Double.parseDouble(args[5]) : 0;
+        double elo1 = args.length > 6 ? Double.parseDouble(args[6]) : 20;
+
+        Tournament tournament = new Tournament(first, second, seed, elo0, elo1, 0.05, 0.05);
+        System.out.println(first.getName() + " vs " + second.getName() + ", seed " + seed + ", " + threads
+                + " threads, SPRT elo0 " + elo0 + " elo1 " + elo1 + String.format(
+                        ", LLR bounds [%.2f, %.2f]", tournament.lower, tournament.upper));
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        long[] shown = {0}; // Progress is printed each time the pair count doubles
+        Result result = tournament.run(maxPairs, Math.max(16, 4 * threads), pool, r -> {
+            if (r.getPairs() >= 2 * shown[0]) {
+                shown[0] = r.getPairs();
+                System.out.println("  " + r);
+            }
+        });
+        double seconds = (System.nanoTime() - start) / 1e9;
+        pool.shutdown();
+
+        System.out.println(result);
+        System.out.println(String.format("%.1f s, %.1f matches/sec", seconds, 2 * result.getPairs() / seconds));
+    }
+}
@@ -0,0 +1,187 @@
+package allfours;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class Trick {
+    // PLAY_ORDER[leader][i] is the seat that plays i-th when leader leads (play passes to the right)
+    static final int[][] PLAY_ORDER = {
+            {0, 3, 2, 1},
+            {1, 0, 3, 2},
+            {2, 1, 0, 3},
+            {3, 2, 1, 0}};
+
+    private List<Player> players;
+    private String trumpSuit;
+    private int trumpIndex;
+    private int leaderSeat;
+    private List<Card> playedCards;
+    private int winnerSeat;
+    private int pointsEarned;
+    private int jackSeat;
+    private boolean resolved; // Winner and points known
+    private GameListener listener;
+
+    public Trick(List<Player> players, String trumpSuit, Player leader) {
+        this(players, trumpSuit, leader, ConsoleGameListener.INSTANCE);
+    }
+
+    public Trick(List<Player> players, String trumpSuit, Player leader, GameListener listener) {
+        this(players, listener);
+        reset(trumpSuit, players.indexOf(leader));
+    }
+
+    // A reusable trick; call reset() before each play()
+    public Trick(List<Player> players, GameListener listener) {
+        this.listener = listener;
+        this.players = players;
+        this.playedCards = new ArrayList<>(players.size());
+    }
+
+    /*
+     * Clears the trick so the same object can be played again
+     *
+     * @param trumpSuit The trump suit for the round
+     * @param leaderSeat The index in players of the player on top
+     */
+    public void reset(String trumpSuit, int leaderSeat) {
+        this.trumpSuit = trumpSuit;
+        this.trumpIndex = Card.suitIndexOf(trumpSuit);
+        this.leaderSeat = leaderSeat;
+        this.playedCards.clear();
+        this.winnerSeat = -1;
+        this.pointsEarned = 0;
+        this.jackSeat = -1;
+        this.resolved = false;
+    }
+
+    // Puts a card back on the table, in play order, when a snapshot is restored
+    void restorePlayed(Card card) {
+        playedCards.add(card);
+    }
+
+    /*
+     * Runs an entire trick, where each player plays one card
+     * 
+     * @return The player who wins the trick
+     */
+    public Player play() {
+        if (!Metrics.ENABLED) {
+            return playCards();
+        }
+        Metrics.TrickEvent event = new Metrics.TrickEvent();
+        event.begin();
+        long start = System.nanoTime();
+        Player winner = playCards();
+        Metrics.trickPlayed(event, start, leaderSeat, winnerSeat, pointsEarned);
+        return winner;
+    }
+
+    private Player playCards() {
+        int[] playOrder = PLAY_ORDER[leaderSeat]; // Defines the order in which players play
+        String leadSuit = null;
+        int leadIndex = -1;
+        Card highestCard = null;
+
+        for (int i = 0; i < playOrder.length; i++) { // Each player plays one card
+            int seat = playOrder[i];
+            Card played;
+            if (i < playedCards.size()) {
+                played = playedCards.get(i); // Already on the table when a snapshot was restored
+            } else {
+                Player player = players.get(seat);
+                played = player.chooseCardToPlay(leadSuit, trumpSuit, playedCards);
+                playedCards.add(played); // Keep track of played cards
+                listener.cardPlayed(player, played);
+            }
+
+            // Check if Jack of trump is played
+            if (played.getRankIndex() == Card.JACK && played.getSuitIndex() == trumpIndex) {
+                jackSeat = seat;
+            }
+
+            // Suit called is the lead suit
+            if (leadSuit == null) { 
+                leadSuit = played.getSuit();
+                leadIndex = played.getSuitIndex();
+            }
+
+            // Check if the played card is better than the current highest card
+            if (highestCard == null || isBetterCard(played, highestCard, leadIndex)) {
+                highestCard = played;
+                winnerSeat = seat;
+            }
+        }
+
+        pointsEarned = calculateTrickPoints(); // Calculate points won in the trick
+        resolved = true;
+        Player winner = players.get(winnerSeat);
+        listener.trickWon(winner, pointsEarned);
+
+        return winner;
+    }
+
+    /*
+     * Determines if the card played is better than the current winning card
+     * 
+     * @param c1 The card played
+     * @param c2 The current winning card
+     * @param leadSuit The suit index of the card called in the trick
+     * @return true if c1 is better than c2, false otherwise
+    */
+
+    
+    boolean isBetterCard(Card c1, Card c2, int leadSuit) {
+        return Rules.beats(c1, c2, leadSuit, trumpIndex);
+    }
+
+    // Calculates the points won in the trick
+    int calculateTrickPoints() {
+        int total = 0;
+
+        for (int i = 0, n = playedCards.size(); i < n; i++) {
+            total += Rules.gamePoints(playedCards.get(i).getOrdinal());
+        }
+
+        return total;
+    }
+
+    // Getter for the number of points won in the trick 
+    public int getPointsEarned() {
+        return pointsEarned;
+    }
+
+    // Getter for the seat of the player who won the trick
+    public int getWinnerSeat() {
+        return winnerSeat;
+    }
+
+    // Getter for whether Jack of trump was played
+    public boolean isJackPlayed() {
+        return jackSeat >= 0;
+    }
+
+    // Getter for the player who played the Jack of trump
+    public Player getJackPlayer() {
+        return jackSeat >= 0 ? players.get(jackSeat) : null;
+    }
+
+    // Getter for the seat of the player who played the Jack of trump, or -1
+    public int getJackSeat() {
+        return jackSeat;
+    }
+
+    public int getLeaderSeat() {
+        return leaderSeat;
+    }
+
+    // The cards played so far, in play order
+    public List<Card> getPlayedCards() {
+        return playedCards;
+    }
+
+    // Whether the trick has been played out and its winner decided
+    boolean isResolved() {
+        return resolved;
+    }
+}
\ No newline at end of file
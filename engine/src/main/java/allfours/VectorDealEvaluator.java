@@ -0,0 +1,136 @@
+package allfours;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/*
+ * DealEvaluator on the Vector API: each lane of a LongVector holds one
+ * deal, so a 512-bit machine scores eight deals per pass, with no
+ * branches and no table lookups.
+ *
+ * - The trump suit is the 13-bit block holding the kicked card, picked by
+ *   a blend per suit; kick chalk likewise, by the kicked card's rank.
+ * - The seat with the largest trump mask holds High (hands are disjoint),
+ *   and the seat whose lowest set trump bit is smallest holds Low.
+ * - Game points count each scoring rank with one multiply: the four cards
+ *   of a rank sit 13 bits apart, so multiplying by 1 + 2^13 + 2^26 + 2^39
+ *   sums them into bits 39 to 41.
+ *
+ * JDK 17 has no lane-wise bit count, hence the multiply. The work is split
+ * into a pass for the kicks and two per seat (trumps, then points),
+ * carrying the best trumps so far in the batch's scratch arrays: a single loop over everything is
+ * more than C2 will inline, and its vectors end up boxed on the heap.
+ * The tail of a batch that does not fill a vector goes to
+ * ScalarDealEvaluator. Only
+ * DealEvaluator.vector() loads this class, and only with the module present.
+ */
+
+final class VectorDealEvaluator implements DealEvaluator {
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+    private static final long SPREAD = 1L | 1L << 13 | 1L << 26 | 1L << 39;
+    private static final long PAIR = SPREAD | SPREAD << 3;
+    private static final int COUNT_SHIFT = 3 * Card.NUM_RANKS;
+    private static final long ACES = ScalarDealEvaluator.ACES;
+    private static final long SIXES = ScalarDealEvaluator.rank(Card.SIX);
+    private static final long JACKS = ScalarDealEvaluator.JACKS;
+    private static final long HIGH_FIELD = 7L << DealBatch.HIGH_SHIFT;
+    private static final long LOW_FIELD = 7L << DealBatch.LOW_SHIFT;
+    private static final long JACK_FIELD = 7L << DealBatch.JACK_SHIFT;
+    private static final long NO_SEATS = (long) DealBatch.NONE << DealBatch.HIGH_SHIFT
+            | (long) DealBatch.NONE << DealBatch.LOW_SHIFT | (long) DealBatch.NONE << DealBatch.JACK_SHIFT;
+
+    @Override
+    public void evaluate(DealBatch batch) {
+        int bound = SPECIES.loopBound(batch.size());
+        kicks(batch, bound);
+        for (int seat = 0; seat < 4; seat++) {
+            trumps(batch, seat, bound);
+            points(batch, seat, bound);
+        }
+        ScalarDealEvaluator.evaluate(batch, bound);
+    }
+
+    // Trump suits and kick chalk; no seat holds anything yet
+    private static void kicks(DealBatch batch, int bound) {
+        LongVector zero = LongVector.zero(SPECIES);
+        LongVector empty = LongVector.broadcast(SPECIES, NO_SEATS);
+        LongVector top = LongVector.broadcast(SPECIES, Long.MAX_VALUE);
+        for (int i = 0; i < bound; i += SPECIES.length()) {
+            LongVector kick = LongVector.fromArray(SPECIES, batch.kicks, i);
+            LongVector trumps = zero;
+            for (int suit = 0; suit < Card.NUM_SUITS; suit++) {
+                trumps = trumps.blend(CardSet.suit(suit), held(kick, CardSet.suit(suit)));
+            }
+            trumps.intoArray(batch.trumps, i);
+            zero.intoArray(batch.highest, i);
+            top.intoArray(batch.lowest, i);
+            empty.blend(NO_SEATS | Rules.kickChalk(Card.ACE), held(kick, ACES))
+                    .blend(NO_SEATS | Rules.kickChalk(Card.SIX), held(kick, SIXES))
+                    .blend(NO_SEATS | Rules.kickChalk(Card.JACK), held(kick, JACKS))
+                    .intoArray(batch.results, i);
+        }
+    }
+
+    // One seat's trumps against the best so far
+    private static void trumps(DealBatch batch, int seat, int bound) {
+        long[] hands = batch.hands[seat];
+        for (int i = 0; i < bound; i += SPECIES.length()) {
+            LongVector hand = LongVector.fromArray(SPECIES, hands, i);
+            LongVector held = hand.and(LongVector.fromArray(SPECIES, batch.trumps, i));
+            LongVector result = LongVector.fromArray(SPECIES, batch.results, i);
+
+            LongVector highest = LongVector.fromArray(SPECIES, batch.highest, i);
+            VectorMask<Long> higher = held.compare(VectorOperators.GT, highest);
+            highest.blend(held, higher).intoArray(batch.highest, i);
+            result = result.blend(result.and(~HIGH_FIELD).or((long) seat << DealBatch.HIGH_SHIFT), higher);
+
+            LongVector lowest = LongVector.fromArray(SPECIES, batch.lowest, i);
+            LongVector low = held.and(held.neg());
+            VectorMask<Long> lower = low.compare(VectorOperators.NE, 0)
+                    .and(low.compare(VectorOperators.LT, lowest));
+            lowest.blend(low, lower).intoArray(batch.lowest, i);
+            result = result.blend(result.and(~LOW_FIELD).or((long) seat << DealBatch.LOW_SHIFT), lower);
+
+            result.blend(result.and(~JACK_FIELD).or((long) seat << DealBatch.JACK_SHIFT), held(held, JACKS))
+                    .intoArray(batch.results, i);
+        }
+    }
+
+    // One seat's game points
+    private static void points(DealBatch batch, int seat, int bound) {
+        long[] hands = batch.hands[seat];
+        int shift = DealBatch.POINTS_SHIFT + 6 * seat;
+        for (int i = 0; i < bound; i += SPECIES.length()) {
+            LongVector hand = LongVector.fromArray(SPECIES, hands, i);
+            // Tens and Kings, Jacks and Aces, are three ranks apart: one multiply counts each pair
+            LongVector tensKings = count(hand, Card.TEN, PAIR);
+            LongVector jacksAces = count(hand, Card.JACK, PAIR);
+            LongVector points = tensKings.and(7).mul(10)
+                    .add(tensKings.lanewise(VectorOperators.LSHR, 3).and(7).mul(3))
+                    .add(jacksAces.and(7))
+                    .add(jacksAces.lanewise(VectorOperators.LSHR, 3).and(7).mul(4))
+                    .add(count(hand, Card.QUEEN, SPREAD).and(7).mul(2));
+            LongVector.fromArray(SPECIES, batch.results, i)
+                    .or(points.lanewise(VectorOperators.LSHL, shift))
+                    .intoArray(batch.results, i);
+        }
+    }
+
+    // Lanes where the set meets the mask
+    private static VectorMask<Long> held(LongVector set, long mask) {
+        return set.and(mask).compare(VectorOperators.NE, 0);
+    }
+
+    /*
+     * How many of the four cards of the rank (and, with PAIR, of the rank three above it, in
+     * the next three bits) each lane's set holds
+     */
+    private static LongVector count(LongVector set, int rankIndex, long ranks) {
+        return set.lanewise(VectorOperators.LSHR, rankIndex)
+                .and(ranks)
+                .mul(SPREAD)
+                .lanewise(VectorOperators.LSHR, COUNT_SHIFT);
+    }
+}
@@ -0,0 +1,138 @@
+package allfours;
+
+import java.nio.ByteBuffer;
+
+/*
+ * Binary protocol between GameServer and its clients. Every message is a
+ * type byte followed by a fixed layout, so its length follows from the type
+ * and a stream needs no framing beyond that. Cards are ordinals
+ * (suit * 13 + rank), seats 0..3 (Player 1..Player 4), teams 0 (Team A) and
+ * 1 (Team B); multi-byte fields are big-endian.
+ *
+ * Client to server:
+ * - JOIN     bots, botKind   sit at a new table; bots (0-3) seats go to bots
+ *                            (BOT_RANDOM or BOT_ISMCTS), the rest to other joining clients
+ * - PLAY     card            play a card from the hand
+ * - BEG      yes             beg (1) or stand (0)
+ * - GIVE     yes             as dealer, give a chalk (1) or run the pack (0)
+ *
+ * Server to client:
+ * - SEATED   seat, table:4   the match is starting
+ * - DEAL     dealer, hand:8  the client's hand as a CardSet, after every deal
+ * - KICK     card, running   a kicked card, running (1) if the pack is being run
+ * - BEGGED   seat, begged    the beggar's answer
+ * - PROMPT   kind, legal:8   the client must act: PROMPT_CARD (legal cards as a CardSet), PROMPT_BEG or PROMPT_GIVE
+ * - PLAYED   seat, card      a card played to the trick
+ * - TRICK    winner, points  trick won, with its game points
+ * - CHALK    reason, team, n chalk scored (CHALK_KICK ... CHALK_GAME)
+ * - SCORE    a, b            match score after a hand
+ * - END      team            the winning team, or END_ABORTED
+ * - REJECTED type            the client's message of that type was not accepted
+ */
+
+public final class WireProtocol {
+    // Client to server
+    public static final int JOIN = 0x01;
+    public static final int PLAY = 0x02;
+    public static final int BEG = 0x03;
+    public static final int GIVE = 0x04;
+
+    // Server to client
+    public static final int SEATED = 0x41;
+    public static final int DEAL = 0x42;
+    public static final int KICK = 0x43;
+    public static final int BEGGED = 0x44;
+    public static final int PROMPT = 0x45;
+    public static final int PLAYED = 0x46;
+    public static final int TRICK = 0x47;
+    public static final int CHALK = 0x48;
+    public static final int SCORE = 0x49;
+    public static final int END = 0x4A;
+    public static final int REJECTED = 0x4B;
+
+    public static final int BOT_RANDOM = 0;
+    public static final int BOT_ISMCTS = 1;
+
+    public static final int PROMPT_CARD = 0;
+    public static final int PROMPT_BEG = 1;
+    public static final int PROMPT_GIVE = 2;
+
+    public static final int CHALK_KICK = 0;
+    public static final int CHALK_GIVEN = 1;
+    public static final int CHALK_HIGH = 2;
+    public static final int CHALK_LOW = 3;
+    public static final int CHALK_JACK = 4;
+    public static final int CHALK_HANG_JACK = 5;
+    public static final int CHALK_GAME = 6;
+
+    public static final int END_ABORTED = 0xFF;
+
+    // The longest message
+    public static final int MAX_MESSAGE = 10;
+
+    private static final byte[] SIZES = new byte[256];
+
+    static {
+        SIZES[JOIN] = 3;
+        SIZES[PLAY] = 2;
+        SIZES[BEG] = 2;
+        SIZES[GIVE] = 2;
+        SIZES[SEATED] = 6;
+        SIZES[DEAL] = 10;
+        SIZES[KICK] = 3;
+        SIZES[BEGGED] = 3;
+        SIZES[PROMPT] = 10;
+        SIZES[PLAYED] = 3;
+        SIZES[TRICK] = 3;
+        SIZES[CHALK] = 4;
+        SIZES[SCORE] = 3;
+        SIZES[END] = 2;
+        SIZES[REJECTED] = 2;
+    }
+
+    private WireProtocol() {
+    }
+
+    // Bytes in a message of the given type, type byte included; 0 if there is no such type
+    public static int size(int type) {
+        return SIZES[type & 0xFF];
+    }
+
+    /*
+     * @return The length of the complete message at the buffer's position, 0 if it is incomplete
+     * @throws IllegalArgumentException if the type byte is unknown
+     */
+    public static int peek(ByteBuffer in) {
+        if (!in.hasRemaining()) {
+            return 0;
+        }
+        int type = in.get(in.position()) & 0xFF;
+        int size = SIZES[type];
+        if (size == 0) {
+            throw new IllegalArgumentException("Unknown message type " + type);
+        }
+        return in.remaining() >= size ? size : 0;
+    }
+
+    public static void put(ByteBuffer out, int type, int a) {
+        out.put((byte) type).put((byte) a);
+    }
+
+    public static void put(ByteBuffer out, int type, int a, int b) {
+        out.put((byte) type).put((byte) a).put((byte) b);
+    }
+
+    public static void put(ByteBuffer out, int type, int a, int b, int c) {
+        out.put((byte) type).put((byte) a).put((byte) b).put((byte) c);
+    }
+
+    // SEATED
+    public static void putSeated(ByteBuffer out, int seat, int table) {
+        out.put((byte) SEATED).put((byte) seat).putInt(table);
+    }
+
+    // DEAL and PROMPT: a byte and a CardSet
+    public static void putSet(ByteBuffer out, int type, int a, long set) {
+        out.put((byte) type).put((byte) a).putLong(set);
+    }
+}
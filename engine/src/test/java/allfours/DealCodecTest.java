@@ -0,0 +1,84 @@
+package allfours;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class DealCodecTest {
+
+    @Test
+    void dealAndKickFitInSeventeenBytes() {
+        assertEquals(17, DealCodec.encodedBytes(Card.NUM_CARDS, MatchRecorder.DEAL_CARDS));
+    }
+
+    @Test
+    void randomDrawsRoundTrip() {
+        SplittableRandom random = new SplittableRandom(11);
+        for (int i = 0; i < 2000; i++) {
+            long available = random.nextLong() & CardSet.ALL;
+            int count = Long.bitCount(available);
+            int n = random.nextInt(count + 1);
+            int[] cards = draw(available, n, random);
+
+            byte[] out = new byte[4 + DealCodec.encodedBytes(count, n) + 4];
+            int written = DealCodec.encode(cards, n, available, out, 4);
+            assertEquals(DealCodec.encodedBytes(count, n), written);
+
+            ByteBuffer in = ByteBuffer.wrap(out);
+            in.position(4);
+            int[] decoded = new int[n];
+            DealCodec.decode(in, n, available, decoded);
+            assertArrayEquals(cards, decoded);
+            assertEquals(4 + written, in.position());
+        }
+    }
+
+    @Test
+    void consecutiveIndexesDecodeInTurn() {
+        // A deal over the whole pack, then a run of the pack over the cards left, as MatchRecorder writes them
+        SplittableRandom random = new SplittableRandom(12);
+        int[] deal = draw(CardSet.ALL, MatchRecorder.DEAL_CARDS, random);
+        long left = CardSet.ALL;
+        for (int card : deal) {
+            left &= ~(1L << card);
+        }
+        int[] run = draw(left, MatchRecorder.RUN_CARDS, random);
+
+        byte[] out = new byte[64];
+        int length = DealCodec.encode(deal, deal.length, CardSet.ALL, out, 0);
+        length += DealCodec.encode(run, run.length, left, out, length);
+
+        ByteBuffer in = ByteBuffer.wrap(out, 0, length);
+        int[] cards = new int[MatchRecorder.DEAL_CARDS];
+        DealCodec.decode(in, deal.length, CardSet.ALL, cards);
+        assertArrayEquals(deal, cards);
+        cards = new int[MatchRecorder.RUN_CARDS];
+        DealCodec.decode(in, run.length, left, cards);
+        assertArrayEquals(run, cards);
+        assertEquals(length, in.position());
+    }
+
+    @Test
+    void cardNotAvailableIsRejected() {
+        long available = CardSet.suit(0);
+        int[] cards = {Card.NUM_RANKS}; // First card of the next suit
+        assertThrows(IllegalArgumentException.class,
+                () -> DealCodec.encode(cards, 1, available, new byte[8], 0));
+    }
+
+    // n distinct cards from available, in random order
+    private static int[] draw(long available, int n, SplittableRandom random) {
+        int[] cards = new int[n];
+        for (int i = 0; i < n; i++) {
+            int card = CardSet.select(available, random.nextInt(Long.bitCount(available)));
+            cards[i] = card;
+            available &= ~(1L << card);
+        }
+        return cards;
+    }
+}
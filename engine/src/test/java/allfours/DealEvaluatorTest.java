@@ -0,0 +1,179 @@
+package allfours;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class DealEvaluatorTest {
+
+    // Stands, and plays the first legal card, so the hand is played out on the deal as it was dealt
+    private static final DecisionProvider PASSIVE = new DecisionProvider() {
+        @Override
+        public Card chooseCard(Player player, String leadSuit, String trumpSuit, List<Card> playedCards) {
+            return CardSet.first(player.legalMoves(leadSuit, trumpSuit, playedCards));
+        }
+
+        @Override
+        public boolean wantsToBeg(Player player, Card kickedCard) {
+            return false;
+        }
+
+        @Override
+        public boolean givesChalk(Player dealer, Card kickedCard) {
+            return true;
+        }
+    };
+
+    // Deals every hand from one stacked pack order
+    private static final class StackedDeck extends Deck {
+        private byte[] order;
+
+        StackedDeck() {
+            super(null);
+        }
+
+        @Override
+        public void shuffle() {
+            stack(order);
+        }
+    }
+
+    // What a real Round finds in a deal, recorded as the hand is played
+    private static final class Observer implements GameListener {
+        final long[] hands = new long[4];
+        Card kicked;
+        Team chalkTeam;
+        int chalk;
+
+        @Override
+        public void cardsDealt(List<Player> players, int cardsEach) {
+            for (int seat = 0; seat < 4; seat++) {
+                hands[seat] = players.get(seat).getHandMask();
+            }
+        }
+
+        @Override
+        public void cardKicked(Card kickedCard, boolean runningPack) {
+            kicked = kickedCard;
+        }
+
+        @Override
+        public void kickChalk(Team dealerTeam, int chalk) {
+            chalkTeam = dealerTeam;
+            this.chalk = chalk;
+        }
+    }
+
+    @Test
+    void vectorAndScalarAgreeWithRoundAndTrick() {
+        assertNotNull(DealEvaluator.vector(), "surefire runs with --add-modules jdk.incubator.vector");
+        long match = 0;
+        for (int size : new int[] {1, 7, 9, 4096 + 3}) {
+            List<byte[]> orders = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                byte[] order = new byte[Card.NUM_CARDS];
+                DealGenerator.permutation(23, match++, 0, 0, order);
+                orders.add(order);
+            }
+            if (size > 1) {
+                orders.set(size / 2, noTrumpDealt()); // Somewhere inside a full vector
+                orders.set(size - 1, noTrumpDealt()); // And in the scalar tail
+            }
+            check(orders);
+        }
+    }
+
+    private static void check(List<byte[]> orders) {
+        DealBatch scalar = new DealBatch(orders.size());
+        DealBatch vector = new DealBatch(orders.size());
+        for (byte[] order : orders) {
+            scalar.add(order);
+            vector.add(order);
+        }
+        DealEvaluator.scalar().evaluate(scalar);
+        DealEvaluator.vector().evaluate(vector);
+
+        StackedDeck deck = new StackedDeck();
+        for (int i = 0; i < orders.size(); i++) {
+            assertEquals(scalar.getResult(i), vector.getResult(i), "deal " + i + " of " + orders.size());
+            deck.order = orders.get(i);
+            checkAgainstRound(scalar, i, deck);
+        }
+    }
+
+    // Plays the deal as a Round and reads High, Low, the Jack, the kick chalk and each hand's points from it
+    private static void checkAgainstRound(DealBatch batch, int i, StackedDeck deck) {
+        List<Player> players = new ArrayList<>();
+        for (int seat = 0; seat < 4; seat++) {
+            players.add(new Player("Player " + (seat + 1), PASSIVE));
+        }
+        Team teamA = new Team("Team A", players.get(0), players.get(2));
+        Team teamB = new Team("Team B", players.get(1), players.get(3));
+        int dealerSeat = i & 3;
+        Observer observer = new Observer();
+        Round round = new Round(players, players.get(dealerSeat), teamA, teamB, observer, deck);
+        round.playRound();
+
+        // The batch lays the pack out as Deck deals it
+        String deal = "deal " + i;
+        for (int seat = 0; seat < 4; seat++) {
+            assertEquals(observer.hands[seat], batch.hands[seat][i], deal);
+        }
+        assertEquals(CardSet.bit(observer.kicked), batch.kicks[i], deal);
+
+        long result = batch.getResult(i);
+        assertEquals(observer.chalk, DealBatch.kickChalk(result), deal);
+        if (observer.chalk > 0) {
+            assertSame(dealerSeat % 2 == 0 ? teamA : teamB, observer.chalkTeam, deal);
+        }
+        assertEquals(seat(deck, round.findHighTrump()), DealBatch.highSeat(result), deal);
+        assertEquals(seat(deck, round.findLowTrump()), DealBatch.lowSeat(result), deal);
+        Card jack = Card.of(observer.kicked.getSuitIndex() * Card.NUM_RANKS + Card.JACK);
+        assertEquals(seat(deck, CardSet.contains(deck.getDealt(), jack) ? jack : null), DealBatch.jackSeat(result),
+                deal);
+
+        // Each hand's points, counted as a trick holding all six cards would count them
+        Trick trick = new Trick(players, GameListener.SILENT);
+        int[] points = new int[4];
+        for (int seat = 0; seat < 4; seat++) {
+            trick.reset(observer.kicked.getSuit(), 0);
+            for (long h = observer.hands[seat]; h != 0; h &= h - 1) {
+                trick.restorePlayed(Card.of(Long.numberOfTrailingZeros(h)));
+            }
+            points[seat] = trick.calculateTrickPoints();
+        }
+        int[] batched = new int[4];
+        for (int seat = 0; seat < 4; seat++) {
+            batched[seat] = DealBatch.points(result, seat);
+        }
+        assertArrayEquals(points, batched, deal);
+    }
+
+    private static int seat(Deck deck, Card card) {
+        return card == null ? DealBatch.NONE : deck.getSeat(card);
+    }
+
+    // Every dealt card from the last three suits, then the Jack of the first kicked: no seat holds a trump
+    private static byte[] noTrumpDealt() {
+        byte[] order = new byte[Card.NUM_CARDS];
+        int next = 0;
+        for (int card = Card.NUM_RANKS; card < Card.NUM_CARDS; card++) {
+            order[next++] = (byte) card;
+            if (next == 4 * DealBatch.HAND_SIZE) {
+                order[next++] = (byte) Card.JACK;
+            }
+        }
+        for (int card = 0; card < Card.NUM_RANKS; card++) {
+            if (card != Card.JACK) {
+                order[next++] = (byte) card;
+            }
+        }
+        return order;
+    }
+}
@@ -0,0 +1,152 @@
+package allfours;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class DoubleDummySolverTest {
+
+    // Ranks a chalk margin above any game-point margin, as the solver does
+    private static final int CHALK_WEIGHT = 1000;
+
+    /*
+     * Values of positions between tricks, in open addressing: a six-card deal has a couple of million.
+     * A key is never 0, since the Jack margin field is 0 only once a trick has gone.
+     */
+    private static final class Seen {
+        private long[] keys = new long[1 << 16];
+        private int[] values = new int[1 << 16];
+        private int size;
+
+        Integer get(long key) {
+            for (int i = slot(key, keys.length); keys[i] != 0; i = (i + 1) & (keys.length - 1)) {
+                if (keys[i] == key) {
+                    return values[i];
+                }
+            }
+            return null;
+        }
+
+        void put(long key, int value) {
+            if (2 * ++size > keys.length) {
+                long[] oldKeys = keys;
+                int[] oldValues = values;
+                keys = new long[2 * oldKeys.length];
+                values = new int[2 * oldKeys.length];
+                for (int i = 0; i < oldKeys.length; i++) {
+                    if (oldKeys[i] != 0) {
+                        insert(oldKeys[i], oldValues[i]);
+                    }
+                }
+            }
+            insert(key, value);
+        }
+
+        private void insert(long key, int value) {
+            int i = slot(key, keys.length);
+            while (keys[i] != 0) {
+                i = (i + 1) & (keys.length - 1);
+            }
+            keys[i] = key;
+            values[i] = value;
+        }
+
+        private static int slot(long key, int length) {
+            return (int) ((key * 0x9E3779B97F4A7C15L) >>> 40) & (length - 1);
+        }
+    }
+
+    /*
+     * Plain minimax over every legal card: Team A maximises its Jack + Game chalk margin, then its
+     * game-point margin. Nothing is pruned; positions between tricks are remembered by the cards gone
+     * (the deal fixes who held them), the leader and the scores, so five- and six-card deals finish.
+     */
+    private static int bruteForce(GameState state, int totalPoints, Seen seen) {
+        if (state.isOver()) {
+            return state.getChalkMargin() * CHALK_WEIGHT + state.getGamePointMargin();
+        }
+        long key = 0;
+        if (state.getPosition() == 0) {
+            int teamAPoints = (totalPoints - state.getPointsLeft() + state.getGamePointMargin()) / 2;
+            key = state.getGone() | (long) state.getToMove() << 52 | (long) (state.getJackMargin() + 3) << 54
+                    | (long) teamAPoints << 57;
+            Integer known = seen.get(key);
+            if (known != null) {
+                return known;
+            }
+        }
+        boolean maximising = (state.getToMove() & 1) == 0;
+        int best = maximising ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+        for (long legal = state.legalMoves(); legal != 0; legal &= legal - 1) {
+            state.makeMove(Long.numberOfTrailingZeros(legal));
+            int value = bruteForce(state, totalPoints, seen);
+            state.unmakeMove();
+            best = maximising ? Math.max(best, value) : Math.min(best, value);
+        }
+        if (state.getPosition() == 0) {
+            seen.put(key, best);
+        }
+        return best;
+    }
+
+    private static void checkAgainstBruteForce(int cardsEach, int deals, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        DoubleDummySolver reused = new DoubleDummySolver(); // The table carries over between solves
+        GameState state = new GameState();
+        for (int n = 0; n < deals; n++) {
+            long[] hands = TestDeals.deal(random, cardsEach);
+            int trump = random.nextInt(Card.NUM_SUITS);
+            int dealer = random.nextInt(4);
+            int leader = (dealer + 3) % 4;
+            state.reset(hands, trump, leader, dealer);
+            int expected = bruteForce(state, state.getPointsLeft(), new Seen());
+            int chalk = Math.floorDiv(expected + CHALK_WEIGHT / 2, CHALK_WEIGHT);
+            int margin = expected - chalk * CHALK_WEIGHT;
+
+            DoubleDummySolver.Result result = reused.solve(hands, trump, leader, dealer);
+            String deal = "deal " + n;
+            assertEquals(chalk, result.getValue(), deal);
+            assertEquals(margin, result.getGamePoints(0) - result.getGamePoints(1), deal);
+            assertEquals(ScalarDealEvaluator.points(hands[0] | hands[1] | hands[2] | hands[3]),
+                    result.getGamePoints(0) + result.getGamePoints(1), deal);
+            DoubleDummySolver.Result small = new DoubleDummySolver(8).solve(hands, trump, leader, dealer);
+            assertEquals(chalk, small.getValue(), deal);
+            assertEquals(result.getGamePoints(0), small.getGamePoints(0), deal);
+
+            // The line is legal play that reaches the value
+            Card[] line = result.getLine();
+            assertEquals(4 * cardsEach, line.length);
+            for (Card card : line) {
+                assertTrue((state.legalMoves() & CardSet.bit(card)) != 0, "illegal " + card + " in " + deal);
+                state.makeMove(card.getOrdinal());
+            }
+            assertEquals(chalk, state.getChalkMargin(), deal);
+            assertEquals(margin, state.getGamePointMargin(), deal);
+        }
+    }
+
+    @Test
+    void oneAndTwoCardDealsMatchBruteForce() {
+        checkAgainstBruteForce(1, 1000, 1);
+        checkAgainstBruteForce(2, 1000, 2);
+    }
+
+    @Test
+    void threeCardDealsMatchBruteForce() {
+        checkAgainstBruteForce(3, 500, 3);
+    }
+
+    @Test
+    void fourCardDealsMatchBruteForce() {
+        checkAgainstBruteForce(4, 50, 4);
+    }
+
+    @Test
+    void fiveAndSixCardDealsMatchBruteForce() {
+        checkAgainstBruteForce(5, 10, 5);
+        checkAgainstBruteForce(6, 2, 6);
+    }
+}
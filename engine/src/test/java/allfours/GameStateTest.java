@@ -0,0 +1,188 @@
+package allfours;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class GameStateTest {
+
+    // Plays a random legal card, first checking the game state offers the same cards, and keeps the state in step
+    private static final class Follower implements DecisionProvider {
+        private final GameState state;
+        private final SplittableRandom random;
+        private final int seat;
+
+        Follower(GameState state, SplittableRandom random, int seat) {
+            this.state = state;
+            this.random = random;
+            this.seat = seat;
+        }
+
+        @Override
+        public Card chooseCard(Player player, String leadSuit, String trumpSuit, List<Card> playedCards) {
+            assertEquals(seat, state.getToMove());
+            assertEquals(player.getHandMask(), state.getHand(seat));
+            long legal = player.legalMoves(leadSuit, trumpSuit, playedCards);
+            assertEquals(legal, state.legalMoves());
+            int card = CardSet.select(legal, random.nextInt(Long.bitCount(legal)));
+            state.makeMove(card);
+            return Card.of(card);
+        }
+
+        @Override
+        public boolean wantsToBeg(Player player, Card kickedCard) {
+            return false;
+        }
+
+        @Override
+        public boolean givesChalk(Player dealer, Card kickedCard) {
+            return false;
+        }
+    }
+
+    @Test
+    void tricksPlayAsTrickAndPlayerPlayThem() {
+        SplittableRandom random = new SplittableRandom(24);
+        GameState state = new GameState();
+        for (int n = 0; n < 500; n++) {
+            int cardsEach = 6 + 3 * random.nextInt(3); // Dealt, run once, run twice
+            long[] hands = TestDeals.deal(random, cardsEach);
+            int trump = random.nextInt(Card.NUM_SUITS);
+            int leader = random.nextInt(4);
+            int dealer = (leader + 1) % 4; // The leader sits to the dealer's right
+            state.reset(hands, trump, leader, dealer);
+            long startHash = state.getHash();
+
+            List<Player> players = new ArrayList<>();
+            for (int seat = 0; seat < 4; seat++) {
+                Player player = new Player("Player " + (seat + 1), new Follower(state, random, seat));
+                for (long h = hands[seat]; h != 0; h &= h - 1) {
+                    player.addCard(Card.of(Long.numberOfTrailingZeros(h)));
+                }
+                players.add(player);
+            }
+
+            Trick trick = new Trick(players, GameListener.SILENT);
+            int margin = 0;
+            int jack = 0;
+            for (int t = 0; t < cardsEach; t++) {
+                trick.reset(Card.SUITS[trump], state.getToMove());
+                trick.play();
+
+                int winner = trick.getWinnerSeat();
+                int sign = (winner & 1) == 0 ? 1 : -1;
+                margin += sign * trick.getPointsEarned();
+                if (trick.isJackPlayed()) {
+                    jack += sign * ((trick.getJackSeat() & 1) == (winner & 1) ? 1 : 3);
+                }
+                assertEquals(0, state.getPosition());
+                assertEquals(winner, state.getToMove()); // The winner leads the next trick
+                assertEquals(trick.getPointsEarned(), state.getTrickPoints());
+                assertEquals(margin, state.getGamePointMargin());
+                assertEquals(jack, state.getJackMargin());
+                assertEquals(4 * (cardsEach - t - 1), state.getCardsLeft());
+
+                long held = 0;
+                for (int seat = 0; seat < 4; seat++) {
+                    assertEquals(players.get(seat).getHandMask(), state.getHand(seat));
+                    held |= state.getHand(seat);
+                }
+                assertEquals(ScalarDealEvaluator.points(held), state.getPointsLeft());
+
+                // The incremental hash agrees with one built from scratch at the same position
+                GameState fresh = new GameState();
+                fresh.reset(new long[] {state.getHand(0), state.getHand(1), state.getHand(2), state.getHand(3)},
+                        trump, state.getToMove(), dealer);
+                assertEquals(fresh.getHash(), state.getHash());
+            }
+
+            assertTrue(state.isOver());
+            int game = margin > 0 || margin == 0 && (dealer & 1) == 1 ? 2 : -2; // A tie goes to the non-dealers
+            assertEquals(game + jack, state.getChalkMargin());
+
+            while (state.getPly() > 0) {
+                state.unmakeMove();
+            }
+            assertEquals(startHash, state.getHash());
+            assertEquals(4 * cardsEach, state.getCardsLeft());
+            assertEquals(ScalarDealEvaluator.points(hands[0] | hands[1] | hands[2] | hands[3]), state.getPointsLeft());
+            assertEquals(0, state.getGamePointMargin());
+            assertEquals(0, state.getJackMargin());
+        }
+    }
+
+    @Test
+    void unmakeRestoresEveryPosition() {
+        SplittableRandom random = new SplittableRandom(25);
+        GameState state = new GameState();
+        for (int n = 0; n < 500; n++) {
+            long[] hands = TestDeals.deal(random, 6);
+            state.reset(hands, random.nextInt(Card.NUM_SUITS), random.nextInt(4), random.nextInt(4));
+            List<long[]> seen = new ArrayList<>();
+            while (!state.isOver()) {
+                seen.add(snapshot(state));
+                long legal = state.legalMoves();
+                state.makeMove(CardSet.select(legal, random.nextInt(Long.bitCount(legal))));
+            }
+            for (int i = seen.size() - 1; i >= 0; i--) {
+                state.unmakeMove();
+                assertArrayEquals(seen.get(i), snapshot(state), "ply " + i);
+            }
+        }
+        assertThrows(IllegalStateException.class, state::unmakeMove);
+    }
+
+    @Test
+    void setHandAndCopyKeepTheCounts() {
+        SplittableRandom random = new SplittableRandom(26);
+        GameState state = new GameState();
+        GameState copy = new GameState();
+        for (int n = 0; n < 200; n++) {
+            long[] hands = TestDeals.deal(random, 9);
+            state.reset(hands, random.nextInt(Card.NUM_SUITS), 0, 1);
+            for (int i = 0; i < 5; i++) {
+                long legal = state.legalMoves();
+                state.makeMove(CardSet.select(legal, random.nextInt(Long.bitCount(legal))));
+            }
+            // A different guess at a hidden hand of the same size, from the cards nobody else holds
+            int seat = random.nextInt(4);
+            long free = CardSet.ALL & ~state.getGone() & ~state.getTrickCards();
+            for (int other = 0; other < 4; other++) {
+                if (other != seat) {
+                    free &= ~state.getHand(other);
+                }
+            }
+            long guess = 0;
+            for (int i = Long.bitCount(state.getHand(seat)); i > 0; i--) {
+                int card = CardSet.select(free, random.nextInt(Long.bitCount(free)));
+                guess |= 1L << card;
+                free &= ~(1L << card);
+            }
+            state.setHand(seat, guess);
+
+            long held = state.getHand(0) | state.getHand(1) | state.getHand(2) | state.getHand(3);
+            assertEquals(Long.bitCount(held), state.getCardsLeft());
+            assertEquals(ScalarDealEvaluator.points(held), state.getPointsLeft());
+
+            copy.copyFrom(state);
+            assertArrayEquals(snapshot(state), snapshot(copy));
+        }
+    }
+
+    // Everything a caller can read from the state
+    private static long[] snapshot(GameState state) {
+        return new long[] {
+                state.getHand(0), state.getHand(1), state.getHand(2), state.getHand(3), state.getHash(),
+                state.getToMove(), state.getPly(), state.getCardsLeft(), state.getPointsLeft(), state.getGone(),
+                state.getPosition(), state.getLeadSuit(), state.getWinningSeat(), state.getWinningCard(),
+                state.getTrickPoints(), state.getTrickCards(), state.getGamePointMargin(), state.getJackMargin(),
+                state.getJackHolder(), state.legalMoves()};
+    }
+}
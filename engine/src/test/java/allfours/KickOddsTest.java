@@ -0,0 +1,226 @@
+package allfours;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class KickOddsTest {
+    private static final int RUN_CARDS = 4 * 3 + 1;
+
+    // How running the pack ended, summed over every way it can go
+    private static final class Outcomes {
+        final double[] changed;
+        double matchWon;
+        double exhausted;
+        double expectedChalk;
+
+        Outcomes(int runs) {
+            changed = new double[runs];
+        }
+
+        double trumpChanged(int k) {
+            double total = 0;
+            for (int i = 0; i < k; i++) {
+                total += changed[i];
+            }
+            return total;
+        }
+    }
+
+    /*
+     * Every sequence of kicked cards, each card as likely as any other unseen one, played out as
+     * Round.beggingPhase() plays it: the kick scores its chalk, then the match is won, trump
+     * changes or (a trump kicked) the pack is run again
+     */
+    private static void enumerate(long unseen, int packLeft, int trump, int needed, int run, double chance,
+            Outcomes out) {
+        if (packLeft < RUN_CARDS) {
+            out.exhausted += chance;
+            return;
+        }
+        double each = chance / Long.bitCount(unseen);
+        for (long rest = unseen; rest != 0; rest &= rest - 1) {
+            int card = Long.numberOfTrailingZeros(rest);
+            int chalk = Rules.kickChalk(card % Card.NUM_RANKS);
+            out.expectedChalk += each * chalk;
+            if (chalk > 0 && chalk >= needed) {
+                out.matchWon += each;
+            } else if (card / Card.NUM_RANKS != trump) {
+                out.changed[run] += each;
+            } else {
+                enumerate(unseen & ~(1L << card), packLeft - RUN_CARDS, trump, needed - chalk, run + 1, each, out);
+            }
+        }
+    }
+
+    private static void checkExact(long unseen, int packSize, int trump, int chalkToWin) {
+        KickOdds odds = KickOdds.of(unseen, packSize, trump, chalkToWin);
+        Outcomes exact = new Outcomes(packSize / RUN_CARDS);
+        enumerate(unseen, packSize, trump, chalkToWin, 0, 1, exact);
+
+        String where = "pack " + packSize + " of " + Long.bitCount(unseen) + ", trump " + trump + ", chalk to win "
+                + chalkToWin;
+        assertEquals(exact.changed.length, odds.getMaxRuns(), where);
+        for (int k = 1; k <= odds.getMaxRuns(); k++) {
+            assertEquals(exact.trumpChanged(k), odds.getTrumpChanged(k), 1e-12, where + ", " + k + " runs");
+        }
+        assertEquals(exact.matchWon, odds.getMatchWon(), 1e-12, where);
+        assertEquals(exact.exhausted, odds.getExhausted(), 1e-12, where);
+        assertEquals(exact.expectedChalk, odds.getExpectedChalk(), 1e-12, where);
+        assertEquals(1, odds.getTrumpChanged(odds.getMaxRuns()) + odds.getMatchWon() + odds.getExhausted(), 1e-12,
+                where);
+
+        double[] next = new double[4];
+        for (long rest = unseen; rest != 0; rest &= rest - 1) {
+            next[Rules.kickChalk(Long.numberOfTrailingZeros(rest) % Card.NUM_RANKS)] += 1.0 / Long.bitCount(unseen);
+        }
+        for (int chalk = 0; chalk < next.length; chalk++) {
+            assertEquals(next[chalk], odds.getNextKick(chalk), 1e-12, where);
+        }
+    }
+
+    @Test
+    void dealtHandsMatchEnumeration() {
+        SplittableRandom random = new SplittableRandom(18);
+        for (int n = 0; n < 200; n++) {
+            // After a deal of six each and the kick: the pack itself, and the beggar's view of it
+            byte[] order = new byte[Card.NUM_CARDS];
+            DealGenerator.permutation(18, n, 0, 0, order);
+            long beggar = 0;
+            for (int i = 3 * DealBatch.HAND_SIZE; i < 4 * DealBatch.HAND_SIZE; i++) {
+                beggar |= 1L << order[i];
+            }
+            int kicked = order[4 * DealBatch.HAND_SIZE];
+            long pack = 0;
+            for (int i = 4 * DealBatch.HAND_SIZE + 1; i < Card.NUM_CARDS; i++) {
+                pack |= 1L << order[i];
+            }
+            int trump = kicked / Card.NUM_RANKS;
+            int chalkToWin = 1 + random.nextInt(14);
+            checkExact(pack, Long.bitCount(pack), trump, chalkToWin);
+            checkExact(CardSet.ALL & ~beggar & ~(1L << kicked), Long.bitCount(pack), trump, chalkToWin);
+        }
+    }
+
+    @Test
+    void smallPacksMatchEnumeration() {
+        // Trump Ace, Six and Jack, the Two and King, with off-suit chalk ranks among the rest (rank 0 is the Two)
+        long pack = 0;
+        for (int rank : new int[] {Card.ACE, Card.SIX, Card.JACK, 0, Card.KING}) {
+            pack |= 1L << rank;
+        }
+        for (int card : new int[] {13 + Card.ACE, 13 + Card.JACK, 26 + Card.SIX, 26 + Card.TEN, 39,
+                39 + Card.ACE, 39 + Card.QUEEN, 13 + 3, 26 + 7}) {
+            pack |= 1L << card;
+        }
+        for (int chalkToWin = 1; chalkToWin <= 3; chalkToWin++) {
+            checkExact(pack, 14, 0, chalkToWin);
+            checkExact(pack, 13, 0, chalkToWin);
+            checkExact(pack, 12, 0, chalkToWin); // Too few for a run
+        }
+        checkExact(CardSet.suit(2), 13, 2, 2); // Nothing but trumps: the run can only win or run out
+    }
+
+    /*
+     * Deals the pack out of a real Deck, shuffled, three cards a seat and a kick at a time, and
+     * counts how each run ended
+     */
+    private static Outcomes simulate(long pack, int trump, int chalkToWin, int trials, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        byte[] order = new byte[Card.NUM_CARDS];
+        int next = 0;
+        for (long seen = CardSet.ALL & ~pack; seen != 0; seen &= seen - 1) {
+            order[next++] = (byte) Long.numberOfTrailingZeros(seen);
+        }
+        int firstPackCard = next;
+        for (long rest = pack; rest != 0; rest &= rest - 1) {
+            order[next++] = (byte) Long.numberOfTrailingZeros(rest);
+        }
+        List<Player> players = new ArrayList<>();
+        for (int seat = 0; seat < 4; seat++) {
+            players.add(new Player("Player " + (seat + 1)));
+        }
+
+        Deck deck = new Deck(random);
+        Outcomes out = new Outcomes(Long.bitCount(pack) / RUN_CARDS);
+        for (int t = 0; t < trials; t++) {
+            deck.stack(order);
+            for (int i = 0; i < firstPackCard; i++) {
+                deck.kick(); // The cards already dealt and kicked
+            }
+            deck.shuffle(random);
+            for (Player player : players) {
+                player.clearHand();
+            }
+            int needed = chalkToWin;
+            for (int run = 0; ; run++) {
+                Card kicked = deck.deal(players, 3) ? deck.kick() : null;
+                if (kicked == null) {
+                    out.exhausted++;
+                    break;
+                }
+                int chalk = Rules.kickChalk(kicked);
+                out.expectedChalk += chalk;
+                needed -= chalk;
+                if (chalk > 0 && needed <= 0) {
+                    out.matchWon++;
+                    break;
+                }
+                if (kicked.getSuitIndex() != trump) {
+                    out.changed[run]++;
+                    break;
+                }
+            }
+        }
+        for (int run = 0; run < out.changed.length; run++) {
+            out.changed[run] /= trials;
+        }
+        out.matchWon /= trials;
+        out.exhausted /= trials;
+        out.expectedChalk /= trials;
+        return out;
+    }
+
+    private static void checkSimulated(long pack, int trump, int chalkToWin) {
+        int packSize = Long.bitCount(pack);
+        KickOdds odds = KickOdds.of(pack, packSize, trump, chalkToWin);
+        Outcomes simulated = simulate(pack, trump, chalkToWin, 200_000, packSize * 31L + chalkToWin);
+        // Over 200,000 runs a probability's standard error is at most 0.0012
+        String where = "pack " + packSize + ", chalk to win " + chalkToWin;
+        for (int k = 1; k <= odds.getMaxRuns(); k++) {
+            assertEquals(odds.getTrumpChanged(k), simulated.trumpChanged(k), 0.006, where);
+        }
+        assertEquals(odds.getMatchWon(), simulated.matchWon, 0.006, where);
+        assertEquals(odds.getExhausted(), simulated.exhausted, 0.006, where);
+        assertEquals(odds.getExpectedChalk(), simulated.expectedChalk, 0.015, where);
+    }
+
+    @Test
+    void runningARealDeckMatchesTheOdds() {
+        // Trumps thick in a small pack, so runs carry on and the match is often won on a kick
+        // (all of suit 1 but its Three, rank 1, and two off-suit chalk cards)
+        long small = CardSet.suit(1) & ~(1L << (13 + 1)) | 1L << Card.ACE | 1L << (26 + Card.JACK);
+        checkSimulated(small, 1, 2);
+        checkSimulated(small, 1, 3);
+
+        byte[] order = new byte[Card.NUM_CARDS];
+        DealGenerator.permutation(19, 0, 0, 0, order);
+        long pack = 0;
+        for (int i = 4 * DealBatch.HAND_SIZE + 1; i < Card.NUM_CARDS; i++) {
+            pack |= 1L << order[i];
+        }
+        checkSimulated(pack, order[4 * DealBatch.HAND_SIZE] / Card.NUM_RANKS, 3);
+    }
+
+    @Test
+    void impossiblePacksAreRefused() {
+        assertThrows(IllegalArgumentException.class, () -> KickOdds.of(CardSet.suit(0), 14, 0, 14));
+        assertThrows(IllegalArgumentException.class, () -> KickOdds.of(CardSet.ALL, 27, 4, 14));
+        assertThrows(IllegalArgumentException.class, () -> KickOdds.of(CardSet.ALL, 27, 0, 0));
+    }
+}
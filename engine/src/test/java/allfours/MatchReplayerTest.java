@@ -0,0 +1,125 @@
+package allfours;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class MatchReplayerTest {
+
+    // A position the original match passed through: the events recorded by then, the hands and the match score
+    private static final class Checkpoint {
+        final int events;
+        final long[] hands = new long[4];
+        final int scoreA;
+        final int scoreB;
+
+        Checkpoint(int events, List<Player> players, int scoreA, int scoreB) {
+            this.events = events;
+            for (int seat = 0; seat < 4; seat++) {
+                hands[seat] = players.get(seat).getHandMask();
+            }
+            this.scoreA = scoreA;
+            this.scoreB = scoreB;
+        }
+    }
+
+    private static final class Recorded {
+        final byte[] record;
+        final int events;
+        final int scoreA;
+        final int scoreB;
+        final List<Checkpoint> checkpoints;
+
+        Recorded(byte[] record, int events, int scoreA, int scoreB, List<Checkpoint> checkpoints) {
+            this.record = record;
+            this.events = events;
+            this.scoreA = scoreA;
+            this.scoreB = scoreB;
+            this.checkpoints = checkpoints;
+        }
+    }
+
+    private static Recorded record(long seed) {
+        MatchRecorder recorder = new MatchRecorder();
+        List<Checkpoint> checkpoints = new ArrayList<>();
+        GameController[] game = new GameController[1];
+        GameListener tricks = new GameListener() {
+            private List<Player> players;
+
+            @Override
+            public void cardsDealt(List<Player> dealt, int cardsEach) {
+                players = dealt;
+            }
+
+            @Override
+            public void trickWon(Player winner, int points) {
+                checkpoints.add(new Checkpoint(recorder.getEventCount(), players,
+                        game[0].getTeamA().getMatchScore(), game[0].getTeamB().getMatchScore()));
+            }
+        };
+        game[0] = new GameController(new MulticastGameListener(recorder, tricks), new SplittableRandom(seed));
+        SplittableRandom bots = new SplittableRandom(seed + 1);
+        game[0].setupGame(new DecisionProvider[] {
+                new RandomDecisionProvider(bots.split()), new RandomDecisionProvider(bots.split()),
+                new RandomDecisionProvider(bots.split()), new RandomDecisionProvider(bots.split()) });
+        game[0].playMatch();
+        return new Recorded(recorder.getRecord(), recorder.getEventCount(), game[0].getTeamA().getMatchScore(),
+                game[0].getTeamB().getMatchScore(), checkpoints);
+    }
+
+    @Test
+    void fullReplayReachesTheSameResult() {
+        for (long seed = 1; seed <= 50; seed++) {
+            Recorded recorded = record(seed);
+            // replay() also re-records the match and checks the bytes are the same
+            GameController replayed = MatchReplayer.replay(ByteBuffer.wrap(recorded.record));
+            assertEquals(recorded.scoreA, replayed.getTeamA().getMatchScore());
+            assertEquals(recorded.scoreB, replayed.getTeamB().getMatchScore());
+            assertEquals(recorded.scoreA > recorded.scoreB, replayed.getWinner() == replayed.getTeamA());
+        }
+    }
+
+    @Test
+    void eventCountMatchesTheRecorder() {
+        for (long seed = 1; seed <= 20; seed++) {
+            Recorded recorded = record(seed);
+            assertEquals(recorded.events, MatchReplayer.eventCount(ByteBuffer.wrap(recorded.record)));
+        }
+    }
+
+    @Test
+    void partialReplayStopsWhereTheMatchStood() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (long seed = 100; seed < 110; seed++) {
+            Recorded recorded = record(seed);
+            ByteBuffer record = ByteBuffer.wrap(recorded.record);
+            for (int i = 0; i < 10; i++) {
+                Checkpoint checkpoint = recorded.checkpoints.get(random.nextInt(recorded.checkpoints.size()));
+                GameController replayed = MatchReplayer.replay(record, checkpoint.events, GameListener.SILENT);
+                long[] hands = new long[4];
+                for (int seat = 0; seat < 4; seat++) {
+                    hands[seat] = replayed.getPlayers().get(seat).getHandMask();
+                }
+                assertArrayEquals(checkpoint.hands, hands);
+                assertEquals(checkpoint.scoreA, replayed.getTeamA().getMatchScore());
+                assertEquals(checkpoint.scoreB, replayed.getTeamB().getMatchScore());
+            }
+            assertEquals(0, record.position()); // The caller's buffer is left as it was
+        }
+    }
+
+    @Test
+    void corruptRecordFailsLoudly() {
+        byte[] record = record(3).record;
+        // Move the final END event to the other team
+        record[record.length - 1] ^= 1;
+        assertThrows(IllegalStateException.class, () -> MatchReplayer.replay(ByteBuffer.wrap(record)));
+    }
+}
@@ -0,0 +1,193 @@
+package allfours;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+import org.junit.jupiter.api.Test;
+
+class MatchSnapshotTest {
+
+    // Decides from what the seat can see alone, so a restored match plays on exactly as the original did
+    private static final DecisionProvider BOT = new DecisionProvider() {
+        @Override
+        public Card chooseCard(Player player, String leadSuit, String trumpSuit, List<Card> playedCards) {
+            long legal = player.legalMoves(leadSuit, trumpSuit, playedCards);
+            long mix = (player.getHandMask() ^ CardSet.of(playedCards)) * 0x9E3779B97F4A7C15L;
+            return Card.of(CardSet.select(legal, (int) ((mix >>> 32) % Long.bitCount(legal))));
+        }
+
+        @Override
+        public boolean wantsToBeg(Player player, Card kickedCard) {
+            return Long.bitCount(player.getHandMask() & CardSet.suit(kickedCard.getSuitIndex())) < 2;
+        }
+
+        @Override
+        public boolean givesChalk(Player dealer, Card kickedCard) {
+            return (dealer.getHandMask() & 1) == 0;
+        }
+    };
+
+    // Draws everything through nextLong and counts the draws, so a later generator can pick up where it stood
+    private static final class CountingRandom implements RandomGenerator {
+        private final SplittableRandom random;
+        private long draws;
+
+        CountingRandom(long seed, long skip) {
+            random = new SplittableRandom(seed);
+            for (long i = 0; i < skip; i++) {
+                nextLong();
+            }
+        }
+
+        @Override
+        public long nextLong() {
+            draws++;
+            return random.nextLong();
+        }
+    }
+
+    // Shuffles every pack from the same starting order, so a deal depends only on the generator's draws
+    private static final class FreshDeck extends Deck {
+        private static final byte[] ORDER = new byte[Card.NUM_CARDS];
+
+        static {
+            for (int i = 0; i < Card.NUM_CARDS; i++) {
+                ORDER[i] = (byte) i;
+            }
+        }
+
+        FreshDeck(RandomGenerator rng) {
+            super(rng);
+        }
+
+        @Override
+        public void shuffle() {
+            stack(ORDER);
+            super.shuffle();
+        }
+    }
+
+    // Takes one snapshot at a chosen point of the match, with the draws the deals after it start from
+    private static final class Probe implements GameListener {
+        final CountingRandom random;
+        final boolean handStart;
+        final int target;
+        GameController game;
+        int seen;
+        long drawsBeforeDeal;
+        byte[] snapshot;
+        long snapshotDraws;
+
+        Probe(CountingRandom random, boolean handStart, int target) {
+            this.random = random;
+            this.handStart = handStart;
+            this.target = target;
+        }
+
+        @Override
+        public void matchStarted(Player firstDealer) {
+            drawsBeforeDeal = random.draws;
+        }
+
+        @Override
+        public void dealerRotated(Player dealer) {
+            drawsBeforeDeal = random.draws;
+        }
+
+        @Override
+        public void packExhausted() {
+            drawsBeforeDeal = random.draws;
+        }
+
+        @Override
+        public void roundStarted(Player dealer) {
+            if (handStart && ++seen == target) {
+                snapshot = MatchSnapshot.capture(game);
+                snapshotDraws = drawsBeforeDeal; // The hand is dealt again from the snapshot
+            }
+        }
+
+        @Override
+        public void cardPlayed(Player player, Card card) {
+            if (!handStart && ++seen == target) {
+                snapshot = MatchSnapshot.capture(game);
+                snapshotDraws = random.draws;
+            }
+        }
+    }
+
+    private static DecisionProvider[] seats() {
+        return new DecisionProvider[] {BOT, BOT, BOT, BOT};
+    }
+
+    private static void roundTrip(boolean handStart, int matches) {
+        SplittableRandom targets = new SplittableRandom(handStart ? 1 : 2);
+        int taken = 0;
+        for (long seed = 0; seed < matches; seed++) {
+            CountingRandom random = new CountingRandom(seed, 0);
+            Probe probe = new Probe(random, handStart, 1 + targets.nextInt(handStart ? 6 : 80));
+            GameController original = new GameController(probe, random, new FreshDeck(random));
+            probe.game = original;
+            original.setupGame(seats(), (int) (seed & 3));
+            Team winner = original.playMatch();
+            if (probe.snapshot == null) {
+                continue; // The match ended first
+            }
+            taken++;
+            assertEquals(handStart ? MatchSnapshot.HAND_START : MatchSnapshot.TRICK_PLAY,
+                    MatchSnapshot.kind(probe.snapshot, 0));
+            assertEquals(probe.snapshot.length, MatchSnapshot.length(probe.snapshot, 0));
+
+            CountingRandom resumed = new CountingRandom(seed, probe.snapshotDraws);
+            GameController restored = MatchSnapshot.restore(probe.snapshot, 0, seats(), GameListener.SILENT,
+                    resumed, new FreshDeck(resumed));
+            assertArrayEquals(probe.snapshot, MatchSnapshot.capture(restored));
+
+            Team restoredWinner = restored.playMatch();
+            assertEquals(original.getTeamA().getMatchScore(), restored.getTeamA().getMatchScore());
+            assertEquals(original.getTeamB().getMatchScore(), restored.getTeamB().getMatchScore());
+            assertEquals(winner == original.getTeamA(), restoredWinner == restored.getTeamA());
+        }
+        assertTrue(taken > matches / 2, "snapshots taken: " + taken);
+    }
+
+    @Test
+    void trickPlaySnapshotFinishesTheMatchAsTheOriginal() {
+        roundTrip(false, 300);
+    }
+
+    @Test
+    void handStartSnapshotFinishesTheMatchAsTheOriginal() {
+        roundTrip(true, 300);
+    }
+
+    @Test
+    void snapshotOutsideHandStartOrTrickPlayIsRefused() {
+        GameController[] game = new GameController[1];
+        byte[][] kicked = new byte[1][];
+        GameListener listener = new GameListener() {
+            @Override
+            public void cardKicked(Card kickedCard, boolean runningPack) {
+                assertThrows(IllegalStateException.class, () -> MatchSnapshot.capture(game[0]));
+                kicked[0] = new byte[0];
+            }
+        };
+        game[0] = new GameController(listener, new SplittableRandom(5));
+        game[0].setupGame(seats(), 0);
+        game[0].playMatch();
+        assertNotNull(kicked[0]);
+    }
+
+    @Test
+    void unknownVersionIsRejected() {
+        byte[] snapshot = {(byte) ((MatchSnapshot.VERSION + 1) << 4), 0, 0};
+        assertThrows(IllegalArgumentException.class, () -> MatchSnapshot.kind(snapshot, 0));
+    }
+}
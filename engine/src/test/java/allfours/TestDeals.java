@@ -0,0 +1,24 @@
+package allfours;
+
+import java.util.SplittableRandom;
+
+// Random deals shared by the tests that play hands out without a Round
+final class TestDeals {
+
+    private TestDeals() {
+    }
+
+    // cardsEach cards to each of the four seats, from the whole pack
+    static long[] deal(SplittableRandom random, int cardsEach) {
+        long[] hands = new long[4];
+        long pack = CardSet.ALL;
+        for (int seat = 0; seat < 4; seat++) {
+            for (int i = 0; i < cardsEach; i++) {
+                int card = CardSet.select(pack, random.nextInt(Long.bitCount(pack)));
+                hands[seat] |= 1L << card;
+                pack &= ~(1L << card);
+            }
+        }
+        return hands;
+    }
+}